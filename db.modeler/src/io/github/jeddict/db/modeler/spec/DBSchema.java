@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
+import io.github.jeddict.jpa.modeler.rules.entity.NameIndex;
 import io.github.jeddict.jpa.spec.extend.BaseElement;
 import org.netbeans.modeler.core.exception.InvalidElmentException;
 import org.netbeans.modeler.specification.model.document.IDefinitionElement;
@@ -36,6 +37,7 @@ public class DBSchema extends BaseElement implements IDefinitionElement, IRootEl
 
     private Schema schema;
     private final Map<String, DBTable> tables = new HashMap<>();
+    private final NameIndex<DBTable> tableNameIndex = new NameIndex<>(DBTable::getName);
     
     private final Map<String, String> queries = new HashMap<>();
     private final Map<String, String> insertQueries = new HashMap<>();
@@ -66,20 +68,16 @@ public class DBSchema extends BaseElement implements IDefinitionElement, IRootEl
 
     public void addTable(DBTable table) {
         this.tables.put(table.getName(), table);
+        tableNameIndex.update(table);
     }
 
     public void removeTable(DBTable table) {
         this.tables.remove(table.getName());
+        tableNameIndex.remove(table);
     }
 
     public List<DBTable> findAllTable(String tableName) {
-        List<DBTable> tablesResult = new ArrayList<>();
-        for (DBTable table : tables.values()) {
-            if (tableName.equals(table.getName())) {
-                tablesResult.add(table);
-            }
-        }
-        return tablesResult;
+        return new ArrayList<>(tableNameIndex.get(tableName));
     }
 
     @Override
@@ -58,8 +58,6 @@ public class DBUtil {
                         NbBundle.getMessage(JSONBUtil.class, "Error.PLUGIN_INSTALLATION.text", "Relation Mapper", file.getCurrentVersion()),
                         NbBundle.getMessage(JSONBUtil.class, "Error.PLUGIN_INSTALLATION.title"), ERROR_MESSAGE, ERROR_ICON);
             } else {
-                //close diagram and reopen 
-                file.getChildrenFile("DB").ifPresent(ModelerFile::close);
                 relationMapper.init(file, entityMappings, paramWorkSpace);
             }
         } catch (Throwable t) {
@@ -0,0 +1,266 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.initializer;
+
+import io.github.jeddict.jpa.modeler.widget.JavaClassWidget;
+import io.github.jeddict.jpa.modeler.widget.attribute.AttributeWidget;
+import io.github.jeddict.jpa.spec.bean.AssociationAttribute;
+import io.github.jeddict.jpa.spec.extend.Attribute;
+import io.github.jeddict.jpa.spec.extend.CompositionAttribute;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.jpa.spec.extend.RelationAttribute;
+import io.github.jeddict.jpa.spec.workspace.WorkSpace;
+import io.github.jeddict.jpa.spec.workspace.WorkSpaceElement;
+import io.github.jeddict.jpa.spec.workspace.WorkSpaceItem;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import org.netbeans.api.visual.widget.Scene.SceneListener;
+import org.openide.util.NbPreferences;
+
+/**
+ * Virtualized loading of large diagrams.
+ *
+ * All the class widgets and generalization edges are created on load, but
+ * the attribute widgets and the relation, association and embedded edges
+ * of a class are only created when the class widget intersects the viewport.
+ * The attributes of the neighbour classes are created at the same time, so
+ * that all the edges of a visible class are drawn and can be edited.
+ */
+final class DiagramVirtualizer implements SceneListener, ChangeListener {
+
+    private static final String THRESHOLD = "virtualDiagramThreshold";
+    private static final int DEFAULT_THRESHOLD = 300;
+
+    private final JPAModelerScene scene;
+    private final JPAModelerUtil modelerUtil;
+    /**
+     * class widgets whose attribute widgets are not created
+     */
+    private final Set<JavaClassWidget> attributesPending = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * class widgets whose edges are not all created
+     */
+    private final Set<JavaClassWidget> edgesPending = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<JavaClass, WorkSpaceItem> workSpaceItems = new IdentityHashMap<>();
+    private final Map<JavaClass, Set<JavaClass>> neighbours = new IdentityHashMap<>();
+    private JViewport viewport;
+    private boolean materializing;
+
+    DiagramVirtualizer(JPAModelerScene scene, JPAModelerUtil modelerUtil, WorkSpace workSpace) {
+        this.scene = scene;
+        this.modelerUtil = modelerUtil;
+        for (WorkSpaceItem item : workSpace.getItems()) {
+            workSpaceItems.put(item.getJavaClass(), item);
+        }
+        for (JavaClassWidget<JavaClass> classWidget : scene.getJavaClassWidges()) {
+            attributesPending.add(classWidget);
+            edgesPending.add(classWidget);
+            JavaClass javaClass = classWidget.getBaseElementSpec();
+            for (Attribute attribute : (List<Attribute>) javaClass.getAttributes().getAllAttribute()) {
+                JavaClass target = null;
+                if (attribute instanceof RelationAttribute) {
+                    target = ((RelationAttribute) attribute).getConnectedEntity();
+                } else if (attribute instanceof CompositionAttribute) {
+                    target = ((CompositionAttribute) attribute).getConnectedClass();
+                } else if (attribute instanceof AssociationAttribute) {
+                    target = ((AssociationAttribute) attribute).getConnectedClass();
+                }
+                if (target != null && target != javaClass) {
+                    neighbours.computeIfAbsent(javaClass, c -> Collections.newSetFromMap(new IdentityHashMap<>())).add(target);
+                    neighbours.computeIfAbsent(target, c -> Collections.newSetFromMap(new IdentityHashMap<>())).add(javaClass);
+                }
+            }
+        }
+        scene.addSceneListener(this);
+    }
+
+    /**
+     * @return true if the diagram of {@code itemCount} classes must be
+     * virtualized
+     */
+    static boolean isEnabled(int itemCount) {
+        int threshold = NbPreferences.forModule(DiagramVirtualizer.class).getInt(THRESHOLD, DEFAULT_THRESHOLD);
+        return threshold > 0 && itemCount >= threshold;
+    }
+
+    boolean isAttributeLoaded(JavaClassWidget classWidget) {
+        return !attributesPending.contains(classWidget);
+    }
+
+    boolean isMaterialized() {
+        return edgesPending.isEmpty();
+    }
+
+    /**
+     * Creates the attribute widgets and edges of the class widgets
+     * intersecting the viewport.
+     */
+    void materializeVisible() {
+        JComponent view = scene.getView();
+        if (materializing || edgesPending.isEmpty() || view == null) {
+            return;
+        }
+        if (viewport == null) {
+            viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, view);
+            if (viewport != null) {
+                viewport.addChangeListener(this);
+            }
+        }
+        Rectangle visibleRect = view.getVisibleRect();
+        if (visibleRect.isEmpty()) {
+            return;
+        }
+        Rectangle visibleSceneRect = scene.convertViewToScene(visibleRect);
+        boolean changed = false;
+        materializing = true;
+        try {
+            for (JavaClassWidget classWidget : new ArrayList<>(edgesPending)) {
+                Rectangle bounds = classWidget.getBounds();
+                Rectangle sceneBounds = bounds != null ? classWidget.convertLocalToScene(bounds)
+                        : new Rectangle(classWidget.getPreferredLocation(), new Dimension(1, 1));
+                if (sceneBounds.intersects(visibleSceneRect)) {
+                    materialize(classWidget);
+                    changed = true;
+                }
+            }
+        } finally {
+            materializing = false;
+        }
+        if (edgesPending.isEmpty()) {
+            dispose();
+        }
+        if (changed) {
+            scene.validate();
+        }
+    }
+
+    /**
+     * Creates all the attribute widgets and edges not yet created, on the
+     * event dispatch thread.
+     */
+    void materializeAll() {
+        if (edgesPending.isEmpty()) {
+            return;
+        }
+        materializing = true;
+        try {
+            new ArrayList<>(attributesPending).forEach(this::loadAttributes);
+            List<JavaClassWidget> classWidgets = new ArrayList<>(edgesPending);
+            edgesPending.clear();
+            classWidgets.forEach(modelerUtil::loadFlowEdge);
+        } finally {
+            materializing = false;
+        }
+        dispose();
+        scene.validate();
+    }
+
+    /**
+     * Creates the attribute widgets and edges of the classes, and of their
+     * neighbours.
+     */
+    void materialize(Collection<JavaClassWidget> classWidgets) {
+        if (edgesPending.isEmpty()) {
+            return;
+        }
+        materializing = true;
+        try {
+            classWidgets.forEach(this::materialize);
+        } finally {
+            materializing = false;
+        }
+        if (edgesPending.isEmpty()) {
+            dispose();
+        }
+        scene.validate();
+    }
+
+    private void materialize(JavaClassWidget classWidget) {
+        if (!edgesPending.remove(classWidget)) {
+            return;
+        }
+        loadAttributes(classWidget);
+        List<JavaClassWidget> neighbourWidgets = new ArrayList<>();
+        for (JavaClass neighbour : neighbours.getOrDefault(classWidget.getBaseElementSpec(), Collections.emptySet())) {
+            Object widget = scene.getBaseElement(neighbour.getId());
+            if (widget instanceof JavaClassWidget) {
+                neighbourWidgets.add((JavaClassWidget) widget);
+            }
+        }
+        neighbourWidgets.forEach(this::loadAttributes);
+        modelerUtil.loadFlowEdge(classWidget);
+        neighbourWidgets.forEach(modelerUtil::loadFlowEdge);
+    }
+
+    private void loadAttributes(JavaClassWidget<JavaClass> classWidget) {
+        if (!attributesPending.remove(classWidget)) {
+            return;
+        }
+        modelerUtil.loadAttribute(classWidget);
+        WorkSpaceItem workSpaceItem = workSpaceItems.get(classWidget.getBaseElementSpec());
+        if (workSpaceItem != null) {
+            for (AttributeWidget<? extends Attribute> attrWidget : classWidget.getAllAttributeWidgets(false)) {
+                WorkSpaceElement workSpaceElement = workSpaceItem.getWorkSpaceElementMap().get(attrWidget.getBaseElementSpec());
+                if (workSpaceElement != null) {
+                    attrWidget.setTextDesign(workSpaceElement.getTextDesign());
+                }
+            }
+        }
+        scene.reinstallColorScheme(classWidget);
+        scene.validateFetchPlan(classWidget);
+    }
+
+    private void dispose() {
+        scene.removeSceneListener(this);
+        if (viewport != null) {
+            viewport.removeChangeListener(this);
+            viewport = null;
+        }
+    }
+
+    @Override
+    public void stateChanged(ChangeEvent e) {
+        materializeVisible();
+    }
+
+    @Override
+    public void sceneRepaint() {
+    }
+
+    @Override
+    public void sceneValidating() {
+    }
+
+    @Override
+    public void sceneValidated() {
+        if (!materializing && !edgesPending.isEmpty()) {
+            SwingUtilities.invokeLater(this::materializeVisible);
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.initializer;
+
+import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.Entity;
+import io.github.jeddict.jpa.spec.extend.Attribute;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.prefs.Preferences;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import org.netbeans.modeler.validation.jaxb.ValidateJAXB;
+import org.openide.util.NbPreferences;
+
+/**
+ * Reads and writes the JPA model (.jpa file).
+ *
+ * The JAXB context is shared, the (un)marshallers are created once per
+ * thread, and the model is read through a StAX stream reader and written
+ * straight to a buffered file stream. When the fast save preference is
+ * enabled, the model is written without indentation.
+ */
+public final class JPAModelSerializer {
+
+    private static final String SCHEMA_LOCATION = "http://java.sun.com/xml/ns/persistence/orm orm_2_1.xsd"; // NOI18N
+    private static final String FAST_SAVE = "fastSave"; // NOI18N
+    private static final String EMPTY_MODEL = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><entity-mappings/>"; // NOI18N
+
+    private static final JAXBContext CONTEXT = createContext();
+
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    });
+    private static final ThreadLocal<Unmarshaller> UNMARSHALLER = ThreadLocal.withInitial(() -> createUnmarshaller(true));
+    private static final ThreadLocal<Unmarshaller> CLONE_UNMARSHALLER = ThreadLocal.withInitial(() -> createUnmarshaller(false));
+    private static final ThreadLocal<Marshaller> MARSHALLER = ThreadLocal.withInitial(() -> createMarshaller(true));
+    private static final ThreadLocal<Marshaller> FAST_MARSHALLER = ThreadLocal.withInitial(() -> createMarshaller(false));
+
+    private JPAModelSerializer() {
+    }
+
+    private static JAXBContext createContext() {
+        try {
+            return JAXBContext.newInstance(new Class<?>[]{EntityMappings.class, Entity.class, Attribute.class}); // unmarshaller will be always init before marshaller
+        } catch (JAXBException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Unmarshaller createUnmarshaller(boolean validate) {
+        return create(() -> {
+            Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+            if (validate) {
+                unmarshaller.setEventHandler(new ValidateJAXB());
+            }
+            return unmarshaller;
+        });
+    }
+
+    private static Marshaller createMarshaller(boolean formatted) {
+        return create(() -> {
+            Marshaller marshaller = CONTEXT.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+            marshaller.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, SCHEMA_LOCATION);
+            marshaller.setEventHandler(new ValidateJAXB());
+            return marshaller;
+        });
+    }
+
+    private static <T> T create(JAXBSupplier<T> supplier) {
+        try {
+            return supplier.get();
+        } catch (JAXBException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static EntityMappings load(File file) throws JAXBException {
+        Unmarshaller unmarshaller = UNMARSHALLER.get();
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = INPUT_FACTORY.get().createXMLStreamReader(stream);
+            try {
+                return unmarshaller.unmarshal(reader, EntityMappings.class).getValue();
+            } finally {
+                reader.close();
+                release(unmarshaller);
+            }
+        } catch (IOException | XMLStreamException ex) {
+            throw new JAXBException(ex);
+        }
+    }
+
+    public static void save(EntityMappings entityMappings, File file) throws JAXBException {
+        Marshaller marshaller = isFastSave() ? FAST_MARSHALLER.get() : MARSHALLER.get();
+        try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(file))) {
+            marshaller.marshal(entityMappings, stream);
+        } catch (IOException ex) {
+            throw new JAXBException(ex);
+        }
+    }
+
+    /**
+     * @param entityMappings the model
+     * @return the formatted content of the .jpa file
+     * @throws JAXBException
+     */
+    public static String toString(EntityMappings entityMappings) throws JAXBException {
+        StringWriter sw = new StringWriter();
+        MARSHALLER.get().marshal(entityMappings, sw);
+        return sw.toString();
+    }
+
+    /**
+     * @param element the model element
+     * @return the formatted xml content of the element
+     * @throws JAXBException
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> String marshal(T element) throws JAXBException {
+        StringWriter sw = new StringWriter();
+        QName qName = new QName(element.getClass().getSimpleName());
+        JAXBElement<T> root = new JAXBElement<>(qName, (Class<T>) element.getClass(), element);
+        MARSHALLER.get().marshal(root, sw);
+        return sw.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T clone(T element) throws JAXBException {
+        String content = marshal(element);
+        Unmarshaller unmarshaller = CLONE_UNMARSHALLER.get();
+        try {
+            return unmarshaller.unmarshal(new StreamSource(new StringReader(content)), (Class<T>) element.getClass()).getValue();
+        } finally {
+            release(unmarshaller);
+        }
+    }
+
+    /**
+     * The unmarshaller keeps a reference to the last unmarshalled graph (GC
+     * issue), an empty model is unmarshalled to release it.
+     */
+    private static void release(Unmarshaller unmarshaller) {
+        try {
+            unmarshaller.unmarshal(new StreamSource(new StringReader(EMPTY_MODEL)));
+        } catch (JAXBException ex) {
+            // the unmarshaller is recreated for the next use
+            UNMARSHALLER.remove();
+            CLONE_UNMARSHALLER.remove();
+        }
+    }
+
+    private static Preferences getPreferences() {
+        return NbPreferences.forModule(JPAModelSerializer.class);
+    }
+
+    /**
+     * @return true if the model is saved without indentation
+     */
+    public static boolean isFastSave() {
+        return getPreferences().getBoolean(FAST_SAVE, false);
+    }
+
+    public static void setFastSave(boolean fastSave) {
+        getPreferences().putBoolean(FAST_SAVE, fastSave);
+    }
+
+    @FunctionalInterface
+    private interface JAXBSupplier<T> {
+
+        T get() throws JAXBException;
+    }
+
+}
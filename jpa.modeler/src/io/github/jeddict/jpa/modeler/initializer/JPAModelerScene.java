@@ -16,7 +16,10 @@
 package io.github.jeddict.jpa.modeler.initializer;
 
 import java.awt.event.InputEvent;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,12 +27,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 import org.netbeans.api.project.Project;
 import io.github.jeddict.jcode.util.JavaSourceHelper;
 import io.github.jeddict.jcode.util.StringHelper;
 import static io.github.jeddict.jcode.util.StringHelper.getNext;
 import io.github.jeddict.collaborate.enhancement.EnhancementRequestHandler;
 import io.github.jeddict.network.social.LinkedInSocialNetwork;
+import io.github.jeddict.jpa.modeler.internal.jpqleditor.JPQLCompletionIndex;
 import io.github.jeddict.jpa.modeler.widget.EmbeddableWidget;
 import io.github.jeddict.jpa.modeler.widget.EntityWidget;
 import io.github.jeddict.jpa.modeler.widget.FlowNodeWidget;
@@ -55,6 +60,14 @@ import io.github.jeddict.jpa.spec.EntityMappings;
 import io.github.jeddict.jpa.spec.ManagedClass;
 import io.github.jeddict.jpa.spec.extend.IPersistenceAttributes;
 import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.jpa.spec.workspace.WorkSpace;
+import io.github.jeddict.jpa.modeler.properties.idgeneration.BatchInsertReadinessDialog;
+import io.github.jeddict.jpa.modeler.properties.persistence.PerformanceProfileMenu;
+import io.github.jeddict.jpa.modeler.source.generator.ui.GenerationOptionsMenu;
+import io.github.jeddict.jpa.modeler.rules.attribute.AttributeValidator;
+import io.github.jeddict.jpa.modeler.rules.attribute.FetchPlanAnalyzer;
+import io.github.jeddict.jpa.modeler.rules.entity.ClassValidator;
+import io.github.jeddict.jpa.modeler.rules.entity.NameIndex;
 import io.github.jeddict.jpa.modeler.specification.model.event.JPAEventListener;
 import static io.github.jeddict.jpa.modeler.initializer.JPAModelerUtil.GENERATE_SRC;
 import static io.github.jeddict.jpa.modeler.initializer.JPAModelerUtil.PERSISTENCE_UNIT;
@@ -95,6 +108,11 @@ import io.github.jeddict.jpa.modeler.widget.flow.relation.DirectionalRelation;
 public class JPAModelerScene extends DefaultPModelerScene<EntityMappings> {
 
     private final WorkSpaceManager workSpaceManager;
+    private NameIndex<JavaClass> classNameIndex;
+    private JPQLCompletionIndex jpqlCompletionIndex;
+    private DiagramVirtualizer virtualizer;
+    private boolean fetchPlanValidationPending;
+    private FetchPlanAnalyzer fetchPlanAnalyzer;
 
     public JPAModelerScene() {
         workSpaceManager = new WorkSpaceManager(this);
@@ -130,7 +148,161 @@ public class JPAModelerScene extends DefaultPModelerScene<EntityMappings> {
         return classWidgets;
     }
 
+    /**
+     * @return the index of all the classes (including the classes hidden in
+     * the current workspace) by class name
+     */
+    public NameIndex<JavaClass> getClassNameIndex() {
+        if (classNameIndex == null) {
+            classNameIndex = new NameIndex<>(JavaClass::getClazz, getBaseElementSpec().getJavaClass());
+        }
+        return classNameIndex;
+    }
+
+    /**
+     * @return the JPQL completion index of the entities and attributes of the
+     * model
+     */
+    public JPQLCompletionIndex getJPQLCompletionIndex() {
+        if (jpqlCompletionIndex == null) {
+            jpqlCompletionIndex = new JPQLCompletionIndex(getBaseElementSpec());
+        }
+        return jpqlCompletionIndex;
+    }
+
+    /**
+     * Discards the attributes cached by the JPQL completion index, on a change
+     * of the model: attribute added, renamed or removed, class, relation or
+     * generalization created or deleted.
+     */
+    public void clearJPQLCompletionIndex() {
+        if (jpqlCompletionIndex != null) {
+            jpqlCompletionIndex.clear();
+        }
+    }
+
+    /**
+     * Updates the duplicate class name signal of the class widgets named
+     * {@code name}, classes hidden in the current workspace are counted first.
+     *
+     * @param name
+     */
+    public void scanDuplicateClass(String name) {
+        if (name == null) {
+            return;
+        }
+        int nameCount = 0;
+        List<JavaClassWidget> javaClassWidgets = new ArrayList<>();
+        for (JavaClass javaClass : getClassNameIndex().get(name)) {
+            Object widget = getBaseElement(javaClass.getId());
+            if (widget instanceof JavaClassWidget) {
+                javaClassWidgets.add((JavaClassWidget) widget);
+            } else {
+                ++nameCount;
+            }
+        }
+        for (JavaClassWidget javaClassWidget : javaClassWidgets) {
+            if (++nameCount > 1) {
+                javaClassWidget.getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_JAVA_CLASS);
+            } else if (!javaClassWidget.getSignalManager().getSignalList(ERROR).isEmpty()) {
+                javaClassWidget.getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_JAVA_CLASS);
+            }
+        }
+    }
+
+    /**
+     * Updates the fetch plan warnings of the relation attribute widgets, once
+     * for all the relation changes of the current event.
+     */
+    public void validateFetchPlan() {
+        if (fetchPlanValidationPending) {
+            return;
+        }
+        fetchPlanValidationPending = true;
+        SwingUtilities.invokeLater(() -> {
+            fetchPlanValidationPending = false;
+            fetchPlanAnalyzer = new FetchPlanAnalyzer(getBaseElementSpec());
+            for (JavaClassWidget classWidget : getJavaClassWidges()) {
+                validateFetchPlan(classWidget);
+            }
+        });
+    }
+
+    /**
+     * Updates the fetch plan warnings of the relation attribute widgets of the
+     * class from the last analysis, for the attribute widgets created after it
+     * (virtualized scene).
+     */
+    void validateFetchPlan(JavaClassWidget classWidget) {
+        if (fetchPlanAnalyzer == null || fetchPlanValidationPending) {
+            return; // the pending validation covers the class
+        }
+        if (classWidget instanceof PersistenceClassWidget) {
+            for (RelationAttributeWidget attributeWidget : ((PersistenceClassWidget<?>) classWidget).getRelationAttributeWidgets()) {
+                AttributeValidator.validateFetchPlan(attributeWidget, fetchPlanAnalyzer);
+            }
+        }
+    }
+
+    void virtualize(JPAModelerUtil modelerUtil, WorkSpace workSpace) {
+        virtualizer = new DiagramVirtualizer(this, modelerUtil, workSpace);
+    }
+
+    /**
+     * @return false if the attribute widgets of the class are not created yet
+     * (virtualized scene)
+     */
+    public boolean isAttributeLoaded(JavaClassWidget classWidget) {
+        return virtualizer == null || virtualizer.isAttributeLoaded(classWidget);
+    }
+
+    /**
+     * Creates the attribute widgets and edges of a virtualized scene not yet
+     * created, before an operation on the whole diagram.
+     */
+    public void materializeAll() {
+        if (virtualizer == null) {
+            return;
+        }
+        invokeOnEventDispatchThread(() -> {
+            if (virtualizer != null) {
+                virtualizer.materializeAll();
+                virtualizer = null;
+            }
+        });
+    }
+
+    /**
+     * Creates the attribute widgets and edges of the classes of a virtualized
+     * scene, before an operation reading their widgets.
+     */
+    public void materialize(Collection<JavaClassWidget> classWidgets) {
+        if (virtualizer == null || classWidgets.isEmpty()) {
+            return;
+        }
+        invokeOnEventDispatchThread(() -> {
+            if (virtualizer != null) {
+                virtualizer.materialize(classWidgets);
+            }
+        });
+    }
+
+    private static void invokeOnEventDispatchThread(Runnable runnable) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            runnable.run();
+            return;
+        }
+        try {
+            SwingUtilities.invokeAndWait(runnable);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
     public boolean compile() {
+        materializeAll();
         boolean compiled = true;
         StringBuilder errorMessage = new StringBuilder();
         for (IBaseElementWidget e : getBaseElements()) {
@@ -170,6 +342,12 @@ public class JPAModelerScene extends DefaultPModelerScene<EntityMappings> {
 
     @Override
     public void deleteBaseElement(IBaseElementWidget baseElementWidget) {
+        if (baseElementWidget instanceof JavaClassWidget) {
+            // the edges of a class are removed with it, the edges of a
+            // virtualized scene are only created around the visible classes
+            materialize(Collections.singleton((JavaClassWidget) baseElementWidget));
+        }
+        clearJPQLCompletionIndex();
         EntityMappings entityMappingsSpec = (EntityMappings) this.getModelerFile().getModelerScene().getBaseElementSpec();
         if (baseElementWidget instanceof IFlowElementWidget) {
             if (baseElementWidget instanceof FlowNodeWidget) { //reverse refractorRelationSynchronously
@@ -211,6 +389,9 @@ public class JPAModelerScene extends DefaultPModelerScene<EntityMappings> {
                 entityMappingsSpec.removeBaseElement(baseElementSpec);
                 flowNodeWidget.setFlowElementsContainer(null);
                 this.removeBaseElement(flowNodeWidget);
+                if (baseElementSpec instanceof JavaClass) {
+                    scanDuplicateClass(getClassNameIndex().remove((JavaClass) baseElementSpec));
+                }
             } else if (baseElementWidget instanceof IFlowEdgeWidget) {
                 if (baseElementWidget instanceof RelationFlowWidget) {
                     RelationFlowWidget relationFlowWidget = (RelationFlowWidget) baseElementWidget;
@@ -305,6 +486,7 @@ public class JPAModelerScene extends DefaultPModelerScene<EntityMappings> {
         }
 
         if (!isExist) {
+            clearJPQLCompletionIndex();
 
             IRootElement rootElement = (IRootElement) this.getModelerFile().getModelerScene().getBaseElementSpec();
             IBaseElement baseElement = null;
@@ -357,6 +539,7 @@ public class JPAModelerScene extends DefaultPModelerScene<EntityMappings> {
         }
         
         getWorkSpaceManager().loadWorkspaceUI();
+        validateFetchPlan();
     }
 
     @Override
@@ -418,12 +601,15 @@ public class JPAModelerScene extends DefaultPModelerScene<EntityMappings> {
         int index = 0;
         menuList.add(index++, getWorkSpaceManager().getWorkSpaceMenu());
         menuList.add(index++, generateCode);
+        menuList.add(index++, GenerationOptionsMenu.createMenu());
         menuList.add(index++, visDB);
         menuList.add(index++, visJSONB);
         menuList.add(index++, searchMenu);
         menuList.add(index++, null);
         menuList.add(index++, openPUXML);
+        menuList.add(index++, PerformanceProfileMenu.createMenu(this));
         menuList.add(index++, openJPQLPanel);
+        menuList.add(index++, BatchInsertReadinessDialog.createMenuItem(this));
         menuList.add(index++, null);
         menuList.add(index++, shareModeler);
         menuList.add(index++, EnhancementRequestHandler.getInstance().getComponent());
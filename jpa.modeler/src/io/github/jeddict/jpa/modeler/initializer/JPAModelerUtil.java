@@ -20,8 +20,6 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.io.File;
 import java.io.IOException;
-import java.io.StringReader;
-import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -29,18 +27,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.ImageIcon;
 import static javax.swing.JOptionPane.YES_NO_OPTION;
 import static javax.swing.JOptionPane.YES_OPTION;
 import static javax.swing.JOptionPane.showConfirmDialog;
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import javax.xml.namespace.QName;
-import javax.xml.transform.stream.StreamSource;
 import org.apache.commons.lang3.StringUtils;
 import org.netbeans.api.visual.widget.Widget;
 import static io.github.jeddict.jcode.util.StringHelper.getNext;
@@ -144,7 +139,6 @@ import org.netbeans.modeler.specification.model.ModelerDiagramSpecification;
 import org.netbeans.modeler.specification.model.document.core.IBaseElement;
 import org.netbeans.modeler.specification.model.document.widget.IBaseElementWidget;
 import org.netbeans.modeler.specification.version.SoftwareVersion;
-import org.netbeans.modeler.validation.jaxb.ValidateJAXB;
 import org.netbeans.modeler.widget.edge.IEdgeWidget;
 import org.netbeans.modeler.widget.edge.info.EdgeWidgetInfo;
 import org.netbeans.modeler.widget.node.INodeWidget;
@@ -168,6 +162,8 @@ import io.github.jeddict.jpa.spec.bean.AssociationAttribute;
 
 public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
 
+    private static final Logger LOG = Logger.getLogger(JPAModelerUtil.class.getName());
+
     public static String PACKAGE_ICON_PATH;
     public static String JAVA_CLASS_ICON_PATH;
     public static String ABSTRACT_JAVA_CLASS_ICON_PATH;
@@ -274,20 +270,10 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
 
     private final static Map<Class<? extends BaseElement>, String> BASE_ELEMENT_ICONS = new HashMap<>();
 
-    private static JAXBContext MODELER_CONTEXT;
-    public static Unmarshaller MODELER_UNMARSHALLER;
-    public static Marshaller MODELER_MARSHALLER;
     public final static InputOutput IO;
     public final static String JPA_FILE_TYPE = "text/jpa+xml";
 
     static {
-
-        try {
-            MODELER_CONTEXT = JAXBContext.newInstance(new Class<?>[]{EntityMappings.class, Entity.class, Attribute.class}); // unmarshaller will be always init before marshaller
-        } catch (JAXBException ex) {
-            ExceptionUtils.printStackTrace(ex);
-        }
-
         ClassLoader cl = JPAModelerUtil.class.getClassLoader();//Eager Initialization
         GENERATE_SRC = new ImageIcon(cl.getResource("io/github/jeddict/jpa/modeler/resource/image/misc/generate-src.png"));
         RUN_JPQL_ICON = new ImageIcon(cl.getResource("io/github/jeddict/jpa/modeler/resource/image/misc/run-jpql.png"));
@@ -418,28 +404,12 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
     }
 
     public static EntityMappings getEntityMapping(File file) throws JAXBException {
-        EntityMappings definition_Load;
-        if (MODELER_UNMARSHALLER == null) {
-            MODELER_UNMARSHALLER = MODELER_CONTEXT.createUnmarshaller();
-            MODELER_UNMARSHALLER.setEventHandler(new ValidateJAXB());
-        }
-//         content = FileUtils.readFileToString(file);
-        definition_Load = MODELER_UNMARSHALLER.unmarshal(new StreamSource(file), EntityMappings.class).getValue();
-        MODELER_UNMARSHALLER = null;//GC issue
-//        cleanUnMarshaller();
+        long start = System.currentTimeMillis();
+        EntityMappings definition_Load = JPAModelSerializer.load(file);
+        IO.getOut().println(String.format("Loaded %s (%d KB) in %d ms", file.getName(), file.length() / 1024, System.currentTimeMillis() - start));
         return definition_Load;
     }
 
-    private static void cleanUnMarshaller() {
-        try {
-            String xmlStr = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><entity-mappings/>";
-            MODELER_UNMARSHALLER.unmarshal(new StreamSource(new StringReader(xmlStr)));
-        } catch (JAXBException ex) {
-//            Exceptions.printStackTrace(ex);
-            System.out.println(ex);
-        }
-    }
-
     @Override
     public void loadModelerFile(final ModelerFile file) throws ProcessInterruptedException {
 
@@ -508,8 +478,18 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
                         .map(item -> item.getJavaClass())
                         .forEach(node -> loadFlowNode(scene, node));
             }
-            scene.getJavaClassWidges().forEach(this::loadAttribute);
-            scene.getJavaClassWidges().forEach(this::loadFlowEdge);
+            boolean virtualized = diagram == null
+                    && !entityMappings.isGenerated()
+                    && entityMappings.getCurrentWorkSpace().getItems().stream().allMatch(item -> item.getLocation() != null)
+                    && DiagramVirtualizer.isEnabled(entityMappings.getCurrentWorkSpace().getItems().size());
+            if (virtualized) {
+                // attributes and edges are created once visible
+                scene.getJavaClassWidges().forEach(classWidget -> loadGeneralization(scene, classWidget));
+                scene.virtualize(this, entityMappings.getCurrentWorkSpace());
+            } else {
+                scene.getJavaClassWidges().forEach(this::loadAttribute);
+                scene.getJavaClassWidges().forEach(this::loadFlowEdge);
+            }
             entityMappings.initJavaInheritanceMapping();
 
             int itemSize;
@@ -549,93 +529,99 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
         }
     }
 
-    private void loadAttribute(JavaClassWidget classWidget) {
+    void loadAttribute(JavaClassWidget classWidget) {
         if (classWidget.getBaseElementSpec() instanceof ManagedClass) {
             ManagedClass<IPersistenceAttributes> classSpec = (ManagedClass) classWidget.getBaseElementSpec();
             PersistenceClassWidget persistenceClassWidget = (PersistenceClassWidget) classWidget;
             if (classSpec.getRootElement() != null && classSpec.getAttributes() != null) {
-                WorkSpace workSpace = classSpec.getRootElement().getCurrentWorkSpace();
-                if ((classSpec.getAttributes() instanceof IPrimaryKeyAttributes)
-                        && (classWidget instanceof PrimaryKeyContainerWidget)) {
-                    PrimaryKeyContainerWidget primaryKeyContainerWidget = (PrimaryKeyContainerWidget) classWidget;
-                    IPrimaryKeyAttributes persistenceAttributes = (IPrimaryKeyAttributes) classSpec.getAttributes();
-                    persistenceAttributes.getId()
-                            .forEach((id) -> primaryKeyContainerWidget.addIdAttribute(id.getName(), id));
-                    EmbeddedId embeddedId = persistenceAttributes.getEmbeddedId();
-                    if (embeddedId != null) {// && workSpace.hasItem(embeddedId.getConnectedClass())) {
-                        primaryKeyContainerWidget.addEmbeddedIdAttribute(embeddedId.getName(), embeddedId);
-                    }
-                    persistenceAttributes.getVersion()
-                            .forEach(version -> primaryKeyContainerWidget.addVersionAttribute(version.getName(), version));
-                }
-                classSpec.getAttributes().getBasic()
-                        .forEach(attr -> persistenceClassWidget.addBasicAttribute(attr.getName(), attr));
-                classSpec.getAttributes().getTransient()
-                        .forEach(attr -> persistenceClassWidget.addTransientAttribute(attr.getName(), attr));
-                classSpec.getAttributes().getEmbedded()
-                        .stream()
-                        .filter(embedded -> workSpace.hasItem(embedded.getConnectedClass()))
-                        .forEach((attr) -> {
-                            persistenceClassWidget.addSingleValueEmbeddedAttribute(attr.getName(), attr);
-                        });
-                classSpec.getAttributes().getElementCollection()
-                        .forEach((elementCollection) -> {
-                            if (elementCollection.getConnectedClass() != null) {
-                                if (workSpace.hasItem(elementCollection.getConnectedClass())) {
-                                    persistenceClassWidget.addMultiValueEmbeddedAttribute(elementCollection.getName(), elementCollection);
-                                }
-                            } else {
-                                persistenceClassWidget.addBasicCollectionAttribute(elementCollection.getName(), elementCollection);
-                            }
-                        });
-                classSpec.getAttributes().getOneToOne()
-                        .stream()
-                        .filter(oto -> workSpace.hasItem(oto.getConnectedEntity()))
-                        .forEach(oto -> persistenceClassWidget.addOneToOneRelationAttribute(oto.getName(), oto.isPrimaryKey(), oto));
-                classSpec.getAttributes().getOneToMany()
-                        .stream()
-                        .filter(otm -> workSpace.hasItem(otm.getConnectedEntity()))
-                        .forEach(otm -> persistenceClassWidget.addOneToManyRelationAttribute(otm.getName(), otm));
-                classSpec.getAttributes().getManyToOne()
-                        .stream()
-                        .filter(mto -> workSpace.hasItem(mto.getConnectedEntity()))
-                        .forEach(mto -> persistenceClassWidget.addManyToOneRelationAttribute(mto.getName(), mto.isPrimaryKey(), mto));
-                classSpec.getAttributes().getManyToMany()
-                        .stream()
-                        .filter(mtm -> workSpace.hasItem(mtm.getConnectedEntity()))
-                        .forEach(mtm -> persistenceClassWidget.addManyToManyRelationAttribute(mtm.getName(), mtm));
-                persistenceClassWidget.sortAttributes();
+                persistenceClassWidget.loadAttributes(() -> loadAttribute(classSpec, persistenceClassWidget));
             }
         } else if (classWidget.getBaseElementSpec() instanceof BeanClass) {
             BeanClass classSpec = (BeanClass) classWidget.getBaseElementSpec();
-            WorkSpace workSpace = classSpec.getRootElement().getCurrentWorkSpace();
             BeanClassWidget beanClassWidget = (BeanClassWidget) classWidget;
             if (classSpec.getRootElement() != null && classSpec.getAttributes() != null) {
-                classSpec.getAttributes().getBasic()
-                        .forEach(attr -> beanClassWidget.addBeanAttribute(attr.getName(), attr));
-                classSpec.getAttributes().getElementCollection()
-                        .forEach(attr -> beanClassWidget.addBeanCollectionAttribute(attr.getName(), attr));
-                classSpec.getAttributes().getTransient()
-                        .forEach(attr -> beanClassWidget.addBeanTransientAttribute(attr.getName(), attr));
-                classSpec.getAttributes().getOneToOne()
-                        .stream()
-                        .filter(oto -> workSpace.hasItem(oto.getConnectedClass()))
-                        .forEach(oto -> beanClassWidget.addOneToOneAssociationAttribute(oto.getName(), oto));
-                classSpec.getAttributes().getOneToMany()
-                        .stream()
-                        .filter(otm -> workSpace.hasItem(otm.getConnectedClass()))
-                        .forEach(otm -> beanClassWidget.addOneToManyAssociationAttribute(otm.getName(), otm));
-                classSpec.getAttributes().getManyToOne()
-                        .stream()
-                        .filter(mto -> workSpace.hasItem(mto.getConnectedClass()))
-                        .forEach(mto -> beanClassWidget.addManyToOneAssociationAttribute(mto.getName(), mto));
-                classSpec.getAttributes().getManyToMany()
-                        .stream()
-                        .filter(mtm -> workSpace.hasItem(mtm.getConnectedClass()))
-                        .forEach(mtm -> beanClassWidget.addManyToManyAssociationAttribute(mtm.getName(), mtm));
-                beanClassWidget.sortAttributes();
+                beanClassWidget.loadAttributes(() -> loadAttribute(classSpec, beanClassWidget));
+            }
+        }
+    }
+
+    private void loadAttribute(ManagedClass<IPersistenceAttributes> classSpec, PersistenceClassWidget persistenceClassWidget) {
+        WorkSpace workSpace = classSpec.getRootElement().getCurrentWorkSpace();
+        if ((classSpec.getAttributes() instanceof IPrimaryKeyAttributes)
+                && (persistenceClassWidget instanceof PrimaryKeyContainerWidget)) {
+            PrimaryKeyContainerWidget primaryKeyContainerWidget = (PrimaryKeyContainerWidget) persistenceClassWidget;
+            IPrimaryKeyAttributes persistenceAttributes = (IPrimaryKeyAttributes) classSpec.getAttributes();
+            persistenceAttributes.getId()
+                    .forEach((id) -> primaryKeyContainerWidget.addIdAttribute(id.getName(), id));
+            EmbeddedId embeddedId = persistenceAttributes.getEmbeddedId();
+            if (embeddedId != null) {// && workSpace.hasItem(embeddedId.getConnectedClass())) {
+                primaryKeyContainerWidget.addEmbeddedIdAttribute(embeddedId.getName(), embeddedId);
             }
+            persistenceAttributes.getVersion()
+                    .forEach(version -> primaryKeyContainerWidget.addVersionAttribute(version.getName(), version));
         }
+        classSpec.getAttributes().getBasic()
+                .forEach(attr -> persistenceClassWidget.addBasicAttribute(attr.getName(), attr));
+        classSpec.getAttributes().getTransient()
+                .forEach(attr -> persistenceClassWidget.addTransientAttribute(attr.getName(), attr));
+        classSpec.getAttributes().getEmbedded()
+                .stream()
+                .filter(embedded -> workSpace.hasItem(embedded.getConnectedClass()))
+                .forEach((attr) -> {
+                    persistenceClassWidget.addSingleValueEmbeddedAttribute(attr.getName(), attr);
+                });
+        classSpec.getAttributes().getElementCollection()
+                .forEach((elementCollection) -> {
+                    if (elementCollection.getConnectedClass() != null) {
+                        if (workSpace.hasItem(elementCollection.getConnectedClass())) {
+                            persistenceClassWidget.addMultiValueEmbeddedAttribute(elementCollection.getName(), elementCollection);
+                        }
+                    } else {
+                        persistenceClassWidget.addBasicCollectionAttribute(elementCollection.getName(), elementCollection);
+                    }
+                });
+        classSpec.getAttributes().getOneToOne()
+                .stream()
+                .filter(oto -> workSpace.hasItem(oto.getConnectedEntity()))
+                .forEach(oto -> persistenceClassWidget.addOneToOneRelationAttribute(oto.getName(), oto.isPrimaryKey(), oto));
+        classSpec.getAttributes().getOneToMany()
+                .stream()
+                .filter(otm -> workSpace.hasItem(otm.getConnectedEntity()))
+                .forEach(otm -> persistenceClassWidget.addOneToManyRelationAttribute(otm.getName(), otm));
+        classSpec.getAttributes().getManyToOne()
+                .stream()
+                .filter(mto -> workSpace.hasItem(mto.getConnectedEntity()))
+                .forEach(mto -> persistenceClassWidget.addManyToOneRelationAttribute(mto.getName(), mto.isPrimaryKey(), mto));
+        classSpec.getAttributes().getManyToMany()
+                .stream()
+                .filter(mtm -> workSpace.hasItem(mtm.getConnectedEntity()))
+                .forEach(mtm -> persistenceClassWidget.addManyToManyRelationAttribute(mtm.getName(), mtm));
+    }
+
+    private void loadAttribute(BeanClass classSpec, BeanClassWidget beanClassWidget) {
+        WorkSpace workSpace = classSpec.getRootElement().getCurrentWorkSpace();
+        classSpec.getAttributes().getBasic()
+                .forEach(attr -> beanClassWidget.addBeanAttribute(attr.getName(), attr));
+        classSpec.getAttributes().getElementCollection()
+                .forEach(attr -> beanClassWidget.addBeanCollectionAttribute(attr.getName(), attr));
+        classSpec.getAttributes().getTransient()
+                .forEach(attr -> beanClassWidget.addBeanTransientAttribute(attr.getName(), attr));
+        classSpec.getAttributes().getOneToOne()
+                .stream()
+                .filter(oto -> workSpace.hasItem(oto.getConnectedClass()))
+                .forEach(oto -> beanClassWidget.addOneToOneAssociationAttribute(oto.getName(), oto));
+        classSpec.getAttributes().getOneToMany()
+                .stream()
+                .filter(otm -> workSpace.hasItem(otm.getConnectedClass()))
+                .forEach(otm -> beanClassWidget.addOneToManyAssociationAttribute(otm.getName(), otm));
+        classSpec.getAttributes().getManyToOne()
+                .stream()
+                .filter(mto -> workSpace.hasItem(mto.getConnectedClass()))
+                .forEach(mto -> beanClassWidget.addManyToOneAssociationAttribute(mto.getName(), mto));
+        classSpec.getAttributes().getManyToMany()
+                .stream()
+                .filter(mtm -> workSpace.hasItem(mtm.getConnectedClass()))
+                .forEach(mtm -> beanClassWidget.addManyToManyAssociationAttribute(mtm.getName(), mtm));
     }
 
     @Override
@@ -645,96 +631,97 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
             PersistenceClassWidget persistenceClassWidget = (PersistenceClassWidget) parentConatiner;
             WorkSpace workSpace = classSpec.getRootElement().getCurrentWorkSpace();
             JPAModelerScene scene = (JPAModelerScene) persistenceClassWidget.getModelerScene();
-            for (Map.Entry<IBaseElement, Rectangle> elementEntry : elements.entrySet()) {
-                IBaseElement element = elementEntry.getKey();
-                if (element instanceof Attribute) {
-                    Attribute attribute = (Attribute) element;
-                    attribute.setAttributes(classSpec.getAttributes());
-
-                    if ((classSpec.getAttributes() instanceof IPrimaryKeyAttributes) && (parentConatiner instanceof PrimaryKeyContainerWidget)) {
-                        PrimaryKeyContainerWidget primaryKeyContainerWidget = (PrimaryKeyContainerWidget) parentConatiner;
-                        IPrimaryKeyAttributes persistenceAttributes = (IPrimaryKeyAttributes) classSpec.getAttributes();
-                        if (element instanceof Id) {
-                            Id id = (Id) element;
-                            primaryKeyContainerWidget.addIdAttribute(id.getName(), id);
-                            persistenceAttributes.addId(id);
+            persistenceClassWidget.loadAttributes(() -> {
+                for (Map.Entry<IBaseElement, Rectangle> elementEntry : elements.entrySet()) {
+                    IBaseElement element = elementEntry.getKey();
+                    if (element instanceof Attribute) {
+                        Attribute attribute = (Attribute) element;
+                        attribute.setAttributes(classSpec.getAttributes());
+
+                        if ((classSpec.getAttributes() instanceof IPrimaryKeyAttributes) && (parentConatiner instanceof PrimaryKeyContainerWidget)) {
+                            PrimaryKeyContainerWidget primaryKeyContainerWidget = (PrimaryKeyContainerWidget) parentConatiner;
+                            IPrimaryKeyAttributes persistenceAttributes = (IPrimaryKeyAttributes) classSpec.getAttributes();
+                            if (element instanceof Id) {
+                                Id id = (Id) element;
+                                primaryKeyContainerWidget.addIdAttribute(id.getName(), id);
+                                persistenceAttributes.addId(id);
+                            }
+                            if (element instanceof Version) {
+                                Version version = (Version) element;
+                                primaryKeyContainerWidget.addVersionAttribute(version.getName(), version);
+                                persistenceAttributes.addVersion(version);
+                            }
                         }
-                        if (element instanceof Version) {
-                            Version version = (Version) element;
-                            primaryKeyContainerWidget.addVersionAttribute(version.getName(), version);
-                            persistenceAttributes.addVersion(version);
+                        if (element instanceof Basic) {
+                            Basic basic = (Basic) element;
+                            persistenceClassWidget.addBasicAttribute(basic.getName(), basic);
+                            classSpec.getAttributes().addBasic(basic);
+                        }
+                        if (element instanceof Transient) {
+                            Transient _transient = (Transient) element;
+                            persistenceClassWidget.addTransientAttribute(_transient.getName(), _transient);
+                            classSpec.getAttributes().addTransient(_transient);
+                        }
+                        if (element instanceof Embedded && workSpace.hasItem(((Embedded) element).getConnectedClass())) {
+                            Embedded embedded = (Embedded) element;
+                            SingleValueEmbeddedAttributeWidget attributeWidget = persistenceClassWidget.addSingleValueEmbeddedAttribute(embedded.getName(), embedded);
+                            classSpec.getAttributes().addEmbedded(embedded);
+                            loadEmbeddedEdge(scene, SINGLE_EMBEDDABLE_RELATION,
+                                    e -> new SingleValueEmbeddableFlowWidget(scene, e),
+                                    persistenceClassWidget, attributeWidget);
                         }
-                    }
-                    if (element instanceof Basic) {
-                        Basic basic = (Basic) element;
-                        persistenceClassWidget.addBasicAttribute(basic.getName(), basic);
-                        classSpec.getAttributes().addBasic(basic);
-                    }
-                    if (element instanceof Transient) {
-                        Transient _transient = (Transient) element;
-                        persistenceClassWidget.addTransientAttribute(_transient.getName(), _transient);
-                        classSpec.getAttributes().addTransient(_transient);
-                    }
-                    if (element instanceof Embedded && workSpace.hasItem(((Embedded) element).getConnectedClass())) {
-                        Embedded embedded = (Embedded) element;
-                        SingleValueEmbeddedAttributeWidget attributeWidget = persistenceClassWidget.addSingleValueEmbeddedAttribute(embedded.getName(), embedded);
-                        classSpec.getAttributes().addEmbedded(embedded);
-                        loadEmbeddedEdge(scene, SINGLE_EMBEDDABLE_RELATION,
-                                e -> new SingleValueEmbeddableFlowWidget(scene, e),
-                                persistenceClassWidget, attributeWidget);
-                    }
 
-                    if (element instanceof ElementCollection) {
-                        ElementCollection elementCollection = (ElementCollection) element;
-                        if (elementCollection.getConnectedClass() != null) {
-                            if (workSpace.hasItem(elementCollection.getConnectedClass())) {
-                                MultiValueEmbeddedAttributeWidget attributeWidget = persistenceClassWidget.addMultiValueEmbeddedAttribute(elementCollection.getName(), elementCollection);
-                                loadEmbeddedEdge(scene, MULTI_EMBEDDABLE_RELATION,
-                                        e -> new MultiValueEmbeddableFlowWidget(scene, e),
-                                        persistenceClassWidget, attributeWidget);
+                        if (element instanceof ElementCollection) {
+                            ElementCollection elementCollection = (ElementCollection) element;
+                            if (elementCollection.getConnectedClass() != null) {
+                                if (workSpace.hasItem(elementCollection.getConnectedClass())) {
+                                    MultiValueEmbeddedAttributeWidget attributeWidget = persistenceClassWidget.addMultiValueEmbeddedAttribute(elementCollection.getName(), elementCollection);
+                                    loadEmbeddedEdge(scene, MULTI_EMBEDDABLE_RELATION,
+                                            e -> new MultiValueEmbeddableFlowWidget(scene, e),
+                                            persistenceClassWidget, attributeWidget);
+                                }
+                            } else {
+                                persistenceClassWidget.addBasicCollectionAttribute(elementCollection.getName(), elementCollection);
                             }
-                        } else {
-                            persistenceClassWidget.addBasicCollectionAttribute(elementCollection.getName(), elementCollection);
+                            classSpec.getAttributes().addElementCollection(elementCollection);
                         }
-                        classSpec.getAttributes().addElementCollection(elementCollection);
-                    }
 
-                    if (element instanceof OneToOne && workSpace.hasItem(((OneToOne) element).getConnectedEntity())) {
-                        OneToOne oto = (OneToOne) element;
-                        OTORelationAttributeWidget attributeWidget = persistenceClassWidget.addOneToOneRelationAttribute(oto.getName(), oto.isPrimaryKey(), oto);
-                        classSpec.getAttributes().addOneToOne(oto);
-                        loadRelationEdge(scene, OTO_RELATION,
-                        attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
-                                e -> new UOTORelationFlowWidget(scene, e) : e -> new BOTORelationFlowWidget(scene, e), persistenceClassWidget, attributeWidget, OTORelationAttributeWidget.class);
-                    }
-                    if (element instanceof OneToMany && workSpace.hasItem(((OneToMany) element).getConnectedEntity())) {
-                        OneToMany otm = (OneToMany) element;
-                        OTMRelationAttributeWidget attributeWidget = persistenceClassWidget.addOneToManyRelationAttribute(otm.getName(), otm);
-                        classSpec.getAttributes().addOneToMany(otm);
-                        loadRelationEdge(scene, OTM_RELATION,
-                        attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
-                                e -> new UOTMRelationFlowWidget(scene, e) : null, persistenceClassWidget, attributeWidget, OTMRelationAttributeWidget.class);
-                    }
-                    if (element instanceof ManyToOne && workSpace.hasItem(((ManyToOne) element).getConnectedEntity())) {
-                        ManyToOne mto = (ManyToOne) element;
-                        MTORelationAttributeWidget attributeWidget = persistenceClassWidget.addManyToOneRelationAttribute(mto.getName(), mto.isPrimaryKey(), mto);
-                        classSpec.getAttributes().addManyToOne(mto);
-                        loadRelationEdge(scene, MTO_RELATION,
-                        attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
-                                e -> new UMTORelationFlowWidget(scene, e) : e -> new BMTORelationFlowWidget(scene, e), persistenceClassWidget, attributeWidget, OTMRelationAttributeWidget.class);
-                    }
-                    if (element instanceof ManyToMany && workSpace.hasItem(((ManyToMany) element).getConnectedEntity())) {
-                        ManyToMany mtm = (ManyToMany) element;
-                        MTMRelationAttributeWidget attributeWidget = persistenceClassWidget.addManyToManyRelationAttribute(mtm.getName(), mtm);
-                        classSpec.getAttributes().addManyToMany(mtm);
-                        loadRelationEdge(scene, MTM_RELATION,
-                        attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
-                                e -> new UMTMRelationFlowWidget(scene, e) : e -> new BMTMRelationFlowWidget(scene, e), persistenceClassWidget, attributeWidget, MTMRelationAttributeWidget.class);
-                    }
+                        if (element instanceof OneToOne && workSpace.hasItem(((OneToOne) element).getConnectedEntity())) {
+                            OneToOne oto = (OneToOne) element;
+                            OTORelationAttributeWidget attributeWidget = persistenceClassWidget.addOneToOneRelationAttribute(oto.getName(), oto.isPrimaryKey(), oto);
+                            classSpec.getAttributes().addOneToOne(oto);
+                            loadRelationEdge(scene, OTO_RELATION,
+                            attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
+                                    e -> new UOTORelationFlowWidget(scene, e) : e -> new BOTORelationFlowWidget(scene, e), persistenceClassWidget, attributeWidget, OTORelationAttributeWidget.class);
+                        }
+                        if (element instanceof OneToMany && workSpace.hasItem(((OneToMany) element).getConnectedEntity())) {
+                            OneToMany otm = (OneToMany) element;
+                            OTMRelationAttributeWidget attributeWidget = persistenceClassWidget.addOneToManyRelationAttribute(otm.getName(), otm);
+                            classSpec.getAttributes().addOneToMany(otm);
+                            loadRelationEdge(scene, OTM_RELATION,
+                            attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
+                                    e -> new UOTMRelationFlowWidget(scene, e) : null, persistenceClassWidget, attributeWidget, OTMRelationAttributeWidget.class);
+                        }
+                        if (element instanceof ManyToOne && workSpace.hasItem(((ManyToOne) element).getConnectedEntity())) {
+                            ManyToOne mto = (ManyToOne) element;
+                            MTORelationAttributeWidget attributeWidget = persistenceClassWidget.addManyToOneRelationAttribute(mto.getName(), mto.isPrimaryKey(), mto);
+                            classSpec.getAttributes().addManyToOne(mto);
+                            loadRelationEdge(scene, MTO_RELATION,
+                            attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
+                                    e -> new UMTORelationFlowWidget(scene, e) : e -> new BMTORelationFlowWidget(scene, e), persistenceClassWidget, attributeWidget, OTMRelationAttributeWidget.class);
+                        }
+                        if (element instanceof ManyToMany && workSpace.hasItem(((ManyToMany) element).getConnectedEntity())) {
+                            ManyToMany mtm = (ManyToMany) element;
+                            MTMRelationAttributeWidget attributeWidget = persistenceClassWidget.addManyToManyRelationAttribute(mtm.getName(), mtm);
+                            classSpec.getAttributes().addManyToMany(mtm);
+                            loadRelationEdge(scene, MTM_RELATION,
+                            attributeWidget.getBaseElementSpec().getConnectedAttribute()==null?
+                                    e -> new UMTMRelationFlowWidget(scene, e) : e -> new BMTMRelationFlowWidget(scene, e), persistenceClassWidget, attributeWidget, MTMRelationAttributeWidget.class);
+                        }
 
+                    }
                 }
-            }
-            persistenceClassWidget.sortAttributes();
+            });
         } else if (parentConatiner instanceof JPAModelerScene) {
             JPAModelerScene scene = (JPAModelerScene) parentConatiner;
             EntityMappings entityMappings = scene.getBaseElementSpec();
@@ -781,7 +768,7 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
         return nodeWidget;
     }
 
-    private void loadFlowEdge(JavaClassWidget<? extends JavaClass> javaClassWidget) {
+    void loadFlowEdge(JavaClassWidget<? extends JavaClass> javaClassWidget) {
         JPAModelerScene scene = javaClassWidget.getModelerScene();
         loadGeneralization(scene, javaClassWidget);
         if (javaClassWidget instanceof PersistenceClassWidget) {
@@ -850,6 +837,9 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
             Function<EdgeWidgetInfo, IEdgeWidget> edgeWidgetFunction,
             PersistenceClassWidget sourcePersistenceClassWidget,
             EmbeddedAttributeWidget sourceAttributeWidget) {
+        if (sourceAttributeWidget.getEmbeddableFlowWidget() != null) {
+            return;
+        }
         CompositionAttribute sourceEmbeddedAttribute = (CompositionAttribute) sourceAttributeWidget.getBaseElementSpec();
         EmbeddableWidget targetEntityWidget = (EmbeddableWidget) scene.getBaseElement(sourceEmbeddedAttribute.getConnectedClass().getId());
         EdgeWidgetInfo edgeInfo = new EdgeWidgetInfo(edgeWidgetFunction);
@@ -875,6 +865,9 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
         }
 
         EntityWidget targetEntityWidget = (EntityWidget) scene.getBaseElement(sourceRelationAttribute.getConnectedEntity().getId());
+        if (sourceRelationAttributeWidget.getRelationFlowWidget() != null || !scene.isAttributeLoaded(targetEntityWidget)) {
+            return;// already drawn or target attributes not created yet (virtualized scene)
+        }
         RelationAttributeWidget targetRelationAttributeWidget = null;
 
         EdgeWidgetInfo edgeInfo = new EdgeWidgetInfo(edgeWidgetFunction);
@@ -911,6 +904,9 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
         }
 
         BeanClassWidget targetClassWidget = (BeanClassWidget) scene.getBaseElement(sourceAssociationAttribute.getConnectedClass().getId());
+        if (sourceAssociationAttributeWidget.getAssociationFlowWidget() != null || !scene.isAttributeLoaded(targetClassWidget)) {
+            return;// already drawn or target attributes not created yet (virtualized scene)
+        }
         AssociationAttributeWidget targetAssociationAttributeWidget = null;
 
         EdgeWidgetInfo edgeInfo = new EdgeWidgetInfo(edgeWidgetFunction);
@@ -935,7 +931,7 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
         
     private void loadGeneralization(JPAModelerScene scene, JavaClassWidget javaClassWidget) {
         JavaClass javaClass = (JavaClass) javaClassWidget.getBaseElementSpec();
-        if (javaClass.getSuperclass() != null) {
+        if (javaClass.getSuperclass() != null && javaClassWidget.getOutgoingGeneralizationFlowWidget() == null) {
             JavaClassWidget subClassWidget = javaClassWidget;
             JavaClassWidget superClassWidget = (JavaClassWidget) scene.getBaseElement(javaClass.getSuperclass().getId());
             EdgeWidgetInfo edgeInfo = new EdgeWidgetInfo(e -> new GeneralizationFlowWidget(scene, e));
@@ -1059,33 +1055,21 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
 
     public static void saveFile(EntityMappings entityMappings, File file) {
         try {
-            if (MODELER_MARSHALLER == null) {
-                MODELER_MARSHALLER = MODELER_CONTEXT.createMarshaller();
-                MODELER_MARSHALLER.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-                MODELER_MARSHALLER.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, "http://java.sun.com/xml/ns/persistence/orm orm_2_1.xsd");
-                MODELER_MARSHALLER.setEventHandler(new ValidateJAXB());
-            }
-            MODELER_MARSHALLER.marshal(entityMappings, file);
+            long start = System.currentTimeMillis();
+            JPAModelSerializer.save(entityMappings, file);
+            IO.getOut().println(String.format("Saved %s (%d KB) in %d ms", file.getName(), file.length() / 1024, System.currentTimeMillis() - start));
         } catch (JAXBException ex) {
             ExceptionUtils.printStackTrace(ex);
         }
     }
 
     public String getContent(EntityMappings entityMappings) {
-        StringWriter sw = new StringWriter();
         try {
-            if (MODELER_MARSHALLER == null) {
-                MODELER_MARSHALLER = MODELER_CONTEXT.createMarshaller();
-                MODELER_MARSHALLER.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-                MODELER_MARSHALLER.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, "http://java.sun.com/xml/ns/persistence/orm orm_2_1.xsd");
-                MODELER_MARSHALLER.setEventHandler(new ValidateJAXB());
-            }
-            MODELER_MARSHALLER.marshal(entityMappings, sw);
-
+            return JPAModelSerializer.toString(entityMappings);
         } catch (JAXBException ex) {
             ExceptionUtils.printStackTrace(ex);
         }
-        return sw.toString();
+        return "";
     }
 
     public static void createNewModelerFile(EntityMappings entityMappingsSpec, FileObject parentFileObject, String fileName, boolean autoOpen) {
@@ -1171,25 +1155,21 @@ public class JPAModelerUtil implements IModelerUtil<JPAModelerScene> {
     }
 
     public <T extends Object> T cloneElement(T element) {
+        long start = System.nanoTime();
+        try {
+            T clonedElement = ModelElementCopier.copy(element);
+            LOG.log(Level.FINE, "Copied {0} in {1} ms", //NOI18N
+                    new Object[]{element.getClass().getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
+            return clonedElement;
+        } catch (UnsupportedOperationException uoe) {
+            LOG.log(Level.FINE, "Structural copy of {0} not supported ({1}), fallback to the xml round trip", //NOI18N
+                    new Object[]{element.getClass().getName(), uoe.getMessage()});
+        }
         T clonedElement = null;
         try {
-            if (MODELER_MARSHALLER == null) {
-                MODELER_MARSHALLER = MODELER_CONTEXT.createMarshaller();
-                MODELER_MARSHALLER.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-                MODELER_MARSHALLER.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, "http://java.sun.com/xml/ns/persistence/orm orm_2_1.xsd");
-                MODELER_MARSHALLER.setEventHandler(new ValidateJAXB());
-            }
-            StringWriter sw = new StringWriter();
-            QName qName = new QName(element.getClass().getSimpleName());
-            JAXBElement<T> root = new JAXBElement<>(qName, (Class<T>) element.getClass(), (T) element);
-            MODELER_MARSHALLER.marshal(root, sw);
-
-            if (MODELER_UNMARSHALLER == null) {
-                MODELER_UNMARSHALLER = MODELER_CONTEXT.createUnmarshaller();
-            }
-            StringReader reader = new StringReader(sw.toString());
-            clonedElement = (T) MODELER_UNMARSHALLER.unmarshal(new StreamSource(reader), (Class<T>) element.getClass()).getValue();
-            MODELER_UNMARSHALLER = null;
+            clonedElement = JPAModelSerializer.clone(element);
+            LOG.log(Level.FINE, "Copied {0} through xml in {1} ms", //NOI18N
+                    new Object[]{element.getClass().getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
         } catch (JAXBException ex) {
             ExceptionUtils.printStackTrace(ex);
         }
@@ -0,0 +1,423 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.initializer;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlIDREF;
+import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapters;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+import org.w3c.dom.Node;
+
+/**
+ * Deep copies the model (io.github.jeddict.jpa.spec) graph copied and
+ * pasted in the modeler without the XML round trip, with the same result as
+ * marshalling and unmarshalling it :
+ * <ul>
+ * <li>only the JAXB mapped fields are copied, transient fields keep the
+ * default value of the new instance,</li>
+ * <li>null values and empty collections are not copied,</li>
+ * <li>{@link XmlIDREF} references are resolved to the copy if the referenced
+ * element is part of the copied graph, otherwise left unset.</li>
+ * </ul>
+ * Shared references are copied once (identity map). The field metadata is
+ * cached per class.
+ *
+ * Only the classes of the model spec are copied. Classes mapped with the
+ * property access type, classes with unmarshal callbacks and fields bound to
+ * an {@link XmlJavaTypeAdapter} are not supported, the round trip does more
+ * than a field copy for them. In that case {@link #copy(Object)} throws
+ * {@link UnsupportedOperationException} and the caller should fall back to
+ * the XML round trip.
+ */
+public final class ModelElementCopier {
+
+    private static final String MODEL_PACKAGE = "io.github.jeddict.jpa.spec";
+
+    private static final Map<Class<?>, ClassMetadata> METADATA = new ConcurrentHashMap<>();
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, Class.class, QName.class, UUID.class
+    ));
+
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+    private final List<Runnable> idRefs = new ArrayList<>();
+
+    private ModelElementCopier() {
+    }
+
+    /**
+     * @param <T> the element type
+     * @param element the element to copy
+     * @return the deep copy of the element
+     * @throws UnsupportedOperationException if the graph contains a type which
+     * can not be structurally copied
+     */
+    public static <T> T copy(T element) {
+        ModelElementCopier copier = new ModelElementCopier();
+        T copy = copier.copyValue(element);
+        copier.idRefs.forEach(Runnable::run);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T copyValue(T value) {
+        if (value == null || isImmutable(value.getClass())) {
+            return value;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return (T) copy;
+        }
+        if (value instanceof Collection) {
+            copy = copyCollection((Collection<Object>) value);
+        } else if (value instanceof Map) {
+            copy = copyMap((Map<Object, Object>) value);
+        } else if (value.getClass().isArray()) {
+            copy = copyArray(value);
+        } else if (value instanceof JAXBElement) {
+            JAXBElement<Object> element = (JAXBElement<Object>) value;
+            JAXBElement<Object> elementCopy = new JAXBElement<>(element.getName(), element.getDeclaredType(), element.getScope(), copyValue(element.getValue()));
+            elementCopy.setNil(element.isNil());
+            copy = elementCopy;
+        } else if (value instanceof Node) {
+            copy = ((Node) value).cloneNode(true);
+        } else if (value instanceof Date) {
+            copy = ((Date) value).clone();
+        } else if (value instanceof XMLGregorianCalendar) {
+            copy = ((XMLGregorianCalendar) value).clone();
+        } else {
+            copy = copyObject(value);
+        }
+        copies.put(value, copy);
+        return (T) copy;
+    }
+
+    private Object copyObject(Object value) {
+        ClassMetadata metadata = getMetadata(value.getClass());
+        Object copy = metadata.newInstance();
+        copies.put(value, copy);
+        for (Field field : metadata.fields) {
+            Object fieldValue = get(field, value);
+            if (fieldValue == null || isEmpty(fieldValue)) {
+                continue;
+            }
+            set(field, copy, copyValue(fieldValue));
+        }
+        for (Field field : metadata.idRefFields) {
+            Object fieldValue = get(field, value);
+            if (fieldValue != null && !isEmpty(fieldValue)) {
+                idRefs.add(() -> set(field, copy, resolveIdRef(fieldValue)));
+            }
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object resolveIdRef(Object value) {
+        if (value instanceof Collection) {
+            Collection<Object> resolved = newCollection((Collection<Object>) value);
+            for (Object item : (Collection<Object>) value) {
+                Object copy = copies.get(item);
+                if (copy != null) {
+                    resolved.add(copy);
+                }
+            }
+            return resolved.isEmpty() ? null : resolved;
+        }
+        return copies.get(value);
+    }
+
+    private Collection<Object> copyCollection(Collection<Object> value) {
+        Collection<Object> copy = newCollection(value);
+        copies.put(value, copy);
+        for (Object item : value) {
+            copy.add(copyValue(item));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Object> newCollection(Collection<Object> value) {
+        Object copy = newInstance(value.getClass());
+        if (copy instanceof Collection) {
+            return (Collection<Object>) copy;
+        } else if (value instanceof SortedSet) {
+            return new TreeSet<>(((SortedSet<Object>) value).comparator());
+        } else if (value instanceof Set) {
+            return new LinkedHashSet<>();
+        } else {
+            return new ArrayList<>();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> copyMap(Map<Object, Object> value) {
+        Object instance = newInstance(value.getClass());
+        Map<Object, Object> copy;
+        if (instance instanceof Map) {
+            copy = (Map<Object, Object>) instance;
+        } else if (value instanceof SortedMap) {
+            copy = new TreeMap<>(((SortedMap<Object, Object>) value).comparator());
+        } else {
+            copy = new LinkedHashMap<>();
+        }
+        copies.put(value, copy);
+        for (Map.Entry<Object, Object> entry : value.entrySet()) {
+            copy.put(copyValue(entry.getKey()), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private Object copyArray(Object value) {
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        copies.put(value, copy);
+        if (value.getClass().getComponentType().isPrimitive()) {
+            System.arraycopy(value, 0, copy, 0, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                Array.set(copy, i, copyValue(Array.get(value, i)));
+            }
+        }
+        return copy;
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type)
+                || Duration.class.isAssignableFrom(type)
+                || (type.getSuperclass() != null && type.getSuperclass().isEnum());
+    }
+
+    private static boolean isEmpty(Object value) {
+        return (value instanceof Collection && ((Collection<?>) value).isEmpty())
+                || (value instanceof Map && ((Map<?, ?>) value).isEmpty());
+    }
+
+    private static Object newInstance(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static Object get(Field field, Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void set(Field field, Object target, Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static ClassMetadata getMetadata(Class<?> type) {
+        ClassMetadata metadata = METADATA.computeIfAbsent(type, ClassMetadata::new);
+        if (metadata.unsupported != null) {
+            throw metadata.unsupported;
+        }
+        return metadata;
+    }
+
+    private static class ClassMetadata {
+
+        private final Class<?> type;
+        private Constructor<?> constructor;
+        private final List<Field> fields = new ArrayList<>();
+        private final List<Field> idRefFields = new ArrayList<>();
+        private UnsupportedOperationException unsupported;
+
+        private ClassMetadata(Class<?> type) {
+            this.type = type;
+            try {
+                init();
+            } catch (UnsupportedOperationException ex) {
+                unsupported = ex;
+            }
+        }
+
+        private void init() {
+            if (type.getPackage() == null || !type.getPackage().getName().startsWith(MODEL_PACKAGE)) {
+                throw new UnsupportedOperationException("Not a model class : " + type.getName());
+            }
+            if (hasCallback(type, "beforeUnmarshal") || hasCallback(type, "afterUnmarshal")) {
+                throw new UnsupportedOperationException("Unmarshal callback : " + type.getName());
+            }
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException ex) {
+                throw new UnsupportedOperationException("No default constructor : " + type.getName(), ex);
+            }
+            for (Class<?> klass = type; klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+                XmlAccessType accessType = getAccessType(klass);
+                if (hasMappedProperty(klass, accessType)) {
+                    throw new UnsupportedOperationException("Property access : " + klass.getName());
+                }
+                for (Field field : klass.getDeclaredFields()) {
+                    if (!isMapped(field, accessType)) {
+                        continue;
+                    }
+                    if (hasTypeAdapter(field)) {
+                        throw new UnsupportedOperationException("Type adapter : " + klass.getName() + '.' + field.getName());
+                    }
+                    field.setAccessible(true);
+                    if (field.isAnnotationPresent(XmlIDREF.class)) {
+                        idRefFields.add(field);
+                    } else {
+                        fields.add(field);
+                    }
+                }
+            }
+        }
+
+        private Object newInstance() {
+            try {
+                return constructor.newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+                throw new UnsupportedOperationException(type.getName(), ex);
+            }
+        }
+
+        private static XmlAccessType getAccessType(Class<?> klass) {
+            XmlAccessorType accessorType = klass.getAnnotation(XmlAccessorType.class);
+            if (accessorType == null && klass.getPackage() != null) {
+                accessorType = klass.getPackage().getAnnotation(XmlAccessorType.class);
+            }
+            return accessorType == null ? XmlAccessType.PUBLIC_MEMBER : accessorType.value();
+        }
+
+        private static boolean isMapped(Field field, XmlAccessType accessType) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                    || field.isAnnotationPresent(XmlTransient.class)) {
+                return false;
+            }
+            return accessType == XmlAccessType.FIELD
+                    || hasJAXBAnnotation(field.getDeclaredAnnotations())
+                    || (accessType == XmlAccessType.PUBLIC_MEMBER && Modifier.isPublic(modifiers));
+        }
+
+        /**
+         * @return true if the class declares a getter/setter pair or an
+         * annotated method which JAXB would map as a property
+         */
+        private static boolean hasMappedProperty(Class<?> klass, XmlAccessType accessType) {
+            boolean accessors = accessType == XmlAccessType.PROPERTY || accessType == XmlAccessType.PUBLIC_MEMBER;
+            for (Method method : klass.getDeclaredMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isSynthetic()
+                        || method.isAnnotationPresent(XmlTransient.class)) {
+                    continue;
+                }
+                if (hasJAXBAnnotation(method.getDeclaredAnnotations())) {
+                    return true;
+                }
+                String name = method.getName();
+                if (accessors && Modifier.isPublic(method.getModifiers()) && method.getParameterCount() == 0
+                        && method.getReturnType() != void.class && (name.startsWith("get") || name.startsWith("is"))) {
+                    String property = name.substring(name.startsWith("get") ? 3 : 2);
+                    try {
+                        Method setter = klass.getDeclaredMethod("set" + property, method.getReturnType());
+                        if (Modifier.isPublic(setter.getModifiers()) && !setter.isAnnotationPresent(XmlTransient.class)) {
+                            return true;
+                        }
+                    } catch (NoSuchMethodException ex) {
+                        // read only property is not mapped
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasJAXBAnnotation(Annotation[] annotations) {
+            for (Annotation annotation : annotations) {
+                if (annotation.annotationType().getName().startsWith("javax.xml.bind.annotation.")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasCallback(Class<?> type, String name) {
+            for (Class<?> klass = type; klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+                try {
+                    klass.getDeclaredMethod(name, Unmarshaller.class, Object.class);
+                    return true;
+                } catch (NoSuchMethodException ex) {
+                    // continue with the super class
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return true if the field is bound to an adapter, on the field, on
+         * its type or on the package of the declaring class
+         */
+        private static boolean hasTypeAdapter(Field field) {
+            if (field.isAnnotationPresent(XmlJavaTypeAdapter.class)
+                    || field.getType().isAnnotationPresent(XmlJavaTypeAdapter.class)) {
+                return true;
+            }
+            Package pkg = field.getDeclaringClass().getPackage();
+            return pkg != null && (pkg.isAnnotationPresent(XmlJavaTypeAdapter.class)
+                    || pkg.isAnnotationPresent(XmlJavaTypeAdapters.class));
+        }
+    }
+
+}
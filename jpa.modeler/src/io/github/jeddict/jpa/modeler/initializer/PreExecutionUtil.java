@@ -28,7 +28,13 @@ import io.github.jeddict.jpa.spec.ManagedClass;
 import io.github.jeddict.jpa.spec.DefaultClass;
 import static java.lang.Boolean.TRUE;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
 import org.apache.commons.lang3.StringUtils;
 import io.github.jeddict.jpa.modeler.widget.CompositePKProperty;
 import io.github.jeddict.jpa.modeler.widget.EntityWidget;
@@ -54,8 +60,10 @@ import org.netbeans.modeler.specification.model.document.widget.IFlowElementWidg
 public class PreExecutionUtil {
 
     public static void preExecution(ModelerFile file) {
+        long start = System.currentTimeMillis();
         JPAModelerScene scene = (JPAModelerScene) file.getModelerScene();
         EntityMappings entityMappings = (EntityMappings) file.getDefinitionElement();
+        scene.materialize(getPrimaryKeyDependentWidgets(scene));
 
         entityMappings.getDefaultClass().clear();
         for (IBaseElementWidget baseElementWidget : scene.getBaseElements()) {
@@ -93,30 +101,127 @@ public class PreExecutionUtil {
 
         }
 
-        executeCompositePrimaryKeyEvaluation(scene.getBaseElements(), entityMappings);
+        executeCompositePrimaryKeyEvaluation(scene.getBaseElements());
         clearInheritanceData(file);
+        JPAModelerUtil.IO.getOut().println(String.format("Pre-executed %s in %d ms", file.getName(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * The composite primary key evaluation reads the attribute widgets of the
+     * classes having a composite primary key or a derived identity, and of
+     * the entities they derive their identity from. The other classes of a
+     * virtualized scene are evaluated from their spec.
+     *
+     * @return the class widgets whose attribute widgets are required by the
+     * composite primary key evaluation
+     */
+    private static List<JavaClassWidget> getPrimaryKeyDependentWidgets(JPAModelerScene scene) {
+        Set<JavaClassWidget> widgets = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (JavaClassWidget classWidget : scene.getJavaClassWidges()) {
+            if (!(classWidget.getBaseElementSpec() instanceof IdentifiableClass)) {
+                continue;
+            }
+            IdentifiableClass identifiableClass = (IdentifiableClass) classWidget.getBaseElementSpec();
+            Collection<? extends SingleRelationAttribute> derivedRelationAttributes = identifiableClass.getAttributes().getDerivedRelationAttributes();
+            if (identifiableClass.getAttributes().getId().size() + derivedRelationAttributes.size() > 1
+                    || !derivedRelationAttributes.isEmpty()
+                    || identifiableClass.getAttributes().getEmbeddedId() != null
+                    || StringUtils.isNotBlank(identifiableClass.getCompositePrimaryKeyClass())) {
+                addUnloadedWidget(scene, classWidget, widgets);
+                for (SingleRelationAttribute relationAttribute : derivedRelationAttributes) {
+                    if (relationAttribute.getConnectedEntity() != null) {
+                        Object targetWidget = scene.getBaseElement(relationAttribute.getConnectedEntity().getId());
+                        if (targetWidget instanceof JavaClassWidget) {
+                            addUnloadedWidget(scene, (JavaClassWidget) targetWidget, widgets);
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(widgets);
+    }
 
+    private static void addUnloadedWidget(JPAModelerScene scene, JavaClassWidget classWidget, Set<JavaClassWidget> widgets) {
+        if (!scene.isAttributeLoaded(classWidget)) {
+            widgets.add(classWidget);
+        }
     }
 
-    private static void executeCompositePrimaryKeyEvaluation(List<IBaseElementWidget> baseElements, EntityMappings entityMappings) {
-        List<IBaseElementWidget> baseElementWidgetPending = new ArrayList<>();
+    /**
+     * Evaluates the composite primary key of the classes in the topological
+     * order of the derived identities, each parent entity is evaluated before
+     * the entities deriving their identity from it.
+     */
+    private static void executeCompositePrimaryKeyEvaluation(List<IBaseElementWidget> baseElements) {
+        Map<PrimaryKeyContainerWidget, EntityWidget> parents = new IdentityHashMap<>();
+        Map<PrimaryKeyContainerWidget, CompositePKProperty> compositePKProperties = new IdentityHashMap<>();
         for (IBaseElementWidget baseElementWidget : baseElements) {
             if (baseElementWidget instanceof PrimaryKeyContainerWidget) {
                 PrimaryKeyContainerWidget<? extends IdentifiableClass> primaryKeyContainerWidget = (PrimaryKeyContainerWidget) baseElementWidget;
-                if (!manageCompositePrimaryKey(primaryKeyContainerWidget)) {
-                    baseElementWidgetPending.add(primaryKeyContainerWidget);
+                CompositePKProperty compositePKProperty = primaryKeyContainerWidget.isCompositePKPropertyAllow();
+                compositePKProperties.put(primaryKeyContainerWidget, compositePKProperty);
+                if (compositePKProperty == CompositePKProperty.AUTO_CLASS) {
+                    parents.put(primaryKeyContainerWidget, getDerivedIdentityParent(primaryKeyContainerWidget));
                 }
             }
         }
-        if (!baseElementWidgetPending.isEmpty()) {
-            executeCompositePrimaryKeyEvaluation(baseElementWidgetPending, entityMappings);
+
+        Map<PrimaryKeyContainerWidget, Boolean> evaluated = new IdentityHashMap<>();
+        for (PrimaryKeyContainerWidget primaryKeyContainerWidget : compositePKProperties.keySet()) {
+            executeCompositePrimaryKeyEvaluation(primaryKeyContainerWidget, parents, compositePKProperties, evaluated);
+        }
+    }
+
+    /**
+     * @param evaluated FALSE while the parents of the widget are evaluated and
+     * TRUE once the widget is evaluated
+     */
+    private static void executeCompositePrimaryKeyEvaluation(PrimaryKeyContainerWidget primaryKeyContainerWidget,
+            Map<PrimaryKeyContainerWidget, EntityWidget> parents,
+            Map<PrimaryKeyContainerWidget, CompositePKProperty> compositePKProperties,
+            Map<PrimaryKeyContainerWidget, Boolean> evaluated) {
+        Boolean state = evaluated.get(primaryKeyContainerWidget);
+        if (TRUE.equals(state)) {
+            return;
+        } else if (state != null) {
+            StringJoiner cycle = new StringJoiner(" -> ");
+            PrimaryKeyContainerWidget widget = primaryKeyContainerWidget;
+            do {
+                cycle.add(widget.getName());
+                widget = parents.get(widget);
+            } while (widget != primaryKeyContainerWidget);
+            cycle.add(primaryKeyContainerWidget.getName());
+            throw new IllegalStateException("Cyclic derived identity found : " + cycle);
+        }
+        evaluated.put(primaryKeyContainerWidget, Boolean.FALSE);
+        EntityWidget parent = parents.get(primaryKeyContainerWidget);
+        if (parent != null && compositePKProperties.containsKey(parent)) {
+            executeCompositePrimaryKeyEvaluation(parent, parents, compositePKProperties, evaluated);
         }
+        manageCompositePrimaryKey(primaryKeyContainerWidget, compositePKProperties.get(primaryKeyContainerWidget), parent);
+        evaluated.put(primaryKeyContainerWidget, TRUE);
     }
 
-    private static boolean manageCompositePrimaryKey(PrimaryKeyContainerWidget<? extends IdentifiableClass> primaryKeyContainerWidget) {
+    /**
+     * @return the entity from which the widget derives its identity
+     */
+    private static EntityWidget getDerivedIdentityParent(PrimaryKeyContainerWidget<? extends IdentifiableClass> primaryKeyContainerWidget) {
+        RelationAttributeWidget<RelationAttribute> relationAttributeWidget = primaryKeyContainerWidget.getDerivedRelationAttributeWidgets().get(0);
+        IFlowElementWidget targetElementWidget = relationAttributeWidget.getRelationFlowWidget().getTargetWidget();
+        EntityWidget targetEntityWidget = null;
+        if (targetElementWidget instanceof EntityWidget) {
+            targetEntityWidget = (EntityWidget) targetElementWidget;
+        } else if (targetElementWidget instanceof RelationAttributeWidget) {
+            RelationAttributeWidget targetRelationAttributeWidget = (RelationAttributeWidget) targetElementWidget;
+            targetEntityWidget = (EntityWidget) targetRelationAttributeWidget.getClassWidget();//target can be only Entity
+        }
+        return targetEntityWidget;
+    }
+
+    private static void manageCompositePrimaryKey(PrimaryKeyContainerWidget<? extends IdentifiableClass> primaryKeyContainerWidget,
+            CompositePKProperty compositePKProperty, EntityWidget targetEntityWidget) {
         IdentifiableClass identifiableClass = primaryKeyContainerWidget.getBaseElementSpec();
         EntityMappings entityMappings = identifiableClass.getRootElement();
-        CompositePKProperty compositePKProperty = primaryKeyContainerWidget.isCompositePKPropertyAllow();
 
         if (compositePKProperty == CompositePKProperty.NONE) {
             identifiableClass.clearCompositePrimaryKey();
@@ -127,19 +232,10 @@ public class PreExecutionUtil {
             primaryKeyContainerWidget.onCompositePrimaryKeyTypeChange(identifiableClass.getCompositePrimaryKeyType());//if global config change [Default(IdClass) -> Default(EmbeddedId)]
 
             if (compositePKProperty == CompositePKProperty.AUTO_CLASS) {
-                RelationAttributeWidget<RelationAttribute> relationAttributeWidget = primaryKeyContainerWidget.getDerivedRelationAttributeWidgets().get(0);
-                RelationAttribute relationAttribute = relationAttributeWidget.getBaseElementSpec();
-                IFlowElementWidget targetElementWidget = relationAttributeWidget.getRelationFlowWidget().getTargetWidget();
-                EntityWidget targetEntityWidget = null;
-                if (targetElementWidget instanceof EntityWidget) {
-                    targetEntityWidget = (EntityWidget) targetElementWidget;
-                } else if (targetElementWidget instanceof RelationAttributeWidget) {
-                    RelationAttributeWidget targetRelationAttributeWidget = (RelationAttributeWidget) targetElementWidget;
-                    targetEntityWidget = (EntityWidget) targetRelationAttributeWidget.getClassWidget();//target can be only Entity
-                }
+                RelationAttribute relationAttribute = primaryKeyContainerWidget.getDerivedRelationAttributeWidgets().get(0).getBaseElementSpec();
                 Entity targetPKConatinerSpec = targetEntityWidget.getBaseElementSpec();
                 if (StringUtils.isBlank(targetPKConatinerSpec.getCompositePrimaryKeyClass())) {
-                    return false;//send to next execution, its parents are required to evalaute first
+                    return;//parent is already evaluated, it has no composite primary key to derive
                 }
                 if (identifiableClass.isEmbeddedIdType() && (targetPKConatinerSpec.isIdClassType() || targetPKConatinerSpec.isEmbeddedIdType())) {
                     // when Enity E1 class use IdClass IC1 and
@@ -177,7 +273,6 @@ public class PreExecutionUtil {
 
         }
         identifiableClass.manageCompositePrimaryKey();
-        return true;
     }
 
     public static void clearInheritanceData(ModelerFile file) {
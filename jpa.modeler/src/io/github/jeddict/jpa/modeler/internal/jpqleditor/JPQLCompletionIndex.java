@@ -0,0 +1,241 @@
+/* 
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.github.jeddict.jpa.modeler.internal.jpqleditor;
+
+import io.github.jeddict.jpa.spec.ElementCollection;
+import io.github.jeddict.jpa.spec.Embedded;
+import io.github.jeddict.jpa.spec.EmbeddedId;
+import io.github.jeddict.jpa.spec.Entity;
+import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.Transient;
+import io.github.jeddict.jpa.spec.extend.Attribute;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.jpa.spec.extend.RelationAttribute;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * JPQL code completion of entity names and attribute paths, computed from
+ * the opened model instead of the compiled project classes.
+ *
+ * The entity names are resolved on each request, the navigable attributes
+ * of the classes are cached until the attributes of a class change.
+ */
+public final class JPQLCompletionIndex {
+
+    private static final Pattern DECLARATION = Pattern.compile(
+            "(?:\\bFROM|\\bUPDATE|\\bJOIN(?:\\s+FETCH)?|\\bIN\\s*\\(|,)\\s*([\\w.]+)\\s*\\)?\\s+(?:AS\\s+)?(\\w+)", CASE_INSENSITIVE);
+    private static final Pattern CLAUSE = Pattern.compile("\\b(SELECT|UPDATE|FROM|SET|WHERE|GROUP|HAVING|ORDER)\\b", CASE_INSENSITIVE);
+    private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
+            "AND", "AS", "BY", "DISTINCT", "FETCH", "FROM", "GROUP", "HAVING", "IN", "INNER", "IS", "JOIN",
+            "LEFT", "MEMBER", "NOT", "OF", "ON", "OR", "ORDER", "OUTER", "SELECT", "SET", "WHERE"));
+
+    private final EntityMappings entityMappings;
+    private final Map<JavaClass, Map<String, JavaClass>> attributes = new IdentityHashMap<>();
+
+    public JPQLCompletionIndex(EntityMappings entityMappings) {
+        this.entityMappings = entityMappings;
+    }
+
+    /**
+     * Discards the cached attributes, on a change of the class attributes.
+     */
+    public synchronized void clear() {
+        attributes.clear();
+    }
+
+    /**
+     * @param jpql the query
+     * @param caretOffset the offset of the completion in the query
+     * @return the proposals or null if the completion context is not an
+     * entity name or an attribute path
+     */
+    public synchronized Proposals complete(String jpql, int caretOffset) {
+        if (caretOffset < 0 || caretOffset > jpql.length()) {
+            return null;
+        }
+        int start = caretOffset;
+        while (start > 0 && (Character.isJavaIdentifierPart(jpql.charAt(start - 1)) || jpql.charAt(start - 1) == '.')) {
+            start--;
+        }
+        String word = jpql.substring(start, caretOffset);
+        int dot = word.lastIndexOf('.');
+        if (dot != -1) {
+            JavaClass javaClass = resolvePath(word.substring(0, dot), getDeclarations(jpql), 0);
+            if (javaClass == null) {
+                return null;
+            }
+            String prefix = word.substring(dot + 1);
+            return new Proposals(caretOffset - prefix.length(), filter(getAttributes(javaClass).keySet(), prefix));
+        }
+        if (isRangeVariableDeclaration(jpql, start)) {
+            List<String> entityNames = new ArrayList<>();
+            for (Entity entity : entityMappings.getEntity()) {
+                entityNames.add(getEntityName(entity));
+            }
+            return new Proposals(start, filter(entityNames, word));
+        }
+        return null;
+    }
+
+    /**
+     * @return true if an entity name is expected at the offset
+     */
+    private boolean isRangeVariableDeclaration(String jpql, int offset) {
+        int end = offset;
+        while (end > 0 && Character.isWhitespace(jpql.charAt(end - 1))) {
+            end--;
+        }
+        if (end > 0 && jpql.charAt(end - 1) == ',') {
+            String clause = null;
+            Matcher matcher = CLAUSE.matcher(jpql.substring(0, end));
+            while (matcher.find()) {
+                clause = matcher.group(1);
+            }
+            return "FROM".equalsIgnoreCase(clause);
+        }
+        int tokenStart = end;
+        while (tokenStart > 0 && Character.isJavaIdentifierPart(jpql.charAt(tokenStart - 1))) {
+            tokenStart--;
+        }
+        String token = jpql.substring(tokenStart, end);
+        return "FROM".equalsIgnoreCase(token) || "UPDATE".equalsIgnoreCase(token);
+    }
+
+    /**
+     * @return the declared paths by identification variable (lower case, as
+     * identification variables are case insensitive)
+     */
+    private Map<String, String> getDeclarations(String jpql) {
+        Map<String, String> declarations = new HashMap<>();
+        Matcher matcher = DECLARATION.matcher(jpql);
+        while (matcher.find()) {
+            String variable = matcher.group(2);
+            if (!RESERVED_WORDS.contains(variable.toUpperCase(Locale.ENGLISH))) {
+                declarations.put(variable.toLowerCase(Locale.ENGLISH), matcher.group(1));
+            }
+        }
+        return declarations;
+    }
+
+    /**
+     * @param path the identification variable, entity name or path from an
+     * identification variable
+     * @return the class reached by the path or null if it is not resolved
+     */
+    private JavaClass resolvePath(String path, Map<String, String> declarations, int depth) {
+        if (depth > declarations.size()) {
+            return null; // cyclic declaration
+        }
+        String[] segments = path.split("\\.");
+        JavaClass javaClass;
+        String declaration = declarations.get(segments[0].toLowerCase(Locale.ENGLISH));
+        if (declaration != null) {
+            javaClass = declaration.indexOf('.') == -1 ? findEntity(declaration) : resolvePath(declaration, declarations, depth + 1);
+        } else {
+            javaClass = segments.length == 1 ? findEntity(segments[0]) : null;
+        }
+        for (int i = 1; i < segments.length && javaClass != null; i++) {
+            javaClass = getAttributes(javaClass).get(segments[i]);
+        }
+        return javaClass;
+    }
+
+    private Entity findEntity(String entityName) {
+        for (Entity entity : entityMappings.getEntity()) {
+            if (entityName.equals(getEntityName(entity))) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private static String getEntityName(Entity entity) {
+        return StringUtils.isNotBlank(entity.getEntityName()) ? entity.getEntityName() : entity.getClazz();
+    }
+
+    /**
+     * @return the persistent attributes of the class (including the inherited
+     * ones) with the class they navigate to, or null for a basic attribute
+     */
+    private Map<String, JavaClass> getAttributes(JavaClass javaClass) {
+        Map<String, JavaClass> classAttributes = attributes.get(javaClass);
+        if (classAttributes == null) {
+            classAttributes = new LinkedHashMap<>();
+            for (Attribute attribute : (List<Attribute>) javaClass.getAttributes().getAllAttribute(true)) {
+                if (attribute instanceof Transient) {
+                    continue;
+                }
+                JavaClass target = null;
+                if (attribute instanceof RelationAttribute) {
+                    target = ((RelationAttribute) attribute).getConnectedEntity();
+                } else if (attribute instanceof Embedded) {
+                    target = ((Embedded) attribute).getConnectedClass();
+                } else if (attribute instanceof EmbeddedId) {
+                    target = ((EmbeddedId) attribute).getConnectedClass();
+                } else if (attribute instanceof ElementCollection) {
+                    target = ((ElementCollection) attribute).getConnectedClass();
+                }
+                classAttributes.put(attribute.getName(), target);
+            }
+            attributes.put(javaClass, classAttributes);
+        }
+        return classAttributes;
+    }
+
+    private static List<String> filter(Iterable<String> names, String prefix) {
+        List<String> filteredNames = new ArrayList<>();
+        for (String name : names) {
+            if (name != null && name.startsWith(prefix)) {
+                filteredNames.add(name);
+            }
+        }
+        return filteredNames;
+    }
+
+    public static final class Proposals {
+
+        private final int anchorOffset;
+        private final List<String> names;
+
+        private Proposals(int anchorOffset, List<String> names) {
+            this.anchorOffset = anchorOffset;
+            this.names = names;
+        }
+
+        public int getAnchorOffset() {
+            return anchorOffset;
+        }
+
+        public List<String> getNames() {
+            return names;
+        }
+    }
+
+}
@@ -35,10 +35,10 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.Vector;
 import java.util.logging.Level;
@@ -53,6 +53,7 @@ import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
+import io.github.jeddict.jpa.modeler.internal.jpqleditor.PersistenceUnitPool.PooledUnit;
 import org.netbeans.api.db.explorer.ConnectionManager;
 import org.netbeans.api.db.explorer.DatabaseConnection;
 import org.netbeans.api.progress.ProgressHandle;
@@ -68,7 +69,6 @@ import org.netbeans.modules.j2ee.persistence.dd.common.PersistenceUnit;
 import org.netbeans.modules.j2ee.persistence.editor.JPAEditorUtil;
 import org.netbeans.modules.j2ee.persistence.jpqleditor.JPQLExecutor;
 import org.netbeans.modules.j2ee.persistence.jpqleditor.JPQLResult;
-import org.netbeans.modules.j2ee.persistence.jpqleditor.Utils;
 import org.netbeans.modules.j2ee.persistence.provider.Provider;
 import org.netbeans.modules.j2ee.persistence.provider.ProviderUtil;
 import org.netbeans.modules.j2ee.persistence.unit.PUDataObject;
@@ -102,6 +102,7 @@ public final class JPQLEditorPanel extends GenericDialog implements ModelerPanel
     private ProgressHandle ph2 = null;
     private RequestProcessor requestProcessor;
     private RequestProcessor.Task hqlParserTask;
+    private static final int TRANSLATION_DELAY = 750;
     private boolean isSqlTranslationProcessDone = false;
     private DatabaseConnection dbconn = null;
 
@@ -310,20 +311,14 @@ public final class JPQLEditorPanel extends GenericDialog implements ModelerPanel
                     Project project = pXml != null ? FileOwnerQuery.getOwner(pXml) : null;
                     PersistenceEnvironment pe = project != null ? project.getLookup().lookup(PersistenceEnvironment.class) : null;
                     ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
-                    final List<URL> localResourcesURLList = new ArrayList<>();
-                    final HashMap<String, String> props = new HashMap<>();
                     final boolean containerManaged = Util.isSupportedJavaEEVersion(pe.getProject());
                     final Provider provider = ProviderUtil.getProvider(selectedConfigObject.getProvider(), pe.getProject());
                     final List<String> initialProblems = new ArrayList<>();
-                    if (containerManaged && provider != null) {
-                        Utils.substitutePersistenceProperties(pe, selectedConfigObject, dbconn, props);
-                    }
                     try {
-                        initialProblems.addAll(Utils.collectClassPathURLs(pe, selectedConfigObject, dbconn, localResourcesURLList));
+                        PooledUnit pooledUnit = PersistenceUnitPool.get(pe, pXml, selectedConfigObject, dbconn, containerManaged && provider != null, initialProblems);
                         if (initialProblems.size() == 0) {
-                            ClassLoader customClassLoader = pe.getProjectClassLoader(
-                                    localResourcesURLList.toArray(new URL[]{}));
-                            Thread.currentThread().setContextClassLoader(customClassLoader);
+                            final Map<String, String> props = pooledUnit.getProperties();
+                            Thread.currentThread().setContextClassLoader(pooledUnit.getClassLoader());
                             JPQLExecutor queryExecutor = new JPQLExecutor();
                             JPQLResult jpqlResult = new JPQLResult();
                             try {
@@ -424,12 +419,15 @@ public final class JPQLEditorPanel extends GenericDialog implements ModelerPanel
         }
 
         private void process() {
-            if (hqlParserTask != null && !hqlParserTask.isFinished() && (hqlParserTask.getDelay() != 0)) {
-                hqlParserTask.cancel();
-            } else if (!requestProcessor.isShutdown()) {
-                hqlParserTask = requestProcessor.post(new ParseJPQL(), 2000);
-                isSqlTranslationProcessDone = false;
+            if (requestProcessor.isShutdown()) {
+                return;
+            }
+            isSqlTranslationProcessDone = false;
+            if (hqlParserTask == null) {
+                hqlParserTask = requestProcessor.create(new ParseJPQL());
             }
+            // restart the delay, the translation runs once typing pauses
+            hqlParserTask.schedule(TRANSLATION_DELAY);
         }
     }
 
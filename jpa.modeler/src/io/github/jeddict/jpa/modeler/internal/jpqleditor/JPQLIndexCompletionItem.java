@@ -0,0 +1,105 @@
+/* 
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.github.jeddict.jpa.modeler.internal.jpqleditor;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.event.KeyEvent;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import org.netbeans.api.editor.completion.Completion;
+import org.netbeans.spi.editor.completion.CompletionItem;
+import org.netbeans.spi.editor.completion.CompletionTask;
+import org.netbeans.spi.editor.completion.support.CompletionUtilities;
+import org.openide.util.Exceptions;
+
+/**
+ * Completion item of an entity name or attribute proposed by the
+ * {@link JPQLCompletionIndex}.
+ */
+class JPQLIndexCompletionItem implements CompletionItem {
+
+    private final String name;
+    private final int anchorOffset;
+
+    JPQLIndexCompletionItem(String name, int anchorOffset) {
+        this.name = name;
+        this.anchorOffset = anchorOffset;
+    }
+
+    @Override
+    public void defaultAction(JTextComponent component) {
+        Completion.get().hideAll();
+        Document doc = component.getDocument();
+        int caretOffset = component.getCaretPosition();
+        try {
+            if (caretOffset > anchorOffset) {
+                doc.remove(anchorOffset, caretOffset - anchorOffset);
+            }
+            doc.insertString(anchorOffset, name, null);
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+    }
+
+    @Override
+    public void processKeyEvent(KeyEvent evt) {
+    }
+
+    @Override
+    public int getPreferredWidth(Graphics g, Font defaultFont) {
+        return CompletionUtilities.getPreferredWidth(name, null, g, defaultFont);
+    }
+
+    @Override
+    public void render(Graphics g, Font defaultFont, Color defaultColor, Color backgroundColor, int width, int height, boolean selected) {
+        CompletionUtilities.renderHtml(null, name, null, g, defaultFont, defaultColor, width, height, selected);
+    }
+
+    @Override
+    public CompletionTask createDocumentationTask() {
+        return null;
+    }
+
+    @Override
+    public CompletionTask createToolTipTask() {
+        return null;
+    }
+
+    @Override
+    public boolean instantSubstitution(JTextComponent component) {
+        return false;
+    }
+
+    @Override
+    public int getSortPriority() {
+        return 0;
+    }
+
+    @Override
+    public CharSequence getSortText() {
+        return name;
+    }
+
+    @Override
+    public CharSequence getInsertPrefix() {
+        return name;
+    }
+
+}
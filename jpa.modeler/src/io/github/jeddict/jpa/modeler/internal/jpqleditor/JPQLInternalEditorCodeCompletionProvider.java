@@ -46,6 +46,7 @@ import java.util.*;
 import javax.swing.SwingUtilities;
 import javax.swing.text.Document;
 import javax.swing.text.JTextComponent;
+import io.github.jeddict.jpa.modeler.initializer.JPAModelerScene;
 import org.eclipse.persistence.jpa.jpql.parser.DefaultJPQLGrammar;
 import org.eclipse.persistence.jpa.jpql.tools.ContentAssistProposals;
 import org.eclipse.persistence.jpa.jpql.tools.DefaultJPQLQueryHelper;
@@ -136,6 +137,9 @@ public class JPQLInternalEditorCodeCompletionProvider implements CompletionProvi
                         JavaSource js;
                         if (source != null) {
                             ModelerPanel tc = (ModelerPanel) SwingUtilities.getAncestorOfClass(ModelerPanel.class, component);
+                            if (queryIndex(resultSet, tc)) {
+                                return;
+                            }
 //                            puObject = tc.getDataObject();
                              final Project project = tc.getModelerFile().getProject();//FileOwnerQuery.getOwner(pXml);
                              puObject = ProviderUtil.getPUDataObject(project);
@@ -179,6 +183,27 @@ public class JPQLInternalEditorCodeCompletionProvider implements CompletionProvi
 
         }
 
+        /**
+         * Completes the entity names and attribute paths from the model, the
+         * other contexts are completed from the compiled classes.
+         *
+         * @return true if the completion is done
+         */
+        private boolean queryIndex(CompletionResultSet resultSet, ModelerPanel tc) {
+            JPQLCompletionIndex.Proposals proposals = ((JPAModelerScene) tc.getModelerFile().getModelerScene())
+                    .getJPQLCompletionIndex().complete(component.getText(), caretOffset);
+            if (proposals == null) {
+                return false;
+            }
+            if ((queryType & COMPLETION_QUERY_TYPE) != 0) {
+                for (String name : proposals.getNames()) {
+                    resultSet.addItem(new JPQLIndexCompletionItem(name, proposals.getAnchorOffset()));
+                }
+            }
+            resultSet.setAnchorOffset(proposals.getAnchorOffset());
+            return true;
+        }
+
         @Override
         protected boolean canFilter(JTextComponent component) {
             return false;//TODO: implement filter
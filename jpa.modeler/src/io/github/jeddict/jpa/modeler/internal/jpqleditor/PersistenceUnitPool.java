@@ -0,0 +1,198 @@
+/* 
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.github.jeddict.jpa.modeler.internal.jpqleditor;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.api.db.explorer.DatabaseConnection;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.modules.j2ee.persistence.api.PersistenceEnvironment;
+import org.netbeans.modules.j2ee.persistence.dd.common.PersistenceUnit;
+import org.netbeans.modules.j2ee.persistence.jpqleditor.Utils;
+import org.openide.filesystems.FileAttributeEvent;
+import org.openide.filesystems.FileChangeListener;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.WeakListeners;
+
+/**
+ * Keeps the class loader and the substituted properties of the persistence
+ * units translated by the JPQL editor, so that the provider is bootstrapped
+ * from an already loaded class loader instead of a new one on each request.
+ *
+ * The units of a persistence.xml are dropped, and their class loaders
+ * closed, when the persistence.xml or the entries of the project classpath
+ * change. A unit is rebuilt when the database connection changes.
+ */
+final class PersistenceUnitPool {
+
+    private static final Logger LOG = Logger.getLogger(PersistenceUnitPool.class.getName());
+
+    private static final Map<FileObject, PooledUnits> UNITS = new WeakHashMap<>();
+
+    private PersistenceUnitPool() {
+    }
+
+    /**
+     * @param problems receives the problems found while collecting the
+     * classpath of the unit
+     * @return the pooled unit or null if there are problems
+     */
+    static synchronized PooledUnit get(PersistenceEnvironment pe, FileObject pXml, PersistenceUnit pu,
+            DatabaseConnection dbconn, boolean substituteProperties, List<String> problems) {
+        PooledUnits units = UNITS.get(pXml);
+        if (units == null) {
+            units = new PooledUnits(pXml, pe.getProjectClassPath(pXml));
+            UNITS.put(pXml, units);
+        }
+        String key = (dbconn == null ? null : dbconn.getName()) + ";" + substituteProperties;
+        PooledUnit unit = units.get(pu.getName());
+        if (unit == null || !unit.key.equals(key)) {
+            List<URL> urls = new ArrayList<>();
+            problems.addAll(Utils.collectClassPathURLs(pe, pu, dbconn, urls));
+            if (!problems.isEmpty()) {
+                return null;
+            }
+            Map<String, String> props = new HashMap<>();
+            if (substituteProperties) {
+                Utils.substitutePersistenceProperties(pe, pu, dbconn, props);
+            }
+            unit = new PooledUnit(key, pe.getProjectClassLoader(urls.toArray(new URL[urls.size()])), props);
+            units.put(pu.getName(), unit);
+        }
+        return unit;
+    }
+
+    private static synchronized void evict(PooledUnits units) {
+        units.clear();
+    }
+
+    private static void close(PooledUnit unit) {
+        if (unit.classLoader instanceof Closeable) {
+            try {
+                ((Closeable) unit.classLoader).close();
+            } catch (IOException ex) {
+                LOG.log(Level.FINE, "Failed to close the class loader of the persistence unit", ex);
+            }
+        }
+    }
+
+    /**
+     * The units of a persistence.xml, it listens to the persistence.xml and
+     * to the project classpath through weak listeners so that it does not
+     * keep the persistence.xml reachable.
+     */
+    private static final class PooledUnits implements FileChangeListener, PropertyChangeListener {
+
+        private final Map<String, PooledUnit> units = new HashMap<>();
+
+        private PooledUnits(FileObject pXml, ClassPath classPath) {
+            pXml.addFileChangeListener(FileUtil.weakFileChangeListener(this, pXml));
+            if (classPath != null) {
+                classPath.addPropertyChangeListener(WeakListeners.propertyChange(this, classPath));
+            }
+        }
+
+        private PooledUnit get(String name) {
+            return units.get(name);
+        }
+
+        private void put(String name, PooledUnit unit) {
+            PooledUnit previous = units.put(name, unit);
+            if (previous != null) {
+                close(previous);
+            }
+        }
+
+        private void clear() {
+            units.values().forEach(PersistenceUnitPool::close);
+            units.clear();
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            if (ClassPath.PROP_ENTRIES.equals(evt.getPropertyName())) {
+                evict(this);
+            }
+        }
+
+        @Override
+        public void fileChanged(FileEvent fe) {
+            evict(this);
+        }
+
+        @Override
+        public void fileDeleted(FileEvent fe) {
+            evict(this);
+        }
+
+        @Override
+        public void fileRenamed(FileRenameEvent fe) {
+            evict(this);
+        }
+
+        @Override
+        public void fileFolderCreated(FileEvent fe) {
+        }
+
+        @Override
+        public void fileDataCreated(FileEvent fe) {
+        }
+
+        @Override
+        public void fileAttributeChanged(FileAttributeEvent fe) {
+        }
+    }
+
+    static final class PooledUnit {
+
+        private final String key;
+        private final ClassLoader classLoader;
+        private final Map<String, String> properties;
+
+        private PooledUnit(String key, ClassLoader classLoader, Map<String, String> properties) {
+            this.key = key;
+            this.classLoader = classLoader;
+            this.properties = properties;
+        }
+
+        ClassLoader getClassLoader() {
+            return classLoader;
+        }
+
+        /**
+         * @return a copy of the substituted properties, the executor may
+         * update it
+         */
+        Map<String, String> getProperties() {
+            return new HashMap<>(properties);
+        }
+    }
+
+}
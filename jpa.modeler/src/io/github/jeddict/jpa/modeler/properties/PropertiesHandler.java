@@ -558,6 +558,7 @@ public class PropertiesHandler {
             @Override
             public void setItem(ComboBoxValue value) {
                 fetchTypeHandlerSpec.setFetch((FetchType) value.getValue());
+                modelerScene.validateFetchPlan();
             }
 
             @Override
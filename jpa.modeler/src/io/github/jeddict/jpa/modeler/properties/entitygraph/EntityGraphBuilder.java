@@ -0,0 +1,213 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.properties.entitygraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static java.util.stream.Collectors.joining;
+import io.github.jeddict.jpa.spec.Entity;
+import io.github.jeddict.jpa.spec.ManagedClass;
+import io.github.jeddict.jpa.spec.NamedAttributeNode;
+import io.github.jeddict.jpa.spec.NamedEntityGraph;
+import io.github.jeddict.jpa.spec.NamedSubgraph;
+import io.github.jeddict.jpa.spec.extend.Attribute;
+import io.github.jeddict.jpa.spec.extend.CompositionAttribute;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.jpa.spec.extend.RelationAttribute;
+
+/**
+ * Builds the minimal named entity graph of a root entity loading a set of
+ * attribute paths (customer.address, items.product ...).
+ *
+ * The paths sharing a prefix share its attribute node, and the equivalent
+ * subgraphs (same class and same attribute tree) are declared once.
+ */
+public class EntityGraphBuilder {
+
+    private static final String SUBGRAPH_SUFFIX = ".Graph";
+
+    private final Entity entity;
+    private final PathNode root;
+
+    public EntityGraphBuilder(Entity entity) {
+        this.entity = entity;
+        this.root = new PathNode(null, null, entity);
+    }
+
+    /**
+     * @param path the attribute names separated by dot, the attributes of the
+     * inner segments must be relations or embedded attributes
+     * @return this builder
+     * @throws IllegalArgumentException if an attribute of the path does not
+     * exist
+     */
+    public EntityGraphBuilder addPath(String path) {
+        PathNode node = root;
+        for (String name : path.trim().split("\\.")) {
+            if (node.managedClass == null) {
+                throw new IllegalArgumentException(String.format("%s.%s has no attribute %s", entity.getClazz(), node.path, name));
+            }
+            PathNode child = node.children.get(name);
+            if (child == null) {
+                Attribute attribute = findAttribute(node.managedClass, name);
+                if (attribute == null) {
+                    throw new IllegalArgumentException(String.format("%s has no attribute %s", node.managedClass.getClazz(), name));
+                }
+                child = new PathNode(node, name, getConnectedClass(attribute));
+                node.children.put(name, child);
+            }
+            node = child;
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return root.children.isEmpty();
+    }
+
+    public NamedEntityGraph build(String name) {
+        NamedEntityGraph namedEntityGraph = new NamedEntityGraph();
+        namedEntityGraph.setName(name);
+        Map<String, String> subgraphNames = new HashMap<>();
+        for (PathNode node : root.children.values()) {
+            namedEntityGraph.addNamedAttributeNode(createAttributeNode(namedEntityGraph, node, subgraphNames));
+        }
+        return namedEntityGraph;
+    }
+
+    private NamedAttributeNode createAttributeNode(NamedEntityGraph namedEntityGraph, PathNode node, Map<String, String> subgraphNames) {
+        NamedAttributeNode attributeNode = new NamedAttributeNode(node.name);
+        if (!node.children.isEmpty()) {
+            String key = node.getKey();
+            String subgraphName = subgraphNames.get(key);
+            if (subgraphName == null) {
+                subgraphName = node.path + SUBGRAPH_SUFFIX;
+                NamedSubgraph subgraph = new NamedSubgraph(subgraphName);
+                for (PathNode child : node.children.values()) {
+                    subgraph.addNamedAttributeNode(createAttributeNode(namedEntityGraph, child, subgraphNames));
+                }
+                namedEntityGraph.addSubgraph(subgraph);
+                subgraphNames.put(key, subgraphName);
+            }
+            attributeNode.setSubgraph(subgraphName);
+        }
+        return attributeNode;
+    }
+
+    /**
+     * Adds the graph to the entity, unless an equivalent graph is already
+     * declared by the entity or one of its super entities.
+     *
+     * @param entity
+     * @param namedEntityGraph
+     * @return the equivalent existing graph, or the added graph
+     */
+    public static NamedEntityGraph addNamedEntityGraph(Entity entity, NamedEntityGraph namedEntityGraph) {
+        String key = getKey(namedEntityGraph);
+        for (JavaClass javaClass = entity; javaClass != null; javaClass = javaClass.getSuperclass()) {
+            if (javaClass instanceof Entity) {
+                for (NamedEntityGraph existingGraph : ((Entity) javaClass).getNamedEntityGraph()) {
+                    if (key.equals(getKey(existingGraph))) {
+                        return existingGraph;
+                    }
+                }
+            }
+        }
+        entity.getNamedEntityGraph().add(namedEntityGraph);
+        return namedEntityGraph;
+    }
+
+    /**
+     * @return the canonical form of the graph, independent of the names and
+     * of the declaration order of the subgraphs and attribute nodes
+     */
+    static String getKey(NamedEntityGraph namedEntityGraph) {
+        Map<String, NamedSubgraph> subgraphs = new HashMap<>();
+        for (NamedSubgraph subgraph : namedEntityGraph.getSubgraph()) {
+            subgraphs.put(subgraph.getName(), subgraph);
+        }
+        return Boolean.TRUE.equals(namedEntityGraph.isIncludeAllAttributes()) + getKey(namedEntityGraph.getNamedAttributeNode(), subgraphs, new HashSet<>());
+    }
+
+    private static String getKey(List<NamedAttributeNode> attributeNodes, Map<String, NamedSubgraph> subgraphs, Set<String> visiting) {
+        List<String> keys = new ArrayList<>();
+        for (NamedAttributeNode attributeNode : attributeNodes) {
+            String key = attributeNode.getName();
+            NamedSubgraph subgraph = subgraphs.get(attributeNode.getSubgraph());
+            if (subgraph != null && visiting.add(subgraph.getName())) {
+                key += getKey(subgraph.getNamedAttributeNode(), subgraphs, visiting);
+                visiting.remove(subgraph.getName());
+            }
+            keys.add(key);
+        }
+        Collections.sort(keys);
+        return keys.stream().collect(joining(",", "(", ")"));
+    }
+
+    private static Attribute findAttribute(ManagedClass<?> managedClass, String name) {
+        for (JavaClass javaClass = managedClass; javaClass instanceof ManagedClass; javaClass = javaClass.getSuperclass()) {
+            for (Attribute attribute : (List<Attribute>) javaClass.getAttributes().getAllAttribute()) {
+                if (name.equals(attribute.getName())) {
+                    return attribute;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ManagedClass<?> getConnectedClass(Attribute attribute) {
+        JavaClass connectedClass = null;
+        if (attribute instanceof RelationAttribute) {
+            connectedClass = ((RelationAttribute) attribute).getConnectedEntity();
+        } else if (attribute instanceof CompositionAttribute) {
+            connectedClass = ((CompositionAttribute) attribute).getConnectedClass();
+        }
+        return connectedClass instanceof ManagedClass ? (ManagedClass<?>) connectedClass : null;
+    }
+
+    private static class PathNode {
+
+        private final String name;
+        private final String path;
+        private final ManagedClass<?> managedClass;
+        private final Map<String, PathNode> children = new LinkedHashMap<>();
+
+        private PathNode(PathNode parent, String name, ManagedClass<?> managedClass) {
+            this.name = name;
+            this.path = parent == null || parent.path == null ? name : parent.path + '.' + name;
+            this.managedClass = managedClass;
+        }
+
+        /**
+         * @return the class and the canonical attribute tree of the node
+         */
+        private String getKey() {
+            List<String> keys = new ArrayList<>();
+            for (PathNode child : children.values()) {
+                keys.add(child.children.isEmpty() ? child.name : child.name + child.getKey());
+            }
+            Collections.sort(keys);
+            return managedClass.getClazz() + keys.stream().collect(joining(",", "(", ")"));
+        }
+    }
+
+}
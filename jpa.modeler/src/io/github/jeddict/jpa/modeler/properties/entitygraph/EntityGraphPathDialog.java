@@ -0,0 +1,127 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.properties.entitygraph;
+
+import java.awt.BorderLayout;
+import java.util.Objects;
+import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import static javax.swing.JOptionPane.ERROR_MESSAGE;
+import static javax.swing.JOptionPane.INFORMATION_MESSAGE;
+import static javax.swing.JOptionPane.OK_CANCEL_OPTION;
+import static javax.swing.JOptionPane.OK_OPTION;
+import static javax.swing.JOptionPane.PLAIN_MESSAGE;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import org.apache.commons.lang3.StringUtils;
+import io.github.jeddict.jpa.modeler.initializer.JPAModelerScene;
+import io.github.jeddict.jpa.modeler.widget.EntityWidget;
+import io.github.jeddict.jpa.spec.Entity;
+import io.github.jeddict.jpa.spec.NamedEntityGraph;
+import static org.openide.util.NbBundle.getMessage;
+
+/**
+ * Creates a named entity graph of an entity from the attribute paths typed by
+ * the user or picked from the diagram.
+ */
+public final class EntityGraphPathDialog {
+
+    private EntityGraphPathDialog() {
+    }
+
+    /**
+     * @param entityWidget the root entity of the graph
+     * @param paths the initial attribute paths
+     * @return the popup menu item opening the dialog
+     */
+    public static JMenuItem createMenuItem(EntityWidget entityWidget, String paths) {
+        JMenuItem menuItem = new JMenuItem(getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.action"));
+        menuItem.addActionListener(e -> show(entityWidget, paths));
+        return menuItem;
+    }
+
+    /**
+     * @param entityWidget the root entity of the graph
+     * @param paths the initial attribute paths
+     */
+    public static void show(EntityWidget entityWidget, String paths) {
+        JPAModelerScene scene = entityWidget.getModelerScene();
+        Entity entity = entityWidget.getBaseElementSpec();
+        JTextField nameField = new JTextField(getNextGraphName(scene, entity.getClazz() + ".graph"));
+        JTextArea pathArea = new JTextArea(paths, 8, 40);
+        JPanel namePanel = new JPanel(new BorderLayout(5, 0));
+        namePanel.add(new JLabel(getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.name")), BorderLayout.WEST);
+        namePanel.add(nameField, BorderLayout.CENTER);
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.add(namePanel, BorderLayout.NORTH);
+        panel.add(new JLabel(getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.paths")), BorderLayout.CENTER);
+        panel.add(new JScrollPane(pathArea), BorderLayout.SOUTH);
+        String title = getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.title", entity.getClazz());
+
+        while (JOptionPane.showConfirmDialog(scene.getView(), panel, title, OK_CANCEL_OPTION, PLAIN_MESSAGE) == OK_OPTION) {
+            String name = nameField.getText().trim();
+            try {
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException(getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.emptyName"));
+                }
+                if (isGraphNameExist(scene, name)) {
+                    throw new IllegalArgumentException(getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.duplicateName", name));
+                }
+                EntityGraphBuilder builder = new EntityGraphBuilder(entity);
+                for (String path : pathArea.getText().split("[,;\\s]+")) {
+                    if (StringUtils.isNotBlank(path)) {
+                        builder.addPath(path);
+                    }
+                }
+                if (builder.isEmpty()) {
+                    throw new IllegalArgumentException(getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.emptyPaths"));
+                }
+                NamedEntityGraph namedEntityGraph = EntityGraphBuilder.addNamedEntityGraph(entity, builder.build(name));
+                if (Objects.equals(namedEntityGraph.getName(), name)) {
+                    scene.getModelerPanelTopComponent().changePersistenceState(false);
+                } else {
+                    JOptionPane.showMessageDialog(scene.getView(),
+                            getMessage(EntityGraphPathDialog.class, "EntityGraphPathDialog.equivalentGraph", namedEntityGraph.getName()),
+                            title, INFORMATION_MESSAGE);
+                }
+                return;
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(scene.getView(), ex.getMessage(), title, ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * @return true if a graph of the persistence unit is named {@code name}
+     */
+    private static boolean isGraphNameExist(JPAModelerScene scene, String name) {
+        return scene.getBaseElementSpec().getEntity().stream()
+                .flatMap(entity -> entity.getNamedEntityGraph().stream())
+                .anyMatch(namedEntityGraph -> name.equals(namedEntityGraph.getName()));
+    }
+
+    private static String getNextGraphName(JPAModelerScene scene, String name) {
+        String nextName = name;
+        for (int i = 2; isGraphNameExist(scene, nextName); i++) {
+            nextName = name + i;
+        }
+        return nextName;
+    }
+
+}
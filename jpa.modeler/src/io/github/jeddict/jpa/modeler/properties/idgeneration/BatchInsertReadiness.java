@@ -0,0 +1,186 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.properties.idgeneration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.prefs.Preferences;
+import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.GeneratedValue;
+import io.github.jeddict.jpa.spec.GenerationType;
+import io.github.jeddict.jpa.spec.Id;
+import io.github.jeddict.jpa.spec.IdentifiableClass;
+import io.github.jeddict.jpa.spec.SequenceGenerator;
+import io.github.jeddict.jpa.spec.TableGenerator;
+import org.netbeans.api.project.Project;
+import org.netbeans.api.project.ProjectUtils;
+
+/**
+ * Finds the generated ids of the model which prevent the JDBC insert batching
+ * (identity columns) or which allocate less ids than a batch, and converts them
+ * to sequence or table generators.
+ */
+public final class BatchInsertReadiness {
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+    public static final int MAX_ALLOCATION_SIZE = 1000;
+
+    private static final String BATCH_SIZE = "batchInsertSize";
+
+    private final EntityMappings entityMappings;
+    private final int batchSize;
+
+    public BatchInsertReadiness(EntityMappings entityMappings, int batchSize) {
+        this.entityMappings = entityMappings;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the ids not ready for the insert batching, with their class
+     */
+    public Map<Id, IdentifiableClass> getUnreadyIds() {
+        List<IdentifiableClass> classes = new ArrayList<>(entityMappings.getMappedSuperclass());
+        classes.addAll(entityMappings.getEntity());
+        Map<Id, IdentifiableClass> unreadyIds = new LinkedHashMap<>();
+        for (IdentifiableClass identifiableClass : classes) {
+            for (Id id : identifiableClass.getAttributes().getId()) {
+                if (isIdentity(id) || isUndersized(id)) {
+                    unreadyIds.put(id, identifiableClass);
+                }
+            }
+        }
+        return unreadyIds;
+    }
+
+    public static boolean isIdentity(Id id) {
+        GeneratedValue generatedValue = id.getGeneratedValue();
+        return generatedValue != null && generatedValue.getStrategy() == GenerationType.IDENTITY;
+    }
+
+    /**
+     * @return true if the sequence or table generator of the id needs more than
+     * one round trip to allocate the ids of a batch
+     */
+    public boolean isUndersized(Id id) {
+        Integer allocationSize = getAllocationSize(id);
+        return allocationSize != null && allocationSize < batchSize;
+    }
+
+    /**
+     * @return the allocation size of the sequence or table generator of the
+     * id, null if the id is not generated by one of them
+     */
+    public static Integer getAllocationSize(Id id) {
+        GeneratedValue generatedValue = id.getGeneratedValue();
+        if (generatedValue == null) {
+            return null;
+        }
+        Integer allocationSize;
+        if (generatedValue.getStrategy() == GenerationType.SEQUENCE && id.getSequenceGenerator() != null) {
+            allocationSize = id.getSequenceGenerator().getAllocationSize();
+        } else if (generatedValue.getStrategy() == GenerationType.TABLE && id.getTableGenerator() != null) {
+            allocationSize = id.getTableGenerator().getAllocationSize();
+        } else {
+            return null;
+        }
+        return allocationSize != null ? allocationSize : DEFAULT_ALLOCATION_SIZE;
+    }
+
+    /**
+     * Derives the allocation size of a generator from the expected insert
+     * rate, so that a node needs about one allocation round trip per second.
+     *
+     * @param insertRate the expected inserted rows per second
+     * @param batchSize the JDBC batch size
+     * @return the insert rate rounded up to a multiple of the batch size,
+     * bounded by {@link #MAX_ALLOCATION_SIZE}
+     */
+    public static int getAllocationSize(int insertRate, int batchSize) {
+        int batch = Math.max(1, batchSize);
+        int allocationSize = (Math.max(insertRate, batch) + batch - 1) / batch * batch;
+        return Math.min(allocationSize, Math.max(batch, MAX_ALLOCATION_SIZE / batch * batch));
+    }
+
+    /**
+     * Converts an identity id to the sequence or table strategy, or raises the
+     * allocation size of its generator.
+     *
+     * @param identifiableClass the class of the id
+     * @param id the id to convert
+     * @param strategy the strategy of the identity ids
+     * @param allocationSize the allocation size of the generator
+     */
+    public void convert(IdentifiableClass identifiableClass, Id id, GenerationType strategy, int allocationSize) {
+        GeneratedValue generatedValue = id.getGeneratedValue();
+        if (!isIdentity(id)) {
+            if (generatedValue.getStrategy() == GenerationType.SEQUENCE) {
+                id.getSequenceGenerator().setAllocationSize(allocationSize);
+            } else {
+                id.getTableGenerator().setAllocationSize(allocationSize);
+            }
+            return;
+        }
+        String prefix = identifiableClass.getClazz() + '_' + id.getName();
+        if (strategy == GenerationType.TABLE) {
+            TableGenerator tableGenerator = new TableGenerator();
+            tableGenerator.setName(prefix + "_GEN");
+            tableGenerator.setPkColumnValue(identifiableClass.getClazz());
+            tableGenerator.setInitialValue(0);
+            tableGenerator.setAllocationSize(allocationSize);
+            id.setTableGenerator(tableGenerator);
+            id.setSequenceGenerator(null);
+            generatedValue.setGenerator(tableGenerator.getName());
+        } else {
+            SequenceGenerator sequenceGenerator = new SequenceGenerator();
+            sequenceGenerator.setName(prefix + "_SEQ");
+            sequenceGenerator.setSequenceName(prefix.toUpperCase() + "_SEQ");
+            sequenceGenerator.setInitialValue(1);
+            sequenceGenerator.setAllocationSize(allocationSize);
+            id.setSequenceGenerator(sequenceGenerator);
+            id.setTableGenerator(null);
+            generatedValue.setGenerator(sequenceGenerator.getName());
+        }
+        generatedValue.setStrategy(strategy);
+    }
+
+    /**
+     * @return the shared preferences of the project, versioned with it
+     */
+    private static Preferences getPreferences(Project project) {
+        return ProjectUtils.getPreferences(project, BatchInsertReadiness.class, true);
+    }
+
+    /**
+     * @param project the project of the persistence unit
+     * @return the JDBC batch size of the provider batching properties added to
+     * the generated persistence unit, 0 if they must not be added
+     */
+    public static int getBatchSize(Project project) {
+        return Math.max(0, getPreferences(project).getInt(BATCH_SIZE, 0));
+    }
+
+    public static void setBatchSize(Project project, int batchSize) {
+        if (batchSize > 0) {
+            getPreferences(project).putInt(BATCH_SIZE, batchSize);
+        } else {
+            getPreferences(project).remove(BATCH_SIZE);
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.properties.idgeneration;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.util.Map;
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import static javax.swing.JOptionPane.INFORMATION_MESSAGE;
+import static javax.swing.JOptionPane.OK_CANCEL_OPTION;
+import static javax.swing.JOptionPane.OK_OPTION;
+import static javax.swing.JOptionPane.PLAIN_MESSAGE;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTextArea;
+import javax.swing.SpinnerNumberModel;
+import io.github.jeddict.jpa.modeler.initializer.JPAModelerScene;
+import io.github.jeddict.jpa.spec.GenerationType;
+import io.github.jeddict.jpa.spec.Id;
+import io.github.jeddict.jpa.spec.IdentifiableClass;
+import org.netbeans.api.project.Project;
+import org.netbeans.modeler.properties.customattr.Property;
+import static org.openide.util.NbBundle.getMessage;
+
+/**
+ * Lists the ids of the model which are not ready for the JDBC insert batching
+ * and converts them with the generator strategy and insert rate chosen by the
+ * user.
+ */
+public final class BatchInsertReadinessDialog {
+
+    private BatchInsertReadinessDialog() {
+    }
+
+    /**
+     * @param scene the modeler scene
+     * @return the popup menu item opening the dialog
+     */
+    public static JMenuItem createMenuItem(JPAModelerScene scene) {
+        JMenuItem menuItem = new JMenuItem(getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.action"));
+        menuItem.addActionListener(e -> show(scene));
+        return menuItem;
+    }
+
+    public static void show(JPAModelerScene scene) {
+        Project project = scene.getModelerFile().getProject();
+        int currentBatchSize = BatchInsertReadiness.getBatchSize(project);
+        JSpinner batchSizeSpinner = new JSpinner(new SpinnerNumberModel(
+                currentBatchSize > 0 ? currentBatchSize : BatchInsertReadiness.DEFAULT_BATCH_SIZE, 1, 10000, 10));
+        JSpinner insertRateSpinner = new JSpinner(new SpinnerNumberModel(1000, 1, 1000000, 100));
+        JComboBox<Property> strategyComboBox = new JComboBox<>(new DefaultComboBoxModel<>(new Property[]{
+            new Property(GenerationType.SEQUENCE, "Sequence"),
+            new Property(GenerationType.TABLE, "Table")
+        }));
+        JCheckBox propertiesCheckBox = new JCheckBox(getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.properties"), currentBatchSize > 0);
+        JTextArea idArea = new JTextArea(8, 50);
+        idArea.setEditable(false);
+
+        JPanel fieldPanel = new JPanel(new GridLayout(4, 2, 5, 5));
+        fieldPanel.add(new JLabel(getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.strategy")));
+        fieldPanel.add(strategyComboBox);
+        fieldPanel.add(new JLabel(getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.insertRate")));
+        fieldPanel.add(insertRateSpinner);
+        fieldPanel.add(new JLabel(getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.batchSize")));
+        fieldPanel.add(batchSizeSpinner);
+        fieldPanel.add(propertiesCheckBox);
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.add(new JScrollPane(idArea), BorderLayout.CENTER);
+        panel.add(fieldPanel, BorderLayout.SOUTH);
+
+        Runnable check = () -> idArea.setText(getReport(
+                new BatchInsertReadiness(scene.getBaseElementSpec(), (Integer) batchSizeSpinner.getValue())));
+        check.run();
+        batchSizeSpinner.addChangeListener(e -> check.run());
+
+        String title = getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.title");
+        if (JOptionPane.showConfirmDialog(scene.getView(), panel, title, OK_CANCEL_OPTION, PLAIN_MESSAGE) != OK_OPTION) {
+            return;
+        }
+        int batchSize = (Integer) batchSizeSpinner.getValue();
+        int allocationSize = BatchInsertReadiness.getAllocationSize((Integer) insertRateSpinner.getValue(), batchSize);
+        GenerationType strategy = (GenerationType) ((Property) strategyComboBox.getSelectedItem()).getKey();
+        BatchInsertReadiness readiness = new BatchInsertReadiness(scene.getBaseElementSpec(), batchSize);
+        Map<Id, IdentifiableClass> unreadyIds = readiness.getUnreadyIds();
+        unreadyIds.forEach((id, identifiableClass) -> readiness.convert(identifiableClass, id, strategy, allocationSize));
+        BatchInsertReadiness.setBatchSize(project, propertiesCheckBox.isSelected() ? batchSize : 0);
+        if (!unreadyIds.isEmpty()) {
+            scene.getModelerPanelTopComponent().changePersistenceState(false);
+        }
+        JOptionPane.showMessageDialog(scene.getView(),
+                getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.converted", unreadyIds.size(), allocationSize),
+                title, INFORMATION_MESSAGE);
+    }
+
+    private static String getReport(BatchInsertReadiness readiness) {
+        Map<Id, IdentifiableClass> unreadyIds = readiness.getUnreadyIds();
+        if (unreadyIds.isEmpty()) {
+            return getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.ready");
+        }
+        StringBuilder report = new StringBuilder();
+        unreadyIds.forEach((id, identifiableClass) -> {
+            String attribute = identifiableClass.getClazz() + '.' + id.getName();
+            if (BatchInsertReadiness.isIdentity(id)) {
+                report.append(getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.identity", attribute));
+            } else {
+                report.append(getMessage(BatchInsertReadinessDialog.class, "BatchInsertReadinessDialog.undersized",
+                        attribute, BatchInsertReadiness.getAllocationSize(id)));
+            }
+            report.append('\n');
+        });
+        return report.toString();
+    }
+
+}
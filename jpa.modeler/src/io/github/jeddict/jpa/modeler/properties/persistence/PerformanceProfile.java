@@ -0,0 +1,188 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.properties.persistence;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.prefs.Preferences;
+import org.netbeans.api.project.Project;
+import org.netbeans.api.project.ProjectUtils;
+
+/**
+ * Tuned persistence unit settings of a workload, per persistence provider.
+ * The profile of each persistence unit is stored in the shared preferences of
+ * the project.
+ */
+public enum PerformanceProfile {
+
+    OLTP("OLTP", "ENABLE_SELECTIVE"),
+    BULK_LOAD("Bulk Load", "NONE"),
+    READ_MOSTLY("Read Mostly", "ALL");
+
+    private static final String ECLIPSELINK = "org.eclipse.persistence";
+    private static final String HIBERNATE = "org.hibernate";
+    private static final String OPENJPA = "org.apache.openjpa";
+    private static final String DATANUCLEUS = "org.datanucleus";
+
+    private static final String PROFILE_KEY = "profile.";
+    private static final String APPLIED_PROFILE_KEY = "appliedProfile.";
+
+    private final String displayName;
+    private final String sharedCacheMode;
+    private final Map<String, Map<String, String>> providerProperties = new LinkedHashMap<>();
+
+    static {
+        OLTP.put(ECLIPSELINK, "eclipselink.jdbc.batch-writing", "JDBC");
+        OLTP.put(ECLIPSELINK, "eclipselink.jdbc.batch-writing.size", "50");
+        OLTP.put(ECLIPSELINK, "eclipselink.jdbc.cache-statements", "true");
+        OLTP.put(ECLIPSELINK, "eclipselink.jdbc.cache-statements.size", "100");
+        OLTP.put(ECLIPSELINK, "eclipselink.connection-pool.default.initial", "8");
+        OLTP.put(ECLIPSELINK, "eclipselink.connection-pool.default.max", "32");
+        OLTP.put(HIBERNATE, "hibernate.jdbc.batch_size", "50");
+        OLTP.put(HIBERNATE, "hibernate.order_inserts", "true");
+        OLTP.put(HIBERNATE, "hibernate.order_updates", "true");
+        OLTP.put(HIBERNATE, "hibernate.jdbc.batch_versioned_data", "true");
+        OLTP.put(HIBERNATE, "hibernate.query.plan_cache_max_size", "2048");
+        OLTP.put(OPENJPA, "openjpa.jdbc.DBDictionary", "batchLimit=50");
+        OLTP.put(OPENJPA, "openjpa.DataCache", "true");
+        OLTP.put(OPENJPA, "openjpa.RemoteCommitProvider", "sjvm");
+        OLTP.put(DATANUCLEUS, "datanucleus.rdbms.statementBatchLimit", "50");
+        OLTP.put(DATANUCLEUS, "datanucleus.cache.level2.type", "soft");
+
+        BULK_LOAD.put(ECLIPSELINK, "eclipselink.jdbc.batch-writing", "JDBC");
+        BULK_LOAD.put(ECLIPSELINK, "eclipselink.jdbc.batch-writing.size", "500");
+        BULK_LOAD.put(ECLIPSELINK, "eclipselink.jdbc.cache-statements", "true");
+        BULK_LOAD.put(ECLIPSELINK, "eclipselink.persistence-context.flush-mode", "COMMIT");
+        BULK_LOAD.put(ECLIPSELINK, "eclipselink.connection-pool.default.max", "8");
+        BULK_LOAD.put(HIBERNATE, "hibernate.jdbc.batch_size", "500");
+        BULK_LOAD.put(HIBERNATE, "hibernate.order_inserts", "true");
+        BULK_LOAD.put(HIBERNATE, "hibernate.order_updates", "true");
+        BULK_LOAD.put(HIBERNATE, "hibernate.cache.use_second_level_cache", "false");
+        BULK_LOAD.put(OPENJPA, "openjpa.jdbc.DBDictionary", "batchLimit=500");
+        BULK_LOAD.put(OPENJPA, "openjpa.DataCache", "false");
+        BULK_LOAD.put(DATANUCLEUS, "datanucleus.rdbms.statementBatchLimit", "500");
+        BULK_LOAD.put(DATANUCLEUS, "datanucleus.cache.level2.type", "none");
+
+        READ_MOSTLY.put(ECLIPSELINK, "eclipselink.jdbc.cache-statements", "true");
+        READ_MOSTLY.put(ECLIPSELINK, "eclipselink.jdbc.cache-statements.size", "200");
+        READ_MOSTLY.put(ECLIPSELINK, "eclipselink.cache.size.default", "10000");
+        READ_MOSTLY.put(ECLIPSELINK, "eclipselink.query-results-cache", "true");
+        READ_MOSTLY.put(ECLIPSELINK, "eclipselink.connection-pool.default.max", "64");
+        READ_MOSTLY.put(HIBERNATE, "hibernate.jdbc.fetch_size", "100");
+        READ_MOSTLY.put(HIBERNATE, "hibernate.default_batch_fetch_size", "16");
+        READ_MOSTLY.put(HIBERNATE, "hibernate.query.plan_cache_max_size", "4096");
+        READ_MOSTLY.put(OPENJPA, "openjpa.DataCache", "true(CacheSize=10000)");
+        READ_MOSTLY.put(OPENJPA, "openjpa.QueryCache", "true");
+        READ_MOSTLY.put(OPENJPA, "openjpa.RemoteCommitProvider", "sjvm");
+        READ_MOSTLY.put(DATANUCLEUS, "datanucleus.cache.level2.type", "soft");
+        READ_MOSTLY.put(DATANUCLEUS, "datanucleus.cache.queryCompilation.type", "soft");
+    }
+
+    private PerformanceProfile(String displayName, String sharedCacheMode) {
+        this.displayName = displayName;
+        this.sharedCacheMode = sharedCacheMode;
+    }
+
+    private void put(String providerPrefix, String name, String value) {
+        providerProperties.computeIfAbsent(providerPrefix, prefix -> new LinkedHashMap<>()).put(name, value);
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return the shared-cache-mode of the persistence unit
+     */
+    public String getSharedCacheMode() {
+        return sharedCacheMode;
+    }
+
+    /**
+     * @param providerClass the persistence provider class of the unit
+     * @return the tuned properties of the provider, empty for an unknown
+     * provider
+     */
+    public Map<String, String> getProperties(String providerClass) {
+        if (providerClass != null) {
+            for (Map.Entry<String, Map<String, String>> entry : providerProperties.entrySet()) {
+                if (providerClass.startsWith(entry.getKey())) {
+                    return Collections.unmodifiableMap(entry.getValue());
+                }
+            }
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * @return the shared preferences of the project, versioned with it
+     */
+    private static Preferences getPreferences(Project project) {
+        return ProjectUtils.getPreferences(project, PerformanceProfile.class, true);
+    }
+
+    private static PerformanceProfile getProfileByKey(Project project, String key) {
+        String profile = getPreferences(project).get(key, null);
+        for (PerformanceProfile performanceProfile : values()) {
+            if (performanceProfile.name().equals(profile)) {
+                return performanceProfile;
+            }
+        }
+        return null;
+    }
+
+    private static void setProfileByKey(Project project, String key, PerformanceProfile profile) {
+        if (profile != null) {
+            getPreferences(project).put(key, profile.name());
+        } else {
+            getPreferences(project).remove(key);
+        }
+    }
+
+    /**
+     * @param project the project of the persistence unit
+     * @param persistenceUnitName the name of the persistence unit
+     * @return the profile selected for the persistence unit, null if none
+     */
+    public static PerformanceProfile getProfile(Project project, String persistenceUnitName) {
+        return getProfileByKey(project, PROFILE_KEY + persistenceUnitName);
+    }
+
+    /**
+     * @param project the project of the persistence unit
+     * @param persistenceUnitName the name of the persistence unit
+     * @param profile the profile of the persistence unit, null to remove it
+     */
+    public static void setProfile(Project project, String persistenceUnitName, PerformanceProfile profile) {
+        setProfileByKey(project, PROFILE_KEY + persistenceUnitName, profile);
+    }
+
+    /**
+     * @param project the project of the persistence unit
+     * @param persistenceUnitName the name of the persistence unit
+     * @return the profile applied by the last generation of the persistence
+     * unit, whose settings are removed if another profile is selected since
+     */
+    public static PerformanceProfile getAppliedProfile(Project project, String persistenceUnitName) {
+        return getProfileByKey(project, APPLIED_PROFILE_KEY + persistenceUnitName);
+    }
+
+    public static void setAppliedProfile(Project project, String persistenceUnitName, PerformanceProfile profile) {
+        setProfileByKey(project, APPLIED_PROFILE_KEY + persistenceUnitName, profile);
+    }
+
+}
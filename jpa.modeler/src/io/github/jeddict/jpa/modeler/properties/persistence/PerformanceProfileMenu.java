@@ -0,0 +1,82 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.properties.persistence;
+
+import javax.swing.ButtonGroup;
+import javax.swing.JMenu;
+import javax.swing.JRadioButtonMenuItem;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
+import org.apache.commons.lang3.StringUtils;
+import io.github.jeddict.jpa.modeler.initializer.JPAModelerScene;
+import static org.openide.util.NbBundle.getMessage;
+
+/**
+ * Selects the performance profile applied to the persistence unit of the
+ * model on the next generation.
+ */
+public final class PerformanceProfileMenu {
+
+    private PerformanceProfileMenu() {
+    }
+
+    /**
+     * @param scene the modeler scene
+     * @return the popup menu listing the profiles
+     */
+    public static JMenu createMenu(JPAModelerScene scene) {
+        JMenu menu = new JMenu(getMessage(PerformanceProfileMenu.class, "PerformanceProfileMenu.title"));
+        ButtonGroup group = new ButtonGroup();
+        JRadioButtonMenuItem noneItem = createMenuItem(scene, null, group);
+        menu.add(noneItem);
+        for (PerformanceProfile profile : PerformanceProfile.values()) {
+            menu.add(createMenuItem(scene, profile, group));
+        }
+        menu.addMenuListener(new MenuListener() {
+            @Override
+            public void menuSelected(MenuEvent e) {
+                String persistenceUnitName = scene.getBaseElementSpec().getPersistenceUnitName();
+                boolean enabled = StringUtils.isNotBlank(persistenceUnitName);
+                for (int i = 0; i < menu.getItemCount(); i++) {
+                    menu.getItem(i).setEnabled(enabled);
+                }
+                if (enabled) {
+                    PerformanceProfile profile = PerformanceProfile.getProfile(scene.getModelerFile().getProject(), persistenceUnitName);
+                    menu.getItem(profile != null ? profile.ordinal() + 1 : 0).setSelected(true);
+                }
+            }
+
+            @Override
+            public void menuDeselected(MenuEvent e) {
+            }
+
+            @Override
+            public void menuCanceled(MenuEvent e) {
+            }
+        });
+        return menu;
+    }
+
+    private static JRadioButtonMenuItem createMenuItem(JPAModelerScene scene, PerformanceProfile profile, ButtonGroup group) {
+        String name = profile != null ? profile.getDisplayName() : getMessage(PerformanceProfileMenu.class, "PerformanceProfileMenu.none");
+        JRadioButtonMenuItem menuItem = new JRadioButtonMenuItem(name);
+        group.add(menuItem);
+        menuItem.addActionListener(e -> PerformanceProfile.setProfile(
+                scene.getModelerFile().getProject(), scene.getBaseElementSpec().getPersistenceUnitName(), profile));
+        return menuItem;
+    }
+
+}
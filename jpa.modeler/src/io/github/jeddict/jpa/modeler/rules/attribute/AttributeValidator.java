@@ -24,11 +24,15 @@ import static io.github.jeddict.jpa.modeler.widget.InheritanceStateType.SINGLETO
 import io.github.jeddict.jpa.modeler.widget.JavaClassWidget;
 import io.github.jeddict.jpa.modeler.widget.PersistenceClassWidget;
 import io.github.jeddict.jpa.modeler.widget.PrimaryKeyContainerWidget;
+import io.github.jeddict.jpa.modeler.rules.attribute.FetchPlanAnalyzer.Warning;
 import io.github.jeddict.jpa.modeler.widget.attribute.AttributeWidget;
+import io.github.jeddict.jpa.modeler.widget.attribute.relation.RelationAttributeWidget;
 import io.github.jeddict.jpa.spec.extend.CollectionTypeHandler;
 import io.github.jeddict.jpa.spec.extend.MapKeyHandler;
 import io.github.jeddict.jpa.spec.extend.MapKeyType;
+import io.github.jeddict.jpa.spec.extend.RelationAttribute;
 import static org.netbeans.modeler.widget.node.IWidgetStateHandler.StateType.ERROR;
+import static org.netbeans.modeler.widget.node.IWidgetStateHandler.StateType.WARNING;
 
 public class AttributeValidator {
 
@@ -128,4 +132,15 @@ public class AttributeValidator {
             }
         }
     }
+
+    public static void validateFetchPlan(RelationAttributeWidget<? extends RelationAttribute> attributeWidget, FetchPlanAnalyzer fetchPlanAnalyzer) {
+        Warning warning = fetchPlanAnalyzer.getWarning(attributeWidget.getBaseElementSpec());
+        for (String key : FetchPlanAnalyzer.WARNINGS) {
+            if (warning != null && warning.getKey().equals(key)) {
+                attributeWidget.getSignalManager().fire(WARNING, key, warning.getParams());
+            } else if (attributeWidget.getSignalManager().getSignalList(WARNING).containsKey(key)) {
+                attributeWidget.getSignalManager().clear(WARNING, key);
+            }
+        }
+    }
 }
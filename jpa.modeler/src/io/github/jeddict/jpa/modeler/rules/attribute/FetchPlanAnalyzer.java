@@ -0,0 +1,330 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.rules.attribute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static java.util.stream.Collectors.joining;
+import io.github.jeddict.jpa.spec.Entity;
+import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.FetchType;
+import io.github.jeddict.jpa.spec.ManagedClass;
+import io.github.jeddict.jpa.spec.extend.FetchTypeHandler;
+import io.github.jeddict.jpa.spec.extend.IPersistenceAttributes;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.jpa.spec.extend.MultiRelationAttribute;
+import io.github.jeddict.jpa.spec.extend.RelationAttribute;
+import io.github.jeddict.jpa.spec.extend.SingleRelationAttribute;
+import org.openide.util.NbBundle;
+
+/**
+ * Static analysis of the fetch plan of the entities, from the fetch type of
+ * their relations (JPA default if not set : eager for @OneToOne and @ManyToOne,
+ * lazy for @OneToMany and @ManyToMany).
+ *
+ * For each entity it computes the entities loaded eagerly with it, the
+ * estimated number of joins (or secondary selects) of the eager loading and
+ * the eager paths, loaded with one query per row (N+1) when the entity is
+ * returned by a query without join fetch.
+ *
+ * The relations reported as warnings are the first relations of the eager
+ * chains longer than {@link #MAX_EAGER_DEPTH}, and the eager collections,
+ * either part of a cycle of eager relations or loaded per owner row.
+ */
+public class FetchPlanAnalyzer {
+
+    public final static String EAGER_FETCH_CHAIN = "MSG_EagerFetchChain";
+    public final static String EAGER_COLLECTION_CYCLE = "MSG_EagerCollectionCycle";
+    public final static String EAGER_COLLECTION = "MSG_EagerCollection";
+    public final static String[] WARNINGS = {EAGER_FETCH_CHAIN, EAGER_COLLECTION_CYCLE, EAGER_COLLECTION};
+
+    /**
+     * the longest eager chain (in relations) not reported
+     */
+    public final static int MAX_EAGER_DEPTH = 3;
+
+    /**
+     * bound of the joins counted for an entity, beyond it the fetch plan is
+     * already an issue and the count is an estimation
+     */
+    private final static int MAX_JOINS = 1000;
+
+    private final boolean report;
+    private final List<FetchPlan> fetchPlans = new ArrayList<>();
+    private final Map<Entity, List<RelationAttribute>> eagerRelations = new IdentityHashMap<>();
+    private final Map<Entity, Set<Entity>> closures = new IdentityHashMap<>();
+    private final Map<RelationAttribute, Warning> warnings = new IdentityHashMap<>();
+
+    /**
+     * Analyzes the fetch plan for the warnings only, without the eager paths
+     * of the report.
+     */
+    public FetchPlanAnalyzer(EntityMappings entityMappings) {
+        this(entityMappings, false);
+    }
+
+    /**
+     * @param entityMappings
+     * @param report true to collect the eager paths of the
+     * {@link #getReport() report}
+     */
+    public FetchPlanAnalyzer(EntityMappings entityMappings, boolean report) {
+        this.report = report;
+        for (Entity entity : entityMappings.getEntity()) {
+            eagerRelations.put(entity, getEagerRelations(entity));
+        }
+        for (Entity entity : entityMappings.getEntity()) {
+            closures.put(entity, getEagerClosure(entity));
+        }
+        for (Entity entity : entityMappings.getEntity()) {
+            fetchPlans.add(analyze(entity));
+        }
+    }
+
+    /**
+     * @param attribute
+     * @return true if the relation is loaded eagerly, explicitly or by default
+     */
+    public static boolean isEager(RelationAttribute attribute) {
+        FetchType fetch = attribute instanceof FetchTypeHandler ? ((FetchTypeHandler) attribute).getFetch() : null;
+        if (fetch != null) {
+            return fetch == FetchType.EAGER;
+        }
+        return attribute instanceof SingleRelationAttribute;
+    }
+
+    private List<RelationAttribute> getEagerRelations(Entity entity) {
+        List<RelationAttribute> relations = new ArrayList<>();
+        for (JavaClass javaClass = entity; javaClass instanceof ManagedClass; javaClass = javaClass.getSuperclass()) {
+            ManagedClass<IPersistenceAttributes> managedClass = (ManagedClass<IPersistenceAttributes>) javaClass;
+            for (RelationAttribute attribute : managedClass.getAttributes().getRelationAttributes()) {
+                if (attribute.getConnectedEntity() != null && isEager(attribute)) {
+                    relations.add(attribute);
+                }
+            }
+        }
+        return relations;
+    }
+
+    private List<RelationAttribute> getEagerRelationsOf(Entity entity) {
+        return eagerRelations.getOrDefault(entity, emptyList());
+    }
+
+    private Set<Entity> getEagerClosure(Entity entity) {
+        Set<Entity> closure = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Entity> queue = new ArrayList<>();
+        queue.add(entity);
+        for (int i = 0; i < queue.size(); i++) {
+            for (RelationAttribute attribute : getEagerRelationsOf(queue.get(i))) {
+                if (closure.add(attribute.getConnectedEntity())) {
+                    queue.add(attribute.getConnectedEntity());
+                }
+            }
+        }
+        return closure;
+    }
+
+    private FetchPlan analyze(Entity entity) {
+        FetchPlan fetchPlan = new FetchPlan(entity);
+        for (Entity eagerEntity : closures.get(entity)) {
+            if (eagerEntity != entity) {
+                fetchPlan.eagerEntities.add(eagerEntity);
+            }
+        }
+        Set<Entity> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        path.add(entity);
+        for (RelationAttribute attribute : getEagerRelationsOf(entity)) {
+            List<RelationAttribute> chain = new ArrayList<>();
+            chain.add(attribute);
+            List<RelationAttribute> longestChain = walk(fetchPlan, chain, path);
+            if (longestChain.size() > MAX_EAGER_DEPTH) {
+                addWarning(fetchPlan, attribute, EAGER_FETCH_CHAIN, entity.getClazz(), longestChain.size(), toPath(entity, longestChain));
+            }
+            if (attribute instanceof MultiRelationAttribute) {
+                Entity target = attribute.getConnectedEntity();
+                if (target == entity || closures.getOrDefault(target, emptySet()).contains(entity)) {
+                    addWarning(fetchPlan, attribute, EAGER_COLLECTION_CYCLE, entity.getClazz(), target.getClazz());
+                } else {
+                    addWarning(fetchPlan, attribute, EAGER_COLLECTION, entity.getClazz(), target.getClazz());
+                }
+            }
+        }
+        return fetchPlan;
+    }
+
+    /**
+     * Walks the eager relations from the end of the chain, without entering
+     * an entity already on the path.
+     *
+     * @return the longest eager chain starting with {@code chain}
+     */
+    private List<RelationAttribute> walk(FetchPlan fetchPlan, List<RelationAttribute> chain, Set<Entity> path) {
+        fetchPlan.joinCount++;
+        if (report) {
+            fetchPlan.eagerPaths.add(toPath(fetchPlan.entity, chain));
+        }
+        Entity target = chain.get(chain.size() - 1).getConnectedEntity();
+        List<RelationAttribute> longestChain = new ArrayList<>(chain);
+        if (!path.add(target)) {
+            return longestChain;
+        }
+        for (RelationAttribute attribute : getEagerRelationsOf(target)) {
+            if (fetchPlan.joinCount >= MAX_JOINS) {
+                fetchPlan.estimated = true;
+                break;
+            }
+            if (path.contains(attribute.getConnectedEntity())) {
+                continue;
+            }
+            chain.add(attribute);
+            List<RelationAttribute> subChain = walk(fetchPlan, chain, path);
+            if (subChain.size() > longestChain.size()) {
+                longestChain = subChain;
+            }
+            chain.remove(chain.size() - 1);
+        }
+        path.remove(target);
+        return longestChain;
+    }
+
+    private static String toPath(Entity entity, List<RelationAttribute> chain) {
+        return entity.getClazz() + '.' + chain.stream().map(RelationAttribute::getName).collect(joining("."));
+    }
+
+    private void addWarning(FetchPlan fetchPlan, RelationAttribute attribute, String key, Object... params) {
+        warnings.putIfAbsent(attribute, new Warning(key, params));
+        fetchPlan.warnings.add(NbBundle.getMessage(FetchPlanAnalyzer.class, key, params));
+    }
+
+    public List<FetchPlan> getFetchPlans() {
+        return fetchPlans;
+    }
+
+    /**
+     * @param attribute
+     * @return the warning of the relation, or null
+     */
+    public Warning getWarning(RelationAttribute attribute) {
+        return warnings.get(attribute);
+    }
+
+    /**
+     * @return the fetch plan of the entities with eager relations, and the
+     * warnings, the eager paths are listed only if the analyzer is created for
+     * the report
+     */
+    public List<String> getReport() {
+        List<String> report = new ArrayList<>();
+        for (FetchPlan fetchPlan : fetchPlans) {
+            if (fetchPlan.joinCount == 0) {
+                continue;
+            }
+            report.add(String.format("%s : %d eager entities (%s), %s%d joins",
+                    fetchPlan.entity.getClazz(),
+                    fetchPlan.eagerEntities.size(),
+                    fetchPlan.eagerEntities.stream().map(JavaClass::getClazz).collect(joining(", ")),
+                    fetchPlan.estimated ? "more than " : "",
+                    fetchPlan.joinCount));
+            fetchPlan.eagerPaths.forEach(eagerPath -> report.add("    N+1 path : " + eagerPath));
+            fetchPlan.warnings.forEach(warning -> report.add("    Warning : " + warning));
+        }
+        return report;
+    }
+
+    /**
+     * @return the number of warnings of all the fetch plans
+     */
+    public int getWarningCount() {
+        return fetchPlans.stream().mapToInt(fetchPlan -> fetchPlan.warnings.size()).sum();
+    }
+
+    public static class FetchPlan {
+
+        private final Entity entity;
+        private final List<Entity> eagerEntities = new ArrayList<>();
+        private final List<String> eagerPaths = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private int joinCount;
+        private boolean estimated;
+
+        private FetchPlan(Entity entity) {
+            this.entity = entity;
+        }
+
+        public Entity getEntity() {
+            return entity;
+        }
+
+        /**
+         * @return the entities loaded eagerly with the entity
+         */
+        public List<Entity> getEagerEntities() {
+            return eagerEntities;
+        }
+
+        /**
+         * @return the eager relation paths (Order.customer.address), each one
+         * loaded with one query per row if the entity is returned by a query
+         * without join fetch, empty if the analyzer is not created for the
+         * report
+         */
+        public List<String> getEagerPaths() {
+            return eagerPaths;
+        }
+
+        /**
+         * @return the number of joins (or secondary selects) to load the
+         * entity, bounded if {@link #isEstimated()}
+         */
+        public int getJoinCount() {
+            return joinCount;
+        }
+
+        public boolean isEstimated() {
+            return estimated;
+        }
+
+        public List<String> getWarnings() {
+            return warnings;
+        }
+    }
+
+    public static class Warning {
+
+        private final String key;
+        private final Object[] params;
+
+        private Warning(String key, Object[] params) {
+            this.key = key;
+            this.params = params;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object[] getParams() {
+            return params;
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.rules.entity;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Index of the owners (classes, tables) by name, used to detect the duplicate
+ * names without scanning all the elements of the scene.
+ *
+ * The index is updated by the owner on add, rename and delete.
+ *
+ * @param <T> the owner type
+ */
+public class NameIndex<T> {
+
+    private final Map<String, Set<T>> owners = new HashMap<>();
+    private final Map<T, String> names = new IdentityHashMap<>();
+    private final Function<T, String> nameProvider;
+
+    public NameIndex(Function<T, String> nameProvider) {
+        this.nameProvider = nameProvider;
+    }
+
+    public NameIndex(Function<T, String> nameProvider, Collection<? extends T> elements) {
+        this(nameProvider);
+        elements.forEach(this::update);
+    }
+
+    /**
+     * Indexes the owner with its current name.
+     *
+     * @param owner
+     * @return the previous indexed name of the owner
+     */
+    public String update(T owner) {
+        return update(owner, nameProvider.apply(owner));
+    }
+
+    /**
+     * Indexes the owner with the name.
+     *
+     * @param owner
+     * @param name
+     * @return the previous indexed name of the owner
+     */
+    public String update(T owner, String name) {
+        String previousName = remove(owner);
+        if (name != null) {
+            names.put(owner, name);
+            owners.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(owner);
+        }
+        return previousName;
+    }
+
+    /**
+     * @param owner
+     * @return the previous indexed name of the owner
+     */
+    public String remove(T owner) {
+        String previousName = names.remove(owner);
+        if (previousName != null) {
+            Set<T> nameOwners = owners.get(previousName);
+            nameOwners.remove(owner);
+            if (nameOwners.isEmpty()) {
+                owners.remove(previousName);
+            }
+        }
+        return previousName;
+    }
+
+    /**
+     * @param name
+     * @return the owners of the name in the order they are indexed
+     */
+    public Set<T> get(String name) {
+        Set<T> nameOwners = owners.get(name);
+        return nameOwners == null ? emptySet() : unmodifiableSet(nameOwners);
+    }
+
+    public int count(String name) {
+        Set<T> nameOwners = owners.get(name);
+        return nameOwners == null ? 0 : nameOwners.size();
+    }
+
+    public void clear() {
+        owners.clear();
+        names.clear();
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package io.github.jeddict.jpa.modeler.signal;
 
+import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -107,15 +108,15 @@ public class SignalHandler {
         private final Class[] VALIDATORS = {ClassValidator.class, AttributeValidator.class};
 
         private String get(String key, Object... param) {
-            String value = ERRORS.get(key);
-            if (value != null) {
-                return value;
+            String pattern = ERRORS.get(key);
+            if (pattern != null) {
+                return MessageFormat.format(pattern, param);
             }
             for (Class validator : VALIDATORS) {
                 try {
-                    value = NbBundle.getMessage(validator, key, param);
-                    ERRORS.put(key, value);
-                    return value;
+                    pattern = NbBundle.getBundle(validator).getString(key);
+                    ERRORS.put(key, pattern);
+                    return MessageFormat.format(pattern, param);
                 } catch (MissingResourceException resourceException) {
                     //Ignore
                 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.source.generator.ui;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JMenu;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
+import io.github.jeddict.jpa.modeler.initializer.JPAModelSerializer;
+import static org.openide.util.NbBundle.getMessage;
+
+/**
+ * Toggles the options of the source generation and of the model file save.
+ */
+public final class GenerationOptionsMenu {
+
+    private GenerationOptionsMenu() {
+    }
+
+    /**
+     * @return the popup menu listing the options
+     */
+    public static JMenu createMenu() {
+        JMenu menu = new JMenu(getMessage(GenerationOptionsMenu.class, "GenerationOptionsMenu.title"));
+        addMenuItem(menu, "parallelGeneration", GeneratorSettings::isParallelGeneration, GeneratorSettings::setParallelGeneration);
+        addMenuItem(menu, "incrementalGeneration", GeneratorSettings::isIncrementalGeneration, GeneratorSettings::setIncrementalGeneration);
+        addMenuItem(menu, "editorReformat", GeneratorSettings::isEditorReformat, GeneratorSettings::setEditorReformat);
+        addMenuItem(menu, "fetchPlanReport", GeneratorSettings::isFetchPlanReport, GeneratorSettings::setFetchPlanReport);
+        menu.addSeparator();
+        addMenuItem(menu, "fastSave", JPAModelSerializer::isFastSave, JPAModelSerializer::setFastSave);
+        return menu;
+    }
+
+    private static void addMenuItem(JMenu menu, String option, Supplier<Boolean> getter, Consumer<Boolean> setter) {
+        JCheckBoxMenuItem menuItem = new JCheckBoxMenuItem(getMessage(GenerationOptionsMenu.class, "GenerationOptionsMenu." + option));
+        menuItem.setToolTipText(getMessage(GenerationOptionsMenu.class, "GenerationOptionsMenu." + option + ".tooltip"));
+        menuItem.addActionListener(e -> setter.accept(menuItem.isSelected()));
+        menu.addMenuListener(new MenuListener() {
+            @Override
+            public void menuSelected(MenuEvent e) {
+                menuItem.setSelected(getter.get());
+            }
+
+            @Override
+            public void menuDeselected(MenuEvent e) {
+            }
+
+            @Override
+            public void menuCanceled(MenuEvent e) {
+            }
+        });
+        menu.add(menuItem);
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.source.generator.ui;
+
+import java.util.prefs.Preferences;
+import org.openide.util.NbPreferences;
+
+/**
+ * Generation session options of the ORM source generator, persisted in the
+ * module preferences and selected from the {@link GenerationOptionsMenu}.
+ */
+public final class GeneratorSettings {
+
+    private static final String PARALLEL_GENERATION = "parallelGeneration";
+    private static final String INCREMENTAL_GENERATION = "incrementalGeneration";
+    private static final String EDITOR_REFORMAT = "editorReformat";
+    private static final String FETCH_PLAN_REPORT = "fetchPlanReport";
+
+    private GeneratorSettings() {
+    }
+
+    private static Preferences getPreferences() {
+        return NbPreferences.forModule(GeneratorSettings.class);
+    }
+
+    public static boolean isParallelGeneration() {
+        return getPreferences().getBoolean(PARALLEL_GENERATION, false);
+    }
+
+    public static void setParallelGeneration(boolean parallelGeneration) {
+        getPreferences().putBoolean(PARALLEL_GENERATION, parallelGeneration);
+    }
+
+    /**
+     * @return the size of the worker pool used in parallel generation mode
+     */
+    public static int getGenerationThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return true if the classes whose spec and generator settings are
+     * unchanged since the last generation must not be rewritten
+     */
+    public static boolean isIncrementalGeneration() {
+        return getPreferences().getBoolean(INCREMENTAL_GENERATION, false);
+    }
+
+    public static void setIncrementalGeneration(boolean incrementalGeneration) {
+        getPreferences().putBoolean(INCREMENTAL_GENERATION, incrementalGeneration);
+    }
+
+    /**
+     * @return true if the generated sources must be formatted by the editor
+     * Reformat, false (default) to use the faster in-process formatter of the
+     * generator
+     */
+    public static boolean isEditorReformat() {
+        return getPreferences().getBoolean(EDITOR_REFORMAT, false);
+    }
+
+    public static void setEditorReformat(boolean editorReformat) {
+        getPreferences().putBoolean(EDITOR_REFORMAT, editorReformat);
+    }
+
+    /**
+     * @return true if the fetch plan report of the entities must be written
+     * next to the modeler file
+     */
+    public static boolean isFetchPlanReport() {
+        return getPreferences().getBoolean(FETCH_PLAN_REPORT, false);
+    }
+
+    public static void setFetchPlanReport(boolean fetchPlanReport) {
+        getPreferences().putBoolean(FETCH_PLAN_REPORT, fetchPlanReport);
+    }
+
+}
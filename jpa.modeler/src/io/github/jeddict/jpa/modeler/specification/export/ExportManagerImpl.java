@@ -69,6 +69,7 @@ public class ExportManagerImpl implements IExportManager<JPAModelerScene> {
 
     @Override
     public void export(JPAModelerScene scene, FileType format, File file) {
+        scene.materializeAll();
         try {
             HSLFSlideShow ppt = new HSLFSlideShow();
             int width = 0, height = 0;
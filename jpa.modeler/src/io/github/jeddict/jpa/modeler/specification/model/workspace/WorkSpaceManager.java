@@ -241,6 +241,9 @@ public class WorkSpaceManager {
                 } 
                 item.setTextDesign(classWidget.getTextDesign().isChanged()
                         ? (NodeTextDesign)classWidget.getTextDesign():null);
+                if (!scene.isAttributeLoaded(classWidget)) {
+                    continue;// virtualized scene, attribute text design is unchanged
+                }
                 Map<Attribute, WorkSpaceElement> cache = item.getWorkSpaceElementMap();
                 item.setWorkSpaceElement(
                         classWidget.getAllAttributeWidgets(false)
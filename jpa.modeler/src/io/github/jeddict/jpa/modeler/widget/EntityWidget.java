@@ -20,6 +20,7 @@ import static java.lang.Boolean.TRUE;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.swing.JMenuItem;
 import static java.util.stream.Collectors.toList;
 import org.apache.commons.lang3.StringUtils;
 import static io.github.jeddict.jpa.modeler.widget.InheritanceStateType.BRANCH;
@@ -30,6 +31,7 @@ import io.github.jeddict.jpa.modeler.widget.attribute.base.IdAttributeWidget;
 import io.github.jeddict.jpa.modeler.widget.flow.GeneralizationFlowWidget;
 import io.github.jeddict.jpa.modeler.widget.flow.relation.RelationFlowWidget;
 import io.github.jeddict.jpa.modeler.properties.PropertiesHandler;
+import io.github.jeddict.jpa.modeler.properties.entitygraph.EntityGraphPathDialog;
 import static io.github.jeddict.jpa.modeler.properties.PropertiesHandler.getCacheableProperty;
 import static io.github.jeddict.jpa.modeler.properties.PropertiesHandler.getConvertProperties;
 import static io.github.jeddict.jpa.modeler.properties.PropertiesHandler.getEntityDisplayProperty;
@@ -245,6 +247,13 @@ public class EntityWidget extends PrimaryKeyContainerWidget<Entity> {
 //        return menuList;
 //    }
 
+    @Override
+    protected List<JMenuItem> getPopupMenuItemList() {
+        List<JMenuItem> menuList = super.getPopupMenuItemList();
+        menuList.add(EntityGraphPathDialog.createMenuItem(this, ""));
+        return menuList;
+    }
+
     /**
      * @return the abstractEntity
      */
@@ -17,10 +17,14 @@ package io.github.jeddict.jpa.modeler.widget;
 
 import java.awt.Cursor;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import javax.lang.model.SourceVersion;
 import javax.swing.JOptionPane;
 import org.apache.commons.lang3.StringUtils;
@@ -67,6 +71,8 @@ public abstract class JavaClassWidget<E extends JavaClass> extends FlowNodeWidge
 
     private GeneralizationFlowWidget outgoingGeneralizationFlowWidget;
     private final List<GeneralizationFlowWidget> incomingGeneralizationFlowWidgets = new ArrayList<>();
+    private boolean bulkLoad;
+    private final Set<String> pendingAttributeNames = new HashSet<>();
 
     public JavaClassWidget(JPAModelerScene scene, NodeWidgetInfo node) {
         super(scene, node);
@@ -139,9 +145,37 @@ public abstract class JavaClassWidget<E extends JavaClass> extends FlowNodeWidge
     }
 
     public void sortAttributes() {
+        if (bulkLoad) {
+            return;
+        }
         sortPins(getAttributeCategories());
     }
 
+    /**
+     * Adds the attributes in bulk, the attributes are sorted and scanned for
+     * duplicate names once after the loader instead of after each attribute.
+     *
+     * @param loader adds the attributes to this class widget
+     */
+    public void loadAttributes(Runnable loader) {
+        if (bulkLoad) {
+            loader.run();
+            return;
+        }
+        bulkLoad = true;
+        try {
+            loader.run();
+        } finally {
+            bulkLoad = false;
+            sortAttributes();
+            if (!pendingAttributeNames.isEmpty()) {
+                Set<String> names = new HashSet<>(pendingAttributeNames);
+                pendingAttributeNames.clear();
+                scanDuplicateAttributes(names);
+            }
+        }
+    }
+
     public abstract Map<String, List<Widget>> getAttributeCategories();
 
     protected void validateName(String previousName, String name) {
@@ -165,43 +199,11 @@ public abstract class JavaClassWidget<E extends JavaClass> extends FlowNodeWidge
     }
 
     public void scanDuplicateClass(String previousName, String newName) {
-        int previousNameCount = 0, newNameCount = 0;
-        List<JavaClassWidget> javaClassList = this.getModelerScene().getJavaClassWidges();
-        EntityMappings entityMappings = this.getModelerScene().getBaseElementSpec();
-
-        List<JavaClass> hiddenJavaClasses = new ArrayList<>(entityMappings.getJavaClass());
-        hiddenJavaClasses.removeAll(
-                javaClassList.stream()
-                        .map(JavaClassWidget::getBaseElementSpec)
-                        .collect(toList())
-        );
-        for (JavaClass javaClass : hiddenJavaClasses) {
-            if (javaClass.getClazz().equals(previousName)) {
-                ++previousNameCount;
-            }
-            if (javaClass.getClazz().equals(newName)) {
-                ++newNameCount;
-            }
-        }
-
-        for (JavaClassWidget<JavaClass> javaClassWidget : javaClassList) {
-            JavaClass javaClass = javaClassWidget.getBaseElementSpec();
-
-            if (javaClass.getClazz().equals(previousName)) {
-                if (++previousNameCount > 1) {
-                    javaClassWidget.getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_JAVA_CLASS);
-                } else if (!javaClassWidget.getSignalManager().getSignalList(ERROR).isEmpty()) {
-                    javaClassWidget.getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_JAVA_CLASS);
-                }
-            }
-
-            if (javaClass.getClazz().equals(newName)) {
-                if (++newNameCount > 1) {
-                    javaClassWidget.getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_JAVA_CLASS);
-                } else if (!javaClassWidget.getSignalManager().getSignalList(ERROR).isEmpty()) {
-                    javaClassWidget.getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_JAVA_CLASS);
-                }
-            }
+        JPAModelerScene scene = this.getModelerScene();
+        scene.getClassNameIndex().update(this.getBaseElementSpec(), newName);
+        scene.scanDuplicateClass(previousName);
+        if (newName != null && !newName.equals(previousName)) {
+            scene.scanDuplicateClass(newName);
         }
     }
 
@@ -420,6 +422,12 @@ public abstract class JavaClassWidget<E extends JavaClass> extends FlowNodeWidge
     }
 
     public void scanDuplicateAttributes(String previousName, String newName) {
+        if (bulkLoad && previousName == null) {
+            if (newName != null) {
+                pendingAttributeNames.add(newName);
+            }
+            return;
+        }
         int previousNameCount = 0, newNameCount = 0;
         List<AttributeWidget<? extends Attribute>> attributeWidgets = this.getAllAttributeWidgets(true);
         JavaClass javaClass = this.getBaseElementSpec();
@@ -460,6 +468,39 @@ public abstract class JavaClassWidget<E extends JavaClass> extends FlowNodeWidge
         }
     }
 
+    /**
+     * Same as {@link #scanDuplicateAttributes(String, String)} with each of
+     * the new names, in a single pass over the attributes.
+     */
+    private void scanDuplicateAttributes(Set<String> newNames) {
+        Map<String, Integer> nameCount = new HashMap<>();
+        List<AttributeWidget<? extends Attribute>> attributeWidgets = this.getAllAttributeWidgets(true);
+        JavaClass javaClass = this.getBaseElementSpec();
+
+        List<Attribute> hiddenAttributes = new ArrayList<>(javaClass.getAttributes().getAllAttribute(true));
+        hiddenAttributes.removeAll(
+                attributeWidgets.stream()
+                        .map(aw -> (Attribute) aw.getBaseElementSpec())
+                        .collect(toSet())
+        );
+        for (Attribute attribute : hiddenAttributes) {
+            if (newNames.contains(attribute.getName())) {
+                nameCount.merge(attribute.getName(), 1, Integer::sum);
+            }
+        }
+
+        for (AttributeWidget<? extends Attribute> attributeWidget : attributeWidgets) {
+            Attribute attribute = attributeWidget.getBaseElementSpec();
+            if (newNames.contains(attribute.getName())) {
+                if (nameCount.merge(attribute.getName(), 1, Integer::sum) > 1) {
+                    attributeWidget.getSignalManager().fire(ERROR, AttributeValidator.NON_UNIQUE_ATTRIBUTE_NAME);
+                } else if (!attributeWidget.getSignalManager().getSignalList(ERROR).isEmpty()) {
+                    attributeWidget.getSignalManager().clear(ERROR, AttributeValidator.NON_UNIQUE_ATTRIBUTE_NAME);
+                }
+            }
+        }
+    }
+
     public abstract List<AttributeWidget<? extends Attribute>> getAllAttributeWidgets(boolean includeParentClassAttibute);
 
     public abstract E createBaseElementSpec();
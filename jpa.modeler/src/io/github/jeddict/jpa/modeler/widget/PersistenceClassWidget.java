@@ -200,6 +200,7 @@ public abstract class PersistenceClassWidget<E extends ManagedClass<? extends IP
             transientAttributeWidgets.remove((TransientAttributeWidget) attributeWidget);
             attributes.removeTransient(((TransientAttributeWidget) attributeWidget).getBaseElementSpec());
         } else if (attributeWidget instanceof RelationAttributeWidget) {
+            this.getModelerScene().validateFetchPlan();
             if (attributeWidget instanceof OTORelationAttributeWidget) {
                 OTORelationAttributeWidget otoRelationAttributeWidget = (OTORelationAttributeWidget) attributeWidget;
                 OneToOne oneToOneSpec = ((OTORelationAttributeWidget) attributeWidget).getBaseElementSpec();
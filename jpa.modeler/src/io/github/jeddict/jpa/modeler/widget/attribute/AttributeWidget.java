@@ -172,6 +172,7 @@ public abstract class AttributeWidget<E extends Attribute> extends FlowPinWidget
 
     @Override
     public void init() {
+        this.getModelerScene().clearJPQLCompletionIndex();
         this.getClassWidget().scanDuplicateAttributes(null, this.name);
         validateName(null, this.getName());
         addOpenSourceCodeAction();
@@ -192,6 +193,7 @@ public abstract class AttributeWidget<E extends Attribute> extends FlowPinWidget
     
     @Override
     public void destroy() {
+        this.getModelerScene().clearJPQLCompletionIndex();
         this.getClassWidget().scanDuplicateAttributes(this.name, null);
     }
     
@@ -216,6 +218,7 @@ public abstract class AttributeWidget<E extends Attribute> extends FlowPinWidget
             this.name = name.replaceAll("\\s+", "");
             if (this.getModelerScene().getModelerFile().isLoaded()) {
                 getBaseElementSpec().setName(this.name);
+                this.getModelerScene().clearJPQLCompletionIndex();
                 refractorReference(previousName, this.name);
             }
         }
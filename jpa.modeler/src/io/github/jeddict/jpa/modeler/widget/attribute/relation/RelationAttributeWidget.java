@@ -15,11 +15,14 @@
  */
 package io.github.jeddict.jpa.modeler.widget.attribute.relation;
 
+import java.util.List;
+import javax.swing.JMenuItem;
 import io.github.jeddict.jpa.modeler.widget.EntityWidget;
 import io.github.jeddict.jpa.modeler.widget.PersistenceClassWidget;
 import io.github.jeddict.jpa.modeler.widget.attribute.AttributeWidget;
 import io.github.jeddict.jpa.modeler.widget.flow.relation.RelationFlowWidget;
 import io.github.jeddict.jpa.modeler.properties.PropertiesHandler;
+import io.github.jeddict.jpa.modeler.properties.entitygraph.EntityGraphPathDialog;
 import static io.github.jeddict.jpa.modeler.properties.PropertiesHandler.getCascadeProperty;
 import io.github.jeddict.jpa.spec.Entity;
 import io.github.jeddict.jpa.spec.extend.FetchTypeHandler;
@@ -78,6 +81,9 @@ public abstract class RelationAttributeWidget<E extends RelationAttribute> exten
         relationAttribute.setConnectedEntity(classWidget.getBaseElementSpec());
         setAttributeTooltip();
         visualizeDataType();
+        if (!this.getModelerScene().isSceneGenerating()) {
+            this.getModelerScene().validateFetchPlan();
+        }
     }
 
     public void setConnectedSibling(EntityWidget classWidget, RelationAttributeWidget<RelationAttribute> attributeWidget) {
@@ -86,6 +92,9 @@ public abstract class RelationAttributeWidget<E extends RelationAttribute> exten
         relationAttribute.setConnectedAttribute(attributeWidget.getBaseElementSpec());
         setAttributeTooltip();
         visualizeDataType();
+        if (!this.getModelerScene().isSceneGenerating()) {
+            this.getModelerScene().validateFetchPlan();
+        }
     }
 
     public abstract RelationFlowWidget getRelationFlowWidget();
@@ -105,6 +114,15 @@ public abstract class RelationAttributeWidget<E extends RelationAttribute> exten
 //        return menuList;
 //    }
     
+    @Override
+    protected List<JMenuItem> getPopupMenuItemList() {
+        List<JMenuItem> menuList = super.getPopupMenuItemList();
+        if (this.getClassWidget() instanceof EntityWidget) {
+            menuList.add(EntityGraphPathDialog.createMenuItem((EntityWidget) this.getClassWidget(), this.getName()));
+        }
+        return menuList;
+    }
+
     public PersistenceClassWidget getConnectedClassWidget(){
             IFlowElementWidget flowElementWidget = this.getBaseElementSpec().isOwner() ? 
                     this.getRelationFlowWidget().getTargetWidget() : 
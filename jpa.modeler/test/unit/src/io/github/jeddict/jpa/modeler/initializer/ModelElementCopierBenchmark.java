@@ -0,0 +1,85 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.jpa.modeler.initializer;
+
+import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.extend.ExtensionElements;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.bind.JAXBException;
+import org.netbeans.modeler.specification.model.document.core.IBaseElement;
+
+/**
+ * Times the copy of all the classes of a real model, as done on copy and
+ * paste in the modeler ({@link JPAModelerUtil#clone(List)}), with
+ * {@link ModelElementCopier} and with the xml round trip, and checks that both
+ * copies marshal to the same xml.
+ *
+ * Each class is also copied on its own, to report the classes for which the
+ * structural copy is not supported and the xml round trip is used instead.
+ *
+ * Usage: ModelElementCopierBenchmark model.jpa [iterations]
+ */
+public class ModelElementCopierBenchmark {
+
+    public static void main(String[] args) throws JAXBException {
+        if (args.length == 0) {
+            System.err.println("Usage: ModelElementCopierBenchmark model.jpa [iterations]");
+            System.exit(1);
+        }
+        EntityMappings entityMappings = JPAModelSerializer.load(new File(args[0]));
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        int fallbacks = 0;
+        for (JavaClass javaClass : entityMappings.getJavaClass()) {
+            try {
+                ModelElementCopier.copy(javaClass);
+            } catch (UnsupportedOperationException ex) {
+                fallbacks++;
+                System.out.println("Xml round trip for " + javaClass.getClazz() + " : " + ex.getMessage());
+            }
+        }
+        System.out.printf("Classes : %d, structural copy : %d, xml round trip : %d%n",
+                entityMappings.getJavaClass().size(), entityMappings.getJavaClass().size() - fallbacks, fallbacks);
+        if (fallbacks > 0) {
+            System.out.println("The copy of the whole model falls back to the xml round trip");
+            return;
+        }
+
+        List<IBaseElement> elements = new ArrayList<>(entityMappings.getJavaClass());
+        ExtensionElements extensionElements = new ExtensionElements(elements);
+        ExtensionElements copy = null, clone = null;
+        long copyTime = Long.MAX_VALUE, cloneTime = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            copy = ModelElementCopier.copy(extensionElements);
+            copyTime = Math.min(copyTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            clone = JPAModelSerializer.clone(extensionElements);
+            cloneTime = Math.min(cloneTime, System.nanoTime() - start);
+        }
+        if (!JPAModelSerializer.marshal(copy).equals(JPAModelSerializer.marshal(clone))) {
+            throw new IllegalStateException("The structural copy differs from the xml round trip");
+        }
+        System.out.printf("Structural copy : %.2f ms%n", copyTime / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        System.out.printf("Xml round trip  : %.2f ms%n", cloneTime / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+}
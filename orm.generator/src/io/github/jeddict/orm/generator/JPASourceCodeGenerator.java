@@ -18,11 +18,25 @@ package io.github.jeddict.orm.generator;
 import org.netbeans.api.project.Project;
 import org.netbeans.api.project.SourceGroup;
 import io.github.jeddict.jcode.task.ITaskSupervisor;
+import io.github.jeddict.jpa.modeler.rules.attribute.FetchPlanAnalyzer;
+import io.github.jeddict.jpa.modeler.source.generator.ui.GeneratorSettings;
 import io.github.jeddict.jpa.spec.EntityMappings;
 import io.github.jeddict.orm.generator.compiler.CompilerConfig;
 import io.github.jeddict.orm.generator.compiler.CompilerConfigManager;
 import io.github.jeddict.orm.generator.spec.ModuleGenerator;
+import io.github.jeddict.collaborate.issues.ExceptionUtils;
 import io.github.jeddict.orm.generator.util.ClassesRepository;
+import io.github.jeddict.orm.generator.util.GeneratedSourceWriter;
+import io.github.jeddict.orm.generator.util.GenerationManifest;
+import io.github.jeddict.orm.generator.util.GeneratorStatistics;
+import io.github.jeddict.orm.generator.util.ImportResolver;
+import io.github.jeddict.orm.generator.util.TemplateCache;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
 import org.openide.util.Lookup;
 
 /**
@@ -31,6 +45,8 @@ import org.openide.util.Lookup;
  */
 public class JPASourceCodeGenerator implements ISourceCodeGenerator {
 
+    private static final String FETCH_PLAN_REPORT_SUFFIX = "-fetch-plan.txt";
+
     @Override
     public void generate(ITaskSupervisor task,
             Project project,
@@ -38,13 +54,61 @@ public class JPASourceCodeGenerator implements ISourceCodeGenerator {
             InputDefinition inputDefinition) {
         EntityMappings entityMappings = (EntityMappings) inputDefinition.getModelerFile().getDefinitionElement();
         CompilerConfig compilerConfig = new CompilerConfig(entityMappings.getPackage());
+        GenerationManifest generationManifest = null;
+        if (GeneratorSettings.isIncrementalGeneration()) {
+            generationManifest = GenerationManifest.load(
+                    inputDefinition.getModelerFile().getFileObject(),
+                    project,
+                    entityMappings,
+                    FileUtil.toFile(sourceGroup.getRootFolder()));
+            compilerConfig.setGenerationManifest(generationManifest);
+        }
+        GeneratedSourceWriter sourceWriter = new GeneratedSourceWriter();
+        compilerConfig.setSourceWriter(sourceWriter);
         CompilerConfigManager.getInstance().initialize(compilerConfig);
-        ClassesRepository.getInstance().clear();
-        Lookup.getDefault()
-                .lookupAll(ModuleGenerator.class)
-                .forEach((moduleGenerator) -> {
-                    moduleGenerator.generate(task, project, sourceGroup, entityMappings);
-                });
+        GeneratorStatistics.reset();
+        TemplateCache.clear();
+        ImportResolver.clear();
+        try {
+            Lookup.getDefault()
+                    .lookupAll(ModuleGenerator.class)
+                    .forEach((moduleGenerator) -> {
+                        moduleGenerator.generate(task, project, sourceGroup, entityMappings);
+                    });
+        } finally {
+            try {
+                sourceWriter.close();
+            } catch (IOException ex) {
+                ExceptionUtils.printStackTrace(ex);
+            }
+        }
+        if (generationManifest != null) {
+            generationManifest.save();
+        }
+        reportFetchPlan(task, inputDefinition.getModelerFile().getFileObject(), entityMappings);
+        ClassesRepository classesRepository = compilerConfig.getClassesRepository();
+        if (classesRepository.getLookupCount() > 0) {
+            GeneratorStatistics.count("Class lookup", classesRepository.getLookupCount());
+            GeneratorStatistics.count("Class lookup miss", classesRepository.getMissCount());
+        }
+        GeneratorStatistics.getSummary().forEach(summary -> task.log(summary, true));
+    }
+
+    private void reportFetchPlan(ITaskSupervisor task, FileObject modelerFileObject, EntityMappings entityMappings) {
+        FetchPlanAnalyzer fetchPlanAnalyzer = new FetchPlanAnalyzer(entityMappings, GeneratorSettings.isFetchPlanReport());
+        if (fetchPlanAnalyzer.getWarningCount() > 0) {
+            task.log(String.format("Fetch plan : %d eager fetch warnings", fetchPlanAnalyzer.getWarningCount()), true);
+        }
+        if (GeneratorSettings.isFetchPlanReport()) {
+            File modelerFile = FileUtil.toFile(modelerFileObject);
+            File reportFile = new File(modelerFile.getParentFile(), modelerFileObject.getName() + FETCH_PLAN_REPORT_SUFFIX);
+            try {
+                Files.write(reportFile.toPath(), fetchPlanAnalyzer.getReport(), StandardCharsets.UTF_8);
+                task.log("Fetch plan report : " + reportFile.getPath(), true);
+            } catch (IOException ex) {
+                ExceptionUtils.printStackTrace(ex);
+            }
+        }
     }
 
 }
@@ -15,9 +15,16 @@
  */
 package io.github.jeddict.orm.generator.compiler;
 
+import io.github.jeddict.orm.generator.util.ClassesRepository;
+import io.github.jeddict.orm.generator.util.GeneratedSourceWriter;
+import io.github.jeddict.orm.generator.util.GenerationManifest;
+
 public class CompilerConfig {
 
     private String defaultPkgName = null;
+    private GenerationManifest generationManifest;
+    private GeneratedSourceWriter sourceWriter;
+    private final ClassesRepository classesRepository = new ClassesRepository();
 
     public CompilerConfig(String defaultPkgName) {
         this.defaultPkgName = defaultPkgName;
@@ -26,4 +33,34 @@ public class CompilerConfig {
     public String getDefaultPkgName() {
         return defaultPkgName;
     }
+
+    /**
+     * @return the manifest of the previous generation, null if the incremental
+     * generation is disabled
+     */
+    public GenerationManifest getGenerationManifest() {
+        return generationManifest;
+    }
+
+    public void setGenerationManifest(GenerationManifest generationManifest) {
+        this.generationManifest = generationManifest;
+    }
+
+    /**
+     * @return the output stage of the generation session
+     */
+    public GeneratedSourceWriter getSourceWriter() {
+        return sourceWriter;
+    }
+
+    public void setSourceWriter(GeneratedSourceWriter sourceWriter) {
+        this.sourceWriter = sourceWriter;
+    }
+
+    /**
+     * @return the snippets generated in the generation session
+     */
+    public ClassesRepository getClassesRepository() {
+        return classesRepository;
+    }
 }
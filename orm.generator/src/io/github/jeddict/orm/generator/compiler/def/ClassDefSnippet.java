@@ -39,11 +39,10 @@ import io.github.jeddict.orm.generator.compiler.Snippet;
 import io.github.jeddict.orm.generator.compiler.ToStringMethodSnippet;
 import io.github.jeddict.orm.generator.spec.WritableSnippet;
 import io.github.jeddict.orm.generator.util.ClassHelper;
+import io.github.jeddict.orm.generator.util.ImportResolver;
 import io.github.jeddict.orm.generator.util.ImportSet;
 import io.github.jeddict.orm.generator.util.ORMConverterUtil;
 import static io.github.jeddict.orm.generator.util.ORMConverterUtil.NEW_LINE;
-import static io.github.jeddict.orm.generator.util.ORMConverterUtil.eliminateSamePkgImports;
-import static io.github.jeddict.orm.generator.util.ORMConverterUtil.processedImportStatements;
 
 public abstract class ClassDefSnippet implements WritableSnippet {
 
@@ -73,6 +72,7 @@ public abstract class ClassDefSnippet implements WritableSnippet {
     private List<VariableDefSnippet> variableDefs = new ArrayList<>();
     private boolean jaxbSupport;
     private boolean xmlRootElement;
+    private List<String> importStatements;
 
     public boolean isJaxbSupport() {
         return jaxbSupport;
@@ -400,6 +400,7 @@ public abstract class ClassDefSnippet implements WritableSnippet {
 
     @Override
     public String getSnippet() throws InvalidDataException {
+        getImportSnippets(); // import clashes are reported as is, not wrapped by the template engine
         try {
             Map velocityContext = new HashMap();
             velocityContext.put("classDef", this);
@@ -413,9 +414,10 @@ public abstract class ClassDefSnippet implements WritableSnippet {
 
     @Override
     public Collection<String> getImportSnippets() throws InvalidDataException {
-        Collection<String> importSnippets = getImportSet();
-        importSnippets = eliminateSamePkgImports(classHelper.getPackageName(), importSnippets);
-        return processedImportStatements(importSnippets);
+        if (importStatements == null) {
+            importStatements = ImportResolver.resolve(classHelper, getImportSet());
+        }
+        return importStatements;
     }
 
     public ImportSet getImportSet() throws InvalidDataException {
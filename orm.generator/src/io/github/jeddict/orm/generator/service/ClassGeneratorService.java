@@ -15,11 +15,15 @@
  */
 package io.github.jeddict.orm.generator.service;
 
-import io.github.jeddict.collaborate.issues.ExceptionUtils;
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import static java.util.stream.Collectors.toList;
 import org.netbeans.api.project.Project;
 import org.netbeans.api.project.SourceGroup;
@@ -33,6 +37,8 @@ import io.github.jeddict.jpa.spec.Entity;
 import io.github.jeddict.jpa.spec.EntityMappings;
 import io.github.jeddict.jpa.spec.MappedSuperclass;
 import io.github.jeddict.jpa.spec.bean.BeanClass;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.orm.generator.compiler.CompilerConfigManager;
 import io.github.jeddict.orm.generator.compiler.InvalidDataException;
 import io.github.jeddict.orm.generator.spec.WritableSnippet;
 import io.github.jeddict.orm.generator.compiler.def.ClassDefSnippet;
@@ -40,8 +46,14 @@ import io.github.jeddict.orm.generator.compiler.def.ManagedClassDefSnippet;
 import io.github.jeddict.orm.generator.spec.ModuleGenerator;
 import io.github.jeddict.orm.generator.util.ClassType;
 import io.github.jeddict.orm.generator.util.ClassesRepository;
+import io.github.jeddict.orm.generator.util.GeneratedSourceWriter;
+import io.github.jeddict.orm.generator.util.GenerationManifest;
+import io.github.jeddict.jpa.modeler.source.generator.ui.GeneratorSettings;
 import io.github.jeddict.orm.generator.util.ORMConverterUtil;
+import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
+import org.openide.util.Exceptions;
+import org.openide.util.RequestProcessor;
 import org.openide.util.lookup.ServiceProvider;
 
 @ServiceProvider(service = ModuleGenerator.class)
@@ -51,7 +63,10 @@ public class ClassGeneratorService implements ModuleGenerator {
     private String packageName;
     private File destDir;
     private ITaskSupervisor task;
-    private final ClassesRepository classesRepository = ClassesRepository.getInstance();
+    private ClassesRepository classesRepository;
+    private List<ClassGenerationUnit> generationUnits;
+    private GenerationManifest generationManifest;
+    private GeneratedSourceWriter sourceWriter;
 
     @Override
     public void generate(ITaskSupervisor task, Project project, SourceGroup sourceGroup, EntityMappings entityMappings) {
@@ -60,44 +75,49 @@ public class ClassGeneratorService implements ModuleGenerator {
             this.task = task;
             destDir = FileUtil.toFile(sourceGroup.getRootFolder());
             this.packageName = entityMappings.getPackage();
+            this.generationUnits = new ArrayList<>();
+            this.generationManifest = CompilerConfigManager.getInstance().getCompilerConfig().getGenerationManifest();
+            this.sourceWriter = CompilerConfigManager.getInstance().getCompilerConfig().getSourceWriter();
+            this.classesRepository = CompilerConfigManager.getInstance().getCompilerConfig().getClassesRepository();
 
             generateMappedSuperClasses();
             generateEntityClasses();
             generateEmbededClasses();
             generateDefaultClasses();
             generateBeanClasses();
-        } catch (InvalidDataException | IOException ex) {
-            ExceptionUtils.printStackTrace(ex);
+
+            if (GeneratorSettings.isParallelGeneration() && generationUnits.size() > 1) {
+                generateParallel();
+            } else {
+                generateSequential();
+            }
+        } finally {
+            generationUnits = null;
+            generationManifest = null;
+            sourceWriter = null;
         }
     }
 
-    private void generateBeanClasses() throws InvalidDataException, IOException {
+    private void generateBeanClasses() {
         List<BeanClass> parsedBeanClasses = entityMappings.getBeanClass()
                 .stream()
                 .filter(e -> e.getGenerateSourceCode())
                 .collect(toList());
-        if(!parsedBeanClasses.isEmpty()){
-            task.log(Console.wrap("Generating Class : " , FG_DARK_RED, BOLD), true);
-        }
         for (BeanClass parsedBeanClasse : parsedBeanClasses) {
-            task.log(parsedBeanClasse.getClazz(), true);
-            ClassDefSnippet classDef = new BeanClassGenerator(parsedBeanClasse, packageName).getClassDef();
-            classDef.setJaxbSupport(entityMappings.getJaxbSupport());
-            classesRepository.addWritableSnippet(ClassType.DEFAULT_CLASS, classDef);
-            ORMConverterUtil.writeSnippet(classDef, destDir);
+            addGenerationUnit("Generating Class : ", parsedBeanClasse, ClassType.DEFAULT_CLASS, () -> {
+                ClassDefSnippet classDef = new BeanClassGenerator(parsedBeanClasse, packageName).getClassDef();
+                classDef.setJaxbSupport(entityMappings.getJaxbSupport());
+                return classDef;
+            }, null);
         }
     }
     
-    private void generateDefaultClasses() throws InvalidDataException, IOException {
+    private void generateDefaultClasses() {
         List<DefaultClass> parsedDefaultClasses = entityMappings.getDefaultClass()
                 .stream()
                 .filter(e -> e.getGenerateSourceCode())
                 .collect(toList());
-        if(!parsedDefaultClasses.isEmpty()){
-            task.log(Console.wrap("Generating IdClass/PrimaryKey Class : " , FG_DARK_RED, BOLD), true);
-        }
         for (DefaultClass parsedDefaultClasse : parsedDefaultClasses) {
-            task.log(parsedDefaultClasse.getClazz(), true);
             if (parsedDefaultClasse.isEmbeddable()) {
                 generateEmbededIdClasses(parsedDefaultClasse);
             } else {
@@ -106,70 +126,176 @@ public class ClassGeneratorService implements ModuleGenerator {
         }
     }
     
-    private void generateEmbededClasses() throws InvalidDataException, IOException {
+    private void generateEmbededClasses() {
         List<Embeddable> parsedEmbeddables = entityMappings.getEmbeddable()
                 .stream()
                 .filter(e -> e.getGenerateSourceCode())
                 .collect(toList());
-        if(!parsedEmbeddables.isEmpty()){
-            task.log(Console.wrap("Generating Embeddable Class : " , FG_DARK_RED, BOLD), true);
-        }
         for (Embeddable parsedEmbeddable : parsedEmbeddables) {
-            task.log(parsedEmbeddable.getClazz(), true);
-            ManagedClassDefSnippet classDef = new EmbeddableGenerator(parsedEmbeddable, packageName).getClassDef();
-            classDef.setJaxbSupport(entityMappings.getJaxbSupport());
-
-            classesRepository.addWritableSnippet(ClassType.EMBEDED_CLASS, classDef);
-            parsedEmbeddable.setFileObject(ORMConverterUtil.writeSnippet(classDef, destDir));
+            addGenerationUnit("Generating Embeddable Class : ", parsedEmbeddable, ClassType.EMBEDED_CLASS, () -> {
+                ManagedClassDefSnippet classDef = new EmbeddableGenerator(parsedEmbeddable, packageName).getClassDef();
+                classDef.setJaxbSupport(entityMappings.getJaxbSupport());
+                return classDef;
+            }, parsedEmbeddable::setFileObject);
         }
     }
 
-    private void generateEntityClasses() throws InvalidDataException, IOException {
+    private void generateEntityClasses() {
         List<Entity> parsedEntities = entityMappings.getEntity()
                 .stream()
                 .filter(e -> e.getGenerateSourceCode())
                 .collect(toList());
-        if(!parsedEntities.isEmpty()){
-            task.log(Console.wrap("Generating Entity Class : " , FG_DARK_RED, BOLD), true);
-        }
         for (Entity parsedEntity : parsedEntities) {
-            task.log(parsedEntity.getClazz(), true);
-            ManagedClassDefSnippet classDef = new EntityGenerator(parsedEntity, packageName).getClassDef();
-            classDef.setJaxbSupport(entityMappings.getJaxbSupport());
-
-            classesRepository.addWritableSnippet(ClassType.ENTITY_CLASS, classDef);
-            parsedEntity.setFileObject(ORMConverterUtil.writeSnippet(classDef, destDir));
+            addGenerationUnit("Generating Entity Class : ", parsedEntity, ClassType.ENTITY_CLASS, () -> {
+                ManagedClassDefSnippet classDef = new EntityGenerator(parsedEntity, packageName).getClassDef();
+                classDef.setJaxbSupport(entityMappings.getJaxbSupport());
+                return classDef;
+            }, parsedEntity::setFileObject);
         }
     }
 
-    private void generateMappedSuperClasses() throws InvalidDataException, IOException {
+    private void generateMappedSuperClasses() {
         List<MappedSuperclass> parsedMappedSuperclasses = entityMappings.getMappedSuperclass()
                 .stream()
                 .filter(e -> e.getGenerateSourceCode())
                 .collect(toList());
-        if(!parsedMappedSuperclasses.isEmpty()){
-        task.log(Console.wrap("Generating MappedSuperclass Class : " , FG_DARK_RED, BOLD), true);
-        }
         for (MappedSuperclass parsedMappedSuperclass : parsedMappedSuperclasses) {
-            task.log(parsedMappedSuperclass.getClazz(), true);
-            ManagedClassDefSnippet classDef = new MappedSuperClassGenerator(parsedMappedSuperclass, packageName).getClassDef();
-            classDef.setJaxbSupport(entityMappings.getJaxbSupport());
+            addGenerationUnit("Generating MappedSuperclass Class : ", parsedMappedSuperclass, ClassType.SUPER_CLASS, () -> {
+                ManagedClassDefSnippet classDef = new MappedSuperClassGenerator(parsedMappedSuperclass, packageName).getClassDef();
+                classDef.setJaxbSupport(entityMappings.getJaxbSupport());
+                return classDef;
+            }, parsedMappedSuperclass::setFileObject);
+        }
+    }
+
+    private void generateEmbededIdClasses(DefaultClass defaultClass) {
+        addGenerationUnit("Generating IdClass/PrimaryKey Class : ", defaultClass, ClassType.EMBEDED_CLASS,
+                () -> new EmbeddableIdClassGenerator(defaultClass, packageName).getClassDef(), null);
+    }
+
+    private void generateIdClasses(DefaultClass defaultClass) {
+        addGenerationUnit("Generating IdClass/PrimaryKey Class : ", defaultClass, ClassType.DEFAULT_CLASS,
+                () -> new DefaultClassGenerator(defaultClass, packageName).getClassDef(), null);
+    }
+
+    private void addGenerationUnit(String header, JavaClass javaClass, ClassType classType,
+            Supplier<ClassDefSnippet> builder, Consumer<FileObject> fileObjectHandler) {
+        String fingerprint = generationManifest != null ? generationManifest.fingerprint(javaClass) : null;
+        generationUnits.add(new ClassGenerationUnit(header, javaClass, classType, fingerprint, builder, fileObjectHandler));
+    }
+
+    /**
+     * Builds, renders and writes the classes one by one.
+     */
+    private void generateSequential() {
+        String header = null;
+        for (ClassGenerationUnit unit : generationUnits) {
+            header = log(unit, header);
+            write(unit, render(unit));
+        }
+    }
+
+    /**
+     * Builds and renders the classes on a bounded worker pool, then registers
+     * and writes them on the calling thread in the same order as the
+     * sequential mode, so the generated sources and the console output are
+     * identical.
+     *
+     * Class builders only read the spec model, the single ordering constraint
+     * is that a class is built after its super class (if generated in the same
+     * session), as the builder of the sub class walks the inherited members.
+     * A failure of the super class fails its sub classes as well, like in the
+     * sequential mode.
+     */
+    private void generateParallel() {
+        RequestProcessor processor = new RequestProcessor("jpa/ClassGenerator", GeneratorSettings.getGenerationThreads()); // NOI18N
+        try {
+            Map<JavaClass, CompletableFuture<RenderedClass>> futures = new IdentityHashMap<>();
+            for (ClassGenerationUnit unit : generationUnits) {
+                futures.put(unit.javaClass, new CompletableFuture<>());
+            }
+            for (ClassGenerationUnit unit : generationUnits) {
+                CompletableFuture<RenderedClass> future = futures.get(unit.javaClass);
+                CompletableFuture<RenderedClass> superFuture = unit.javaClass.getSuperclass() != null
+                        ? futures.get(unit.javaClass.getSuperclass()) : null;
+                CompletableFuture<?> dependency = superFuture != null ? superFuture : CompletableFuture.completedFuture(null);
+                dependency
+                        .thenApplyAsync(result -> render(unit), processor)
+                        .whenComplete((result, error) -> {
+                            if (error != null) {
+                                future.completeExceptionally(error);
+                            } else {
+                                future.complete(result);
+                            }
+                        });
+            }
+
+            String header = null;
+            for (ClassGenerationUnit unit : generationUnits) {
+                header = log(unit, header);
+                write(unit, join(futures.get(unit.javaClass)));
+            }
+        } finally {
+            processor.shutdown();
+        }
+    }
+
+    /**
+     * Builds the class and renders its source, unless the source generated
+     * previously is up to date in incremental mode.
+     */
+    private RenderedClass render(ClassGenerationUnit unit) {
+        ClassDefSnippet classDef = unit.builder.get();
+        if (generationManifest != null && generationManifest.isUpToDate(classDef, unit.fingerprint)) {
+            return new RenderedClass(classDef, null, true, null);
+        }
+        try {
+            return new RenderedClass(classDef, ORMConverterUtil.getFormattedSnippet(classDef), false, null);
+        } catch (InvalidDataException ex) {
+            if (ex.getCause() != null) {
+                Exceptions.printStackTrace(ex);
+            }
+            return new RenderedClass(classDef, null, false, ex.getMessage());
+        }
+    }
 
-            classesRepository.addWritableSnippet(ClassType.SUPER_CLASS, classDef);
-            parsedMappedSuperclass.setFileObject(ORMConverterUtil.writeSnippet(classDef, destDir));
+    private void write(ClassGenerationUnit unit, RenderedClass renderedClass) {
+        classesRepository.addWritableSnippet(unit.classType, renderedClass.classDef);
+        if (renderedClass.upToDate) {
+            unit.handleFileObject(FileUtil.toFileObject(ORMConverterUtil.getSourceFile(renderedClass.classDef, destDir)));
+        } else if (renderedClass.content != null) {
+            sourceWriter.write(renderedClass.classDef, renderedClass.content, destDir, unit.fileObjectHandler);
+        } else {
+            if (renderedClass.error != null) {
+                task.log(Console.wrap(renderedClass.error, FG_DARK_RED), true);
+            }
+            return; // rendering failed, class must be generated again next time
+        }
+        if (generationManifest != null) {
+            generationManifest.record(unit.javaClass, renderedClass.classDef, unit.fingerprint);
         }
     }
 
-    private void generateEmbededIdClasses(DefaultClass defaultClass) throws InvalidDataException, IOException {
-        ClassDefSnippet classDef = new EmbeddableIdClassGenerator(defaultClass, packageName).getClassDef();
-        classesRepository.addWritableSnippet(ClassType.EMBEDED_CLASS, classDef);
-        ORMConverterUtil.writeSnippet(classDef, destDir);
+    private RenderedClass join(CompletableFuture<RenderedClass> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
     }
 
-    private void generateIdClasses(DefaultClass defaultClass) throws InvalidDataException, IOException {
-        ClassDefSnippet classDef = new DefaultClassGenerator(defaultClass, packageName).getClassDef();
-        classesRepository.addWritableSnippet(ClassType.DEFAULT_CLASS, classDef);
-        ORMConverterUtil.writeSnippet(classDef, destDir);
+    private String log(ClassGenerationUnit unit, String previousHeader) {
+        if (!unit.header.equals(previousHeader)) {
+            task.log(Console.wrap(unit.header, FG_DARK_RED, BOLD), true);
+        }
+        task.log(unit.javaClass.getClazz(), true);
+        return unit.header;
     }
 
     private List<ClassDefSnippet> getPUXMLEntries() {
@@ -181,4 +307,45 @@ public class ClassGeneratorService implements ModuleGenerator {
         return classDefs;
     }
 
+    private static class ClassGenerationUnit {
+
+        private final String header;
+        private final JavaClass javaClass;
+        private final ClassType classType;
+        private final String fingerprint;
+        private final Supplier<ClassDefSnippet> builder;
+        private final Consumer<FileObject> fileObjectHandler;
+
+        private ClassGenerationUnit(String header, JavaClass javaClass, ClassType classType, String fingerprint,
+                Supplier<ClassDefSnippet> builder, Consumer<FileObject> fileObjectHandler) {
+            this.header = header;
+            this.javaClass = javaClass;
+            this.classType = classType;
+            this.fingerprint = fingerprint;
+            this.builder = builder;
+            this.fileObjectHandler = fileObjectHandler;
+        }
+
+        private void handleFileObject(FileObject fileObject) {
+            if (fileObjectHandler != null) {
+                fileObjectHandler.accept(fileObject);
+            }
+        }
+    }
+
+    private static class RenderedClass {
+
+        private final ClassDefSnippet classDef;
+        private final String content;
+        private final boolean upToDate;
+        private final String error;
+
+        private RenderedClass(ClassDefSnippet classDef, String content, boolean upToDate, String error) {
+            this.classDef = classDef;
+            this.content = content;
+            this.upToDate = upToDate;
+            this.error = error;
+        }
+    }
+
 }
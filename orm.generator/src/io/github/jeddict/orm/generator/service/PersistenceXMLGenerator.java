@@ -16,7 +16,9 @@
 package io.github.jeddict.orm.generator.service;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import static java.util.stream.Collectors.toList;
@@ -24,6 +26,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.netbeans.api.project.Project;
 import org.netbeans.api.project.SourceGroup;
 import io.github.jeddict.jcode.jpa.PersistenceProviderType;
+import io.github.jeddict.jpa.modeler.properties.idgeneration.BatchInsertReadiness;
+import io.github.jeddict.jpa.modeler.properties.persistence.PerformanceProfile;
 import static io.github.jeddict.jpa.util.PersistenceHelper.JTA_VALUE;
 import static io.github.jeddict.jpa.util.PersistenceHelper.RESOURCE_LOCAL_VALUE;
 import io.github.jeddict.jpa.spec.EntityMappings;
@@ -130,13 +134,102 @@ public class PersistenceXMLGenerator {
                 pud.addPersistenceUnit(punit);
 
             }
+            String provider = StringUtils.defaultIfEmpty(punit.getProvider(), puProvider);
+            PerformanceProfile profile = PerformanceProfile.getProfile(project, puName);
+            PerformanceProfile appliedProfile = PerformanceProfile.getAppliedProfile(project, puName);
+            if (appliedProfile != null && appliedProfile != profile) {
+                removePerformanceProfile(punit, appliedProfile, provider, version);
+            }
+            Map<String, String> tunedProperties = new LinkedHashMap<>();
+            if (profile != null) {
+                tunedProperties.putAll(profile.getProperties(provider));
+                if (!Persistence.VERSION_1_0.equals(version)) {
+                    punit.setSharedCacheMode(profile.getSharedCacheMode());
+                }
+            }
+            int batchSize = BatchInsertReadiness.getBatchSize(project);
+            if (batchSize > 0) {
+                // the batch size chosen for the model overrides the profile one
+                tunedProperties.putAll(getBatchingProperties(provider, batchSize));
+            }
+            setProperties(punit, tunedProperties);
             for (String entityClass : classNames) { // run for both exist & non-exist-persistence
                 pud.addClass(punit, entityClass, false);
             }
             pud.save();
+            PerformanceProfile.setAppliedProfile(project, puName, profile);
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "compiler_error", ex);
         }
     }
 
+    /**
+     * Removes the properties and shared-cache-mode applied by the profile,
+     * except those edited since.
+     */
+    private void removePerformanceProfile(PersistenceUnit punit, PerformanceProfile profile,
+            String provider, String version) throws Exception {
+        Map<String, String> profileProperties = profile.getProperties(provider);
+        Properties properties = punit.getProperties();
+        if (properties != null) {
+            for (Property property : properties.getProperty2()) {
+                if (StringUtils.equals(profileProperties.get(property.getName()), property.getValue())) {
+                    properties.removeProperty2(property);
+                }
+            }
+        }
+        if (!Persistence.VERSION_1_0.equals(version)
+                && profile.getSharedCacheMode().equals(punit.getSharedCacheMode())) {
+            punit.setSharedCacheMode(null);
+        }
+    }
+
+    /**
+     * @return the JDBC insert batching properties of the provider
+     */
+    private static Map<String, String> getBatchingProperties(String provider, int batchSize) {
+        Map<String, String> batchingProperties = new LinkedHashMap<>();
+        if (provider.startsWith("org.eclipse.persistence")) {
+            batchingProperties.put("eclipselink.jdbc.batch-writing", "JDBC");
+            batchingProperties.put("eclipselink.jdbc.batch-writing.size", String.valueOf(batchSize));
+        } else if (provider.startsWith("org.hibernate")) {
+            batchingProperties.put("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+            batchingProperties.put("hibernate.order_inserts", "true");
+            batchingProperties.put("hibernate.order_updates", "true");
+        } else if (provider.startsWith("org.apache.openjpa")) {
+            batchingProperties.put("openjpa.jdbc.DBDictionary", "batchLimit=" + batchSize);
+        } else if (provider.startsWith("org.datanucleus")) {
+            batchingProperties.put("datanucleus.rdbms.statementBatchLimit", String.valueOf(batchSize));
+        }
+        return batchingProperties;
+    }
+
+    /**
+     * Sets the values of the properties in the persistence unit, adding the
+     * missing ones.
+     */
+    private void setProperties(PersistenceUnit punit, Map<String, String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        Map<String, String> missingValues = new LinkedHashMap<>(values);
+        Properties properties = punit.getProperties();
+        if (properties == null) {
+            properties = punit.newProperties();
+            punit.setProperties(properties);
+        }
+        for (Property property : properties.getProperty2()) {
+            String value = missingValues.remove(property.getName());
+            if (value != null) {
+                property.setValue(value);
+            }
+        }
+        for (Map.Entry<String, String> value : missingValues.entrySet()) {
+            Property property = properties.newProperty();
+            property.setName(value.getKey());
+            property.setValue(value.getValue());
+            properties.addProperty2(property);
+        }
+    }
+
 }
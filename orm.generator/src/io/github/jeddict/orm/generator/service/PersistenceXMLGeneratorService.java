@@ -21,6 +21,7 @@ import org.netbeans.api.project.Project;
 import org.netbeans.api.project.SourceGroup;
 import io.github.jeddict.jcode.task.ITaskSupervisor;
 import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.orm.generator.compiler.CompilerConfigManager;
 import io.github.jeddict.orm.generator.spec.WritableSnippet;
 import io.github.jeddict.orm.generator.compiler.def.ClassDefSnippet;
 import io.github.jeddict.orm.generator.spec.ModuleGenerator;
@@ -31,11 +32,12 @@ import io.github.jeddict.orm.generator.util.ClassesRepository;
 public class PersistenceXMLGeneratorService implements ModuleGenerator {
 
     private EntityMappings entityMappings;//Required Generation based on inheritance means if any entity metamodel is generated then its super class metamodel must be generated either user want or not .
-    private final ClassesRepository classesRepository = ClassesRepository.getInstance();
+    private ClassesRepository classesRepository;
 
     @Override
     public void generate(ITaskSupervisor task, Project project, SourceGroup sourceGroup, EntityMappings entityMappings) {
         this.entityMappings = entityMappings;
+        this.classesRepository = CompilerConfigManager.getInstance().getCompilerConfig().getClassesRepository();
         generatePersistenceXML(project, sourceGroup);
     }
 
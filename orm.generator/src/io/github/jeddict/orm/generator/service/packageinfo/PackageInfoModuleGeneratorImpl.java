@@ -17,12 +17,12 @@ package io.github.jeddict.orm.generator.service.packageinfo;
 
 import io.github.jeddict.collaborate.issues.ExceptionUtils;
 import java.io.File;
-import java.io.IOException;
 import org.apache.commons.lang3.StringUtils;
 import org.netbeans.api.project.Project;
 import org.netbeans.api.project.SourceGroup;
 import io.github.jeddict.jcode.task.ITaskSupervisor;
 import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.orm.generator.compiler.CompilerConfigManager;
 import io.github.jeddict.orm.generator.compiler.InvalidDataException;
 import io.github.jeddict.orm.generator.compiler.def.ClassDefSnippet;
 import io.github.jeddict.orm.generator.spec.ModuleGenerator;
@@ -35,7 +35,7 @@ import org.openide.util.lookup.ServiceProvider;
 @ServiceProvider(service = ModuleGenerator.class)
 public class PackageInfoModuleGeneratorImpl implements ModuleGenerator {
 
-    private final ClassesRepository classesRepository = ClassesRepository.getInstance();
+    private ClassesRepository classesRepository;
     private String packageName;
     private File destDir;
 
@@ -43,6 +43,7 @@ public class PackageInfoModuleGeneratorImpl implements ModuleGenerator {
     public void generate(ITaskSupervisor task, Project project, SourceGroup sourceGroup, EntityMappings entityMappings) {
         destDir = FileUtil.toFile(sourceGroup.getRootFolder());
         this.packageName = entityMappings.getPackage();
+        this.classesRepository = CompilerConfigManager.getInstance().getCompilerConfig().getClassesRepository();
         try {
             if (StringUtils.isBlank(entityMappings.getJaxbNameSpace())
                     && !entityMappings.isJsonbPackageInfoExist()) {
@@ -52,8 +53,9 @@ public class PackageInfoModuleGeneratorImpl implements ModuleGenerator {
             ClassDefSnippet packageInfoDef = packageInfoGenerator.getClassDef();
             classesRepository.addWritableSnippet(ClassType.JAXB_PACKAGE_INFO, packageInfoDef);
             task.log("Generating package-info.java", true);
-            ORMConverterUtil.writeSnippet(packageInfoDef, destDir);
-        } catch (InvalidDataException | IOException ex) {
+            CompilerConfigManager.getInstance().getCompilerConfig().getSourceWriter()
+                    .write(packageInfoDef, ORMConverterUtil.getFormattedSnippet(packageInfoDef), destDir, null);
+        } catch (InvalidDataException ex) {
             ExceptionUtils.printStackTrace(ex);
         }
     }
@@ -17,7 +17,6 @@ package io.github.jeddict.orm.generator.service.staticmetamodel;
 
 import io.github.jeddict.collaborate.issues.ExceptionUtils;
 import java.io.File;
-import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import org.netbeans.api.project.Project;
@@ -30,12 +29,15 @@ import io.github.jeddict.jcode.task.ITaskSupervisor;
 import io.github.jeddict.jpa.spec.EntityMappings;
 import io.github.jeddict.jpa.spec.ManagedClass;
 import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.orm.generator.compiler.CompilerConfigManager;
 import io.github.jeddict.orm.generator.compiler.InvalidDataException;
 import io.github.jeddict.orm.generator.compiler.def.ClassDefSnippet;
 import io.github.jeddict.orm.generator.spec.ModuleGenerator;
 import io.github.jeddict.orm.generator.util.ClassType;
 import io.github.jeddict.orm.generator.util.ClassesRepository;
-import io.github.jeddict.orm.generator.util.ORMConverterUtil;
+import io.github.jeddict.orm.generator.util.GeneratedSourceWriter;
+import io.github.jeddict.orm.generator.util.GenerationManifest;
+import static io.github.jeddict.orm.generator.util.ORMConverterUtil.getFormattedSnippet;
 import org.openide.filesystems.FileUtil;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -44,10 +46,12 @@ public class StaticModelModuleGeneratorImpl implements ModuleGenerator {
 
     private Set<StaticMetamodelGenerator> staticMetamodelClass;//Required Generation based on inheritance means if any entity metamodel is generated then its super class metamodel must be generated either user want or not .
     private io.github.jeddict.jcode.task.ITaskSupervisor task;
-    private final ClassesRepository classesRepository = ClassesRepository.getInstance();
+    private ClassesRepository classesRepository;
     private String packageName;
     private String entityPackageName;
     private File destDir;
+    private GenerationManifest generationManifest;
+    private GeneratedSourceWriter sourceWriter;
 
     @Override
     public void generate(ITaskSupervisor task, Project project, SourceGroup sourceGroup, EntityMappings entityMappings) {
@@ -57,28 +61,27 @@ public class StaticModelModuleGeneratorImpl implements ModuleGenerator {
         this.staticMetamodelClass = new HashSet<>();
         this.task = task;
         destDir = FileUtil.toFile(sourceGroup.getRootFolder());
+        this.generationManifest = CompilerConfigManager.getInstance().getCompilerConfig().getGenerationManifest();
+        this.sourceWriter = CompilerConfigManager.getInstance().getCompilerConfig().getSourceWriter();
+        this.classesRepository = CompilerConfigManager.getInstance().getCompilerConfig().getClassesRepository();
         this.entityPackageName = entityMappings.getPackage();
         this.packageName = entityMappings.getProjectPackage() + '.' + entityMappings.getStaticMetamodelPackage();
         if(!JavaSourceHelper.isValidPackageName(packageName)){
             this.packageName = entityPackageName;
         }
         task.log(Console.wrap("Generating StaticModel Class : " , FG_DARK_RED, BOLD), true);
-        try {
-            for (JavaClass javaClass : entityMappings.getJavaClass()) {
-                    generateStaticMetamodel((ManagedClass) javaClass);
-            }
-            flushStaticMetamodel();
-        } catch (InvalidDataException | IOException ex) {
-            ExceptionUtils.printStackTrace(ex);
+        for (JavaClass javaClass : entityMappings.getJavaClass()) {
+                generateStaticMetamodel((ManagedClass) javaClass);
         }
+        flushStaticMetamodel();
     }
 
-    private void generateStaticMetamodel(ManagedClass managedClass) throws InvalidDataException, IOException {
+    private void generateStaticMetamodel(ManagedClass managedClass) {
             StaticMetamodelGenerator staticMetamodel = new StaticMetamodelGenerator(managedClass, entityPackageName, packageName);
             ClassDefSnippet staticMetamodelClassDef = staticMetamodel.getClassDef();
             classesRepository.addWritableSnippet(ClassType.STATIC_METAMODEL_CLASS, staticMetamodelClassDef);
             task.log(managedClass.getClazz() + "_", true);
-            ORMConverterUtil.writeSnippet(staticMetamodelClassDef, destDir);
+            writeSnippet(managedClass, staticMetamodelClassDef);
 
             if (staticMetamodelClass.contains(staticMetamodel)) {
                 staticMetamodelClass.remove(staticMetamodel);
@@ -89,18 +92,20 @@ public class StaticModelModuleGeneratorImpl implements ModuleGenerator {
             }
     }
 
-    private void flushStaticMetamodel() throws InvalidDataException, IOException {
+    private void flushStaticMetamodel() {
         for (StaticMetamodelGenerator staticMetamodel : staticMetamodelClass) {
             flushStaticMetamodel(staticMetamodel);
         }
         staticMetamodelClass = null;
     }
 
-    private void flushStaticMetamodel(StaticMetamodelGenerator staticMetamodel) throws InvalidDataException, IOException {
+    private void flushStaticMetamodel(StaticMetamodelGenerator staticMetamodel) {
         ClassDefSnippet staticMetamodelClassDef = staticMetamodel.getClassDef();
-        classesRepository.addWritableSnippet(ClassType.STATIC_METAMODEL_CLASS, staticMetamodelClassDef);
-        task.log(staticMetamodel.getManagedClass().getClazz(), true);
-        ORMConverterUtil.writeSnippet(staticMetamodelClassDef, destDir);
+        if (classesRepository.getWritableSnippet(staticMetamodelClassDef.getClassHelper()) == null) { // not generated by the first pass
+            classesRepository.addWritableSnippet(ClassType.STATIC_METAMODEL_CLASS, staticMetamodelClassDef);
+            task.log(staticMetamodel.getManagedClass().getClazz(), true);
+            writeSnippet(staticMetamodel.getManagedClass(), staticMetamodelClassDef);
+        }
 
         if (staticMetamodel.getManagedClass().getSuperclass() != null) {
             StaticMetamodelGenerator staticMetamodelSuperClass = new StaticMetamodelGenerator((ManagedClass) staticMetamodel.getManagedClass().getSuperclass(), entityPackageName, packageName);
@@ -108,4 +113,19 @@ public class StaticModelModuleGeneratorImpl implements ModuleGenerator {
         }
     }
 
+    private void writeSnippet(ManagedClass managedClass, ClassDefSnippet staticMetamodelClassDef) {
+        String fingerprint = generationManifest != null ? generationManifest.fingerprint(managedClass) : null;
+        if (generationManifest == null || !generationManifest.isUpToDate(staticMetamodelClassDef, fingerprint)) {
+            try {
+                sourceWriter.write(staticMetamodelClassDef, getFormattedSnippet(staticMetamodelClassDef), destDir, null);
+            } catch (InvalidDataException ex) {
+                ExceptionUtils.printStackTrace(ex);
+                return;
+            }
+        }
+        if (generationManifest != null) {
+            generationManifest.record(managedClass, staticMetamodelClassDef, fingerprint);
+        }
+    }
+
 }
@@ -16,82 +16,98 @@
 package io.github.jeddict.orm.generator.util;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import io.github.jeddict.orm.generator.compiler.CompilerConfigManager;
 import io.github.jeddict.orm.generator.spec.WritableSnippet;
 
+/**
+ * Snippets generated in a generation session, indexed by class type (in
+ * registration order) and by fully qualified class name. The repository may
+ * be populated concurrently by the generation workers.
+ */
 public class ClassesRepository {
 
-    private static ClassesRepository instance = new ClassesRepository();
+    private final Map<ClassType, Queue<WritableSnippet>> snippetsByType
+            = new ConcurrentHashMap<>();
 
-    private Map<ClassType, List<WritableSnippet>> repository
-            = new HashMap<>();
+    private final Map<String, WritableSnippet> snippetsByName
+            = new ConcurrentHashMap<>();
 
-    private ClassesRepository() {
-    }
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
+    /**
+     * @return the repository of the current generation session
+     * @deprecated the repository is scoped to the generation session, use
+     * {@code CompilerConfigManager.getInstance().getCompilerConfig().getClassesRepository()}
+     */
+    @Deprecated
     public static ClassesRepository getInstance() {
-        return instance;
+        return CompilerConfigManager.getInstance().getCompilerConfig().getClassesRepository();
     }
 
     public void addWritableSnippet(
             ClassType classType, WritableSnippet writableSnippet) {
 
-        List<WritableSnippet> writableSnippets = repository.get(classType);
-
-        if (writableSnippets == null) {
-            writableSnippets = new ArrayList<>();
+        snippetsByType.computeIfAbsent(classType, type -> new ConcurrentLinkedQueue<>())
+                .add(writableSnippet);
+        String fqClassName = writableSnippet.getClassHelper().getFQClassName();
+        if (fqClassName != null) {
+            snippetsByName.putIfAbsent(fqClassName, writableSnippet);
         }
-
-        writableSnippets.add(writableSnippet);
-
-        repository.put(classType, writableSnippets);
     }
 
     public void clear() {
-        repository = new HashMap<>();
+        snippetsByType.clear();
+        snippetsByName.clear();
+        lookups.reset();
+        misses.reset();
     }
 
     public WritableSnippet getWritableSnippet(ClassHelper classHelper) {
+        return getWritableSnippet(classHelper.getFQClassName());
+    }
 
-        for (List<WritableSnippet> values : repository.values()) {
-
-            WritableSnippet writableSnippet = searchSnippet(
-                    values, classHelper);
-
-            if (writableSnippet != null) {
-                return writableSnippet;
-            }
+    public WritableSnippet getWritableSnippet(String fqClassName) {
+        lookups.increment();
+        WritableSnippet writableSnippet = fqClassName != null ? snippetsByName.get(fqClassName) : null;
+        if (writableSnippet == null) {
+            misses.increment();
         }
-
-        return null;
+        return writableSnippet;
     }
 
+    /**
+     * @param classType the type of the snippets
+     * @return a snapshot of the snippets of the type, in registration order
+     */
     public List<WritableSnippet> getWritableSnippets(ClassType classType) {
-        List<WritableSnippet> writableSnippets = repository.get(classType);
+        Collection<WritableSnippet> writableSnippets = snippetsByType.get(classType);
 
         if (writableSnippets == null) {
             return new ArrayList<>();
         }
 
-        return writableSnippets;
+        return new ArrayList<>(writableSnippets);
     }
 
-    private WritableSnippet searchSnippet(
-            List<WritableSnippet> writableSnippets, ClassHelper classHelper) {
-
-        for (WritableSnippet writableSnippet : writableSnippets) {
-
-            ClassHelper snippetClassHelper = writableSnippet.getClassHelper();
-
-            if (snippetClassHelper.getFQClassName().equals(
-                    classHelper.getFQClassName())) {
-
-                return writableSnippet;
-            }
-        }
+    /**
+     * @return the number of lookups by class name
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
 
-        return null;
+    /**
+     * @return the number of lookups by class name without result
+     */
+    public long getMissCount() {
+        return misses.sum();
     }
 }
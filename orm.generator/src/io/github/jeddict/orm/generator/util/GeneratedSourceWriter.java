@@ -0,0 +1,165 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.orm.generator.util;
+
+import io.github.jeddict.orm.generator.spec.WritableSnippet;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileSystem;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Write-behind output stage of a generation session: the rendered sources are
+ * queued and written by a single writer thread through NIO channels, the
+ * sources whose bytes are unchanged on disk are not rewritten.
+ *
+ * The IDE file system is not involved while writing, on {@link #close()} the
+ * folders of the changed sources are refreshed at once inside an atomic
+ * action, so the IDE receives one consolidated set of events.
+ */
+public class GeneratedSourceWriter {
+
+    private static final Logger LOG = ORMConvLogger.getLogger(GeneratedSourceWriter.class);
+    private static final PendingSource END = new PendingSource(null, null, null);
+
+    private final BlockingQueue<PendingSource> queue = new LinkedBlockingQueue<>();
+    private final List<PendingSource> writtenSources = new ArrayList<>();
+    private final RequestProcessor processor = new RequestProcessor("jpa/SourceWriter", 1); // NOI18N
+    private final RequestProcessor.Task writerTask;
+    private final Charset charset = Charset.defaultCharset();
+    private IOException failure;
+    private int unchanged;
+
+    public GeneratedSourceWriter() {
+        writerTask = processor.post(this::drain);
+    }
+
+    /**
+     * Queues the source of the snippet.
+     *
+     * @param writableSnippet the snippet defining the location of the source
+     * @param content the formatted source
+     * @param destDir the source root
+     * @param fileObjectHandler notified with the file of the source once
+     * written and refreshed, may be null
+     */
+    public void write(WritableSnippet writableSnippet, String content, File destDir, Consumer<FileObject> fileObjectHandler) {
+        queue.add(new PendingSource(ORMConverterUtil.getSourceFile(writableSnippet, destDir), content, fileObjectHandler));
+    }
+
+    /**
+     * Waits for the queued sources to be written, refreshes the changed ones
+     * and notifies the handlers.
+     *
+     * @throws IOException the first failure of the writer, the other sources
+     * are written anyway
+     */
+    public void close() throws IOException {
+        queue.add(END);
+        writerTask.waitFinished();
+        processor.shutdown();
+        FileUtil.runAtomicAction((FileSystem.AtomicAction) () -> {
+            Set<File> changedFolders = new LinkedHashSet<>();
+            for (PendingSource source : writtenSources) {
+                if (source.changed) {
+                    changedFolders.add(source.file.getParentFile());
+                }
+            }
+            FileUtil.refreshFor(changedFolders.toArray(new File[changedFolders.size()]));
+            for (PendingSource source : writtenSources) {
+                if (source.fileObjectHandler != null) {
+                    source.fileObjectHandler.accept(FileUtil.toFileObject(source.file));
+                }
+            }
+        });
+        LOG.log(Level.FINE, "{0} generated sources written, {1} unchanged",
+                new Object[]{writtenSources.size() - unchanged, unchanged});
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drain() {
+        try {
+            for (PendingSource source = queue.take(); source != END; source = queue.take()) {
+                try {
+                    source.changed = writeIfChanged(source.file, source.content.getBytes(charset));
+                    if (!source.changed) {
+                        unchanged++;
+                    }
+                    writtenSources.add(source);
+                } catch (IOException ex) {
+                    if (failure == null) {
+                        failure = ex;
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean writeIfChanged(File file, byte[] content) throws IOException {
+        Path path = file.toPath();
+        if (file.isFile() && file.length() == content.length
+                && Arrays.equals(Files.readAllBytes(path), content)) {
+            return false;
+        }
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return true;
+    }
+
+    private static class PendingSource {
+
+        private final File file;
+        private final String content;
+        private final Consumer<FileObject> fileObjectHandler;
+        private boolean changed;
+
+        private PendingSource(File file, String content, Consumer<FileObject> fileObjectHandler) {
+            this.file = file;
+            this.content = content;
+            this.fileObjectHandler = fileObjectHandler;
+        }
+    }
+
+}
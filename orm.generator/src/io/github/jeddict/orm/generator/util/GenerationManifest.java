@@ -0,0 +1,361 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.orm.generator.util;
+
+import io.github.jeddict.jcode.util.JavaSourceHelper;
+import io.github.jeddict.jpa.modeler.source.generator.ui.GeneratorSettings;
+import io.github.jeddict.jpa.spec.DefaultAttribute;
+import io.github.jeddict.jpa.spec.Entity;
+import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.IdentifiableClass;
+import io.github.jeddict.jpa.spec.bean.AssociationAttribute;
+import io.github.jeddict.jpa.spec.extend.Attribute;
+import io.github.jeddict.jpa.spec.extend.CompositionAttribute;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.jpa.spec.extend.RelationAttribute;
+import io.github.jeddict.orm.generator.spec.WritableSnippet;
+import io.github.jeddict.settings.code.CodePanel;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import org.netbeans.api.project.Project;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.modules.ModuleInfo;
+import org.openide.modules.Modules;
+
+/**
+ * Fingerprints of the classes generated from a modeler file, stored next to
+ * the .jpa file, used by the incremental generation mode to skip rendering
+ * and writing the classes whose spec and generator settings are unchanged
+ * since the previous generation.
+ *
+ * The fingerprint of a class covers its own spec, the spec of its super
+ * classes and of the classes they refer to (relation targets, embeddables,
+ * composite primary key class, owners of the connected attributes), the
+ * generator settings, formatter, templates and version and the names of all
+ * classes of the model.
+ *
+ * The paths are stored relative to the project, so that the manifest remains
+ * valid for another checkout. The sources generated for the classes removed
+ * from the model are deleted on save.
+ */
+public class GenerationManifest {
+
+    private static final Logger LOG = ORMConvLogger.getLogger(GenerationManifest.class);
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    private static final String[] TEMPLATES = {"classtemplate.vm", "beanclasstemplate.vm", "jpatemplate.vm", // NOI18N
+        "package-info.vm", "staticmetamodel.vm"}; // NOI18N
+    private static JAXBContext SPEC_CONTEXT;
+    private static String GENERATOR_FINGERPRINT;
+
+    private final File manifestFile;
+    private final File destDir;
+    private final Path baseDir;
+    private final Properties previous = new Properties();
+    private final Properties current = new Properties();
+    private final Set<String> classNames = new HashSet<>();
+    private final Map<String, JavaClass> classesByName = new HashMap<>();
+    private Marshaller marshaller;
+    private String settingsFingerprint;
+
+    private GenerationManifest(File manifestFile, File destDir, File baseDir) {
+        this.manifestFile = manifestFile;
+        this.destDir = destDir;
+        this.baseDir = baseDir.toPath().toAbsolutePath();
+    }
+
+    /**
+     * @param modelerFileObject the .jpa file
+     * @param project the project the paths are relative to, if null the
+     * directory of the .jpa file
+     * @param entityMappings the model to generate
+     * @param destDir the source root of the generated classes
+     * @return the manifest of the previous generation, empty if the model was
+     * never generated in incremental mode
+     */
+    public static GenerationManifest load(FileObject modelerFileObject, Project project, EntityMappings entityMappings, File destDir) {
+        File modelerFile = FileUtil.toFile(modelerFileObject);
+        File manifestFile = new File(modelerFile.getParentFile(), '.' + modelerFile.getName() + MANIFEST_SUFFIX);
+        File projectDir = project != null ? FileUtil.toFile(project.getProjectDirectory()) : null;
+        GenerationManifest manifest = new GenerationManifest(manifestFile, destDir,
+                projectDir != null ? projectDir : modelerFile.getParentFile());
+        if (manifestFile.isFile()) {
+            try (InputStream stream = new FileInputStream(manifestFile)) {
+                manifest.previous.load(stream);
+            } catch (IOException ex) {
+                LOG.log(Level.INFO, "Unable to read generation manifest " + manifestFile, ex);
+                manifest.previous.clear();
+            }
+        }
+        Stream.<List<? extends JavaClass>>of(entityMappings.getEntity(), entityMappings.getMappedSuperclass(),
+                entityMappings.getEmbeddable(), entityMappings.getDefaultClass(), entityMappings.getBeanClass())
+                .flatMap(List::stream)
+                .forEach(javaClass -> {
+                    manifest.classNames.add(javaClass.getFQN());
+                    manifest.classesByName.put(javaClass.getClazz(), javaClass);
+                });
+        manifest.settingsFingerprint = manifest.getSettingsFingerprint(entityMappings);
+        return manifest;
+    }
+
+    /**
+     * Deletes the sources generated for the classes removed from the model,
+     * keeps the entries of the classes not generated this time, and writes
+     * the manifest.
+     */
+    public void save() {
+        for (String className : previous.stringPropertyNames()) {
+            if (current.containsKey(className)) {
+                continue;
+            }
+            String[] entry = previous.getProperty(className).split(" ", 3);
+            if (entry.length < 3 || classNames.contains(entry[1])) {
+                current.setProperty(className, previous.getProperty(className));
+            } else {
+                deleteSource(baseDir.resolve(entry[2]).toFile()); // absolute in the legacy entries
+            }
+        }
+        try (OutputStream stream = new FileOutputStream(manifestFile)) {
+            current.store(stream, "Jeddict generated classes fingerprint"); // NOI18N
+        } catch (IOException ex) {
+            LOG.log(Level.INFO, "Unable to write generation manifest " + manifestFile, ex);
+        }
+    }
+
+    /**
+     * @param javaClass the spec of the class
+     * @return the fingerprint or null if the spec can not be fingerprinted
+     */
+    public String fingerprint(JavaClass javaClass) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1"); // NOI18N
+            digest.update(settingsFingerprint.getBytes(StandardCharsets.UTF_8));
+            for (JavaClass clazz = javaClass; clazz != null; clazz = clazz.getSuperclass()) {
+                digest.update(marshal(clazz).getBytes(StandardCharsets.UTF_8));
+            }
+            for (JavaClass clazz : getReferencedClasses(javaClass)) {
+                digest.update(marshal(clazz).getBytes(StandardCharsets.UTF_8));
+            }
+            return String.format("%040x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException | JAXBException ex) {
+            LOG.log(Level.INFO, "Unable to fingerprint " + javaClass.getClazz(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * @param writableSnippet the class to generate
+     * @param fingerprint the current fingerprint of the class spec
+     * @return true if the class was generated with the same fingerprint and
+     * the generated source still exists
+     */
+    public boolean isUpToDate(WritableSnippet writableSnippet, String fingerprint) {
+        String entry = previous.getProperty(writableSnippet.getClassHelper().getFQClassName());
+        return fingerprint != null
+                && entry != null
+                && fingerprint.equals(entry.split(" ", 2)[0])
+                && ORMConverterUtil.getSourceFile(writableSnippet, destDir).isFile();
+    }
+
+    /**
+     * @param javaClass the spec the class is generated from
+     * @param writableSnippet the generated class
+     * @param fingerprint the fingerprint of the spec
+     */
+    public void record(JavaClass javaClass, WritableSnippet writableSnippet, String fingerprint) {
+        if (fingerprint != null) {
+            current.setProperty(writableSnippet.getClassHelper().getFQClassName(),
+                    fingerprint + ' ' + javaClass.getFQN() + ' ' + relativize(ORMConverterUtil.getSourceFile(writableSnippet, destDir)));
+        }
+    }
+
+    /**
+     * @return the classes, other than the class and its super classes, whose
+     * spec is rendered in the class
+     */
+    private Collection<JavaClass> getReferencedClasses(JavaClass javaClass) {
+        Set<JavaClass> referencedClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (JavaClass clazz = javaClass; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Attribute attribute : (List<Attribute>) clazz.getAttributes().getAllAttribute()) {
+                if (attribute instanceof RelationAttribute) {
+                    RelationAttribute relationAttribute = (RelationAttribute) attribute;
+                    referencedClasses.add(relationAttribute.getConnectedEntity());
+                    if (relationAttribute.getConnectedAttribute() != null) {
+                        referencedClasses.add(relationAttribute.getConnectedAttribute().getJavaClass());
+                    }
+                } else if (attribute instanceof CompositionAttribute) {
+                    referencedClasses.add(((CompositionAttribute) attribute).getConnectedClass());
+                } else if (attribute instanceof AssociationAttribute) {
+                    referencedClasses.add(((AssociationAttribute) attribute).getConnectedClass());
+                } else if (attribute instanceof DefaultAttribute && ((DefaultAttribute) attribute).getConnectedAttribute() != null) {
+                    referencedClasses.add(((DefaultAttribute) attribute).getConnectedAttribute().getJavaClass());
+                }
+            }
+            if (clazz instanceof IdentifiableClass) {
+                String compositePrimaryKeyClass = ((IdentifiableClass) clazz).getCompositePrimaryKeyClass();
+                if (compositePrimaryKeyClass != null) {
+                    referencedClasses.add(classesByName.get(compositePrimaryKeyClass));
+                }
+            }
+        }
+        for (JavaClass clazz = javaClass; clazz != null; clazz = clazz.getSuperclass()) {
+            referencedClasses.remove(clazz);
+        }
+        referencedClasses.remove(null);
+        return referencedClasses;
+    }
+
+    /**
+     * @return the path of the file relative to the project, with '/'
+     * separators
+     */
+    private String relativize(File file) {
+        return baseDir.relativize(file.toPath().toAbsolutePath()).toString().replace(File.separatorChar, '/');
+    }
+
+    private void deleteSource(File sourceFile) {
+        FileObject fileObject = FileUtil.toFileObject(FileUtil.normalizeFile(sourceFile));
+        if (fileObject != null) {
+            try {
+                fileObject.delete();
+            } catch (IOException ex) {
+                LOG.log(Level.INFO, "Unable to delete the source of a removed class " + sourceFile, ex);
+            }
+        }
+    }
+
+    private String getSettingsFingerprint(EntityMappings entityMappings) {
+        StringBuilder settings = new StringBuilder();
+        append(settings, relativize(destDir));
+        append(settings, getGeneratorFingerprint());
+        append(settings, GeneratorSettings.isEditorReformat());
+        append(settings, entityMappings.getPackage());
+        append(settings, entityMappings.getProjectPackage());
+        append(settings, entityMappings.getStaticMetamodelPackage());
+        append(settings, entityMappings.getJavaEEVersion());
+        append(settings, entityMappings.getJaxbSupport());
+        append(settings, entityMappings.getJaxbNameSpace());
+        append(settings, entityMappings.getJsonbDateFormat());
+        append(settings, entityMappings.getJsonbNumberFormat());
+        append(settings, entityMappings.getJsonbVisibility());
+        append(settings, entityMappings.getJsonbNillable());
+        entityMappings.getInterfaces().forEach(reference -> append(settings, reference));
+        entityMappings.getSnippets().forEach(snippet -> append(settings, snippet));
+        append(settings, CodePanel.isGenerateDefaultValue());
+        append(settings, CodePanel.isGenerateFluentAPI());
+        append(settings, CodePanel.getFluentAPIPrefix());
+        append(settings, CodePanel.isFluentAPIJavaDoc());
+        append(settings, CodePanel.isPropertyJavaDoc());
+        append(settings, CodePanel.isGetterJavaDoc());
+        append(settings, CodePanel.isSetterJavaDoc());
+        append(settings, CodePanel.isJavaSESupportEnable());
+        append(settings, CodePanel.isLazyDefaultTypeForSingleAssociation());
+        append(settings, JavaSourceHelper.getAuthor());
+        new TreeSet<>(classNames).forEach(fqn -> append(settings, fqn));
+        return settings.toString();
+    }
+
+    /**
+     * @return the version of the generator module and the digest of its
+     * templates
+     */
+    private static synchronized String getGeneratorFingerprint() {
+        if (GENERATOR_FINGERPRINT == null) {
+            StringBuilder fingerprint = new StringBuilder();
+            ModuleInfo module = Modules.getDefault().ownerOf(GenerationManifest.class);
+            if (module != null) {
+                fingerprint.append(module.getSpecificationVersion()).append('/').append(module.getBuildVersion());
+            }
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-1"); // NOI18N
+                byte[] buffer = new byte[8192];
+                for (String template : TEMPLATES) {
+                    try (InputStream stream = GenerationManifest.class.getClassLoader().getResourceAsStream(template)) {
+                        if (stream != null) {
+                            for (int count; (count = stream.read(buffer)) > 0;) {
+                                digest.update(buffer, 0, count);
+                            }
+                        }
+                    }
+                }
+                fingerprint.append('/').append(String.format("%040x", new BigInteger(1, digest.digest())));
+            } catch (NoSuchAlgorithmException | IOException ex) {
+                LOG.log(Level.INFO, "Unable to fingerprint the generator templates", ex);
+            }
+            GENERATOR_FINGERPRINT = fingerprint.toString();
+        }
+        return GENERATOR_FINGERPRINT;
+    }
+
+    private void append(StringBuilder settings, Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Enum) {
+            settings.append(value);
+        } else {
+            try {
+                settings.append(marshal(value));
+            } catch (JAXBException ex) {
+                settings.append(value.getClass().getName());
+            }
+        }
+        settings.append(';');
+    }
+
+    private <T> String marshal(T element) throws JAXBException {
+        if (marshaller == null) {
+            marshaller = getSpecContext().createMarshaller();
+        }
+        StringWriter writer = new StringWriter();
+        QName qName = new QName(element.getClass().getSimpleName());
+        marshaller.marshal(new JAXBElement<>(qName, (Class<T>) element.getClass(), element), writer);
+        return writer.toString();
+    }
+
+    private static synchronized JAXBContext getSpecContext() throws JAXBException {
+        if (SPEC_CONTEXT == null) {
+            SPEC_CONTEXT = JAXBContext.newInstance(new Class<?>[]{EntityMappings.class, Entity.class, Attribute.class});
+        }
+        return SPEC_CONTEXT;
+    }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.orm.generator.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings of the generation steps (formatting, template rendering ...) and
+ * counters of the current generation session, recorded concurrently by the
+ * generation workers and reported at the end of the session.
+ */
+public final class GeneratorStatistics {
+
+    private static final Map<String, Measure> MEASURES = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+
+    private GeneratorStatistics() {
+    }
+
+    /**
+     * @param step the name of the measured step
+     * @param startTime the {@link System#nanoTime()} at the start of the step
+     */
+    public static void record(String step, long startTime) {
+        MEASURES.computeIfAbsent(step, key -> new Measure()).add(System.nanoTime() - startTime);
+    }
+
+    /**
+     * @param counter the name of the counter
+     * @param value the value to add to the counter
+     */
+    public static void count(String counter, long value) {
+        COUNTERS.computeIfAbsent(counter, key -> new LongAdder()).add(value);
+    }
+
+    public static void reset() {
+        MEASURES.clear();
+        COUNTERS.clear();
+    }
+
+    /**
+     * @return one line per step with the number of executions, the total and
+     * the average time, then one line per counter
+     */
+    public static List<String> getSummary() {
+        List<String> summary = new ArrayList<>();
+        MEASURES.forEach((step, measure) -> {
+            long count = measure.count.sum();
+            long nanos = measure.nanos.sum();
+            summary.add(String.format("%s : %d in %d ms (%.3f ms each)",
+                    step, count, TimeUnit.NANOSECONDS.toMillis(nanos), count == 0 ? 0 : nanos / 1e6 / count));
+        });
+        COUNTERS.forEach((counter, value) -> summary.add(String.format("%s : %d", counter, value.sum())));
+        return summary;
+    }
+
+    private static class Measure {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void add(long time) {
+            count.increment();
+            nanos.add(time);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.orm.generator.util;
+
+import io.github.jeddict.orm.generator.compiler.InvalidDataException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import static io.github.jeddict.orm.generator.util.ORMConverterUtil.IMPORT;
+import static io.github.jeddict.orm.generator.util.ORMConverterUtil.SEMICOLON;
+
+/**
+ * Resolves the import block of a generated class in a single pass over the
+ * sorted types collected from its snippets.
+ *
+ * The parsed types and their import statements are interned in a table shared
+ * by all the classes of the generation session, so that a type referenced by
+ * many classes (javax.persistence.Entity, java.util.List ...) is parsed once
+ * per session. The table is cleared at the start of each session.
+ *
+ * The snippets refer to the imported types by their simple name, so two types
+ * sharing the same simple name can not be imported in the same class, the
+ * generation of the class fails with the names of both types.
+ */
+public final class ImportResolver {
+
+    private static final Map<String, ImportType> TYPES = new ConcurrentHashMap<>();
+
+    private static final String WILDCARD = "*";
+
+    private ImportResolver() {
+    }
+
+    public static void clear() {
+        TYPES.clear();
+    }
+
+    /**
+     * @param classHelper the generated class
+     * @param types the sorted fully qualified names to import
+     * @return the import statements, excluding the types of the default
+     * package and of the class package
+     * @throws InvalidDataException if two types share the same simple name
+     */
+    public static List<String> resolve(ClassHelper classHelper, Collection<String> types) throws InvalidDataException {
+        String classPackage = classHelper.getPackageName();
+        List<String> statements = new ArrayList<>(types.size());
+        Map<String, ImportType> simpleNames = new HashMap<>();
+        for (String fqn : types) {
+            ImportType type = TYPES.computeIfAbsent(fqn, ImportType::new);
+            if (type.packageName == null || type.packageName.equals(classPackage)) {
+                continue;
+            }
+            if (!WILDCARD.equals(type.simpleName)) {
+                ImportType previous = simpleNames.putIfAbsent(type.simpleName, type);
+                if (previous == type) {
+                    continue;
+                }
+                if (previous != null) {
+                    throw new InvalidDataException(String.format(
+                            "Class %s refers to both %s and %s, rename one of them to generate the class",
+                            classHelper.getFQClassName(), previous.fqn, fqn));
+                }
+            }
+            statements.add(type.statement);
+        }
+        return statements;
+    }
+
+    private static class ImportType {
+
+        private final String fqn;
+        private final String packageName;
+        private final String simpleName;
+        private final String statement;
+
+        private ImportType(String fqn) {
+            this.fqn = fqn;
+            ClassHelper classHelper = new ClassHelper(fqn);
+            this.packageName = classHelper.getPackageName();
+            this.simpleName = classHelper.getClassName();
+            this.statement = IMPORT + fqn + SEMICOLON;
+        }
+    }
+
+}
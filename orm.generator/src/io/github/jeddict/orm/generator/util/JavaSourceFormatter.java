@@ -0,0 +1,495 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.orm.generator.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-process formatter of the java sources rendered by the generator
+ * templates, it applies the default java formatting of the editor Reformat :
+ * <ul>
+ * <li>each line is re-indented according to the nesting of the blocks and
+ * parentheses,</li>
+ * <li>the spaces between the tokens are normalised : around the binary
+ * operators, after the commas, semicolons, casts and control keywords, before
+ * the blocks, none inside the parentheses, brackets, type arguments and array
+ * initializers,</li>
+ * <li>the consecutive blank lines are collapsed and the blank lines before the
+ * end of a block are removed.</li>
+ * </ul>
+ * The literals and comments are kept as is. The editor Reformat remains
+ * available as fallback (see
+ * {@link io.github.jeddict.jpa.modeler.source.generator.ui.GeneratorSettings#isEditorReformat()}).
+ *
+ * It is stateless and only allocates a per-thread buffer, so it may be used
+ * concurrently by the generation workers.
+ */
+public final class JavaSourceFormatter {
+
+    private static final int INDENT = 4;
+    private static final int CONTINUATION_INDENT = 8;
+    private static final String LINE_SEPARATOR = "\r\n|\r|\n";
+
+    private static final int WORD = 0;
+    private static final int LITERAL = 1;
+    private static final int COMMENT = 2;
+    private static final int OPERATOR = 3;
+    private static final int TYPE_OPEN = 4;
+    private static final int TYPE_CLOSE = 5;
+
+    // longest first, the shift operators are split when closing type arguments
+    private static final String[] OPERATORS = {">>>=", "<<=", ">>=", ">>>", "...", "->", "::", "++", "--",
+        "&&", "||", "==", "!=", "<=", ">=", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "<<", ">>"};
+
+    private static final Set<String> BINARY_OPERATORS = new HashSet<>(Arrays.asList(
+            "=", "==", "!=", "<", ">", "<=", ">=", "+", "-", "*", "/", "%", "&&", "||", "&", "|", "^",
+            "<<", ">>", ">>>", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "<<=", ">>=", ">>>=",
+            "->", "?", ":"));
+
+    private static final Set<String> CONTROL_KEYWORDS = new HashSet<>(Arrays.asList(
+            "if", "for", "while", "switch", "catch", "synchronized", "try", "return", "throw", "assert"));
+
+    private static final Set<String> UNARY_KEYWORDS = new HashSet<>(Arrays.asList(
+            "return", "case", "throw", "assert"));
+
+    private static final Set<String> MODIFIERS = new HashSet<>(Arrays.asList(
+            "public", "protected", "private", "static", "final", "abstract", "synchronized", "native", "default"));
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+
+    private JavaSourceFormatter() {
+    }
+
+    public static String format(String source) {
+        StringBuilder output = BUFFER.get();
+        output.setLength(0);
+        Deque<Integer> indents = new ArrayDeque<>();
+        // indent of the line opening each bracket left open, i.e. of the
+        // statement it belongs to
+        Deque<Integer> bases = new ArrayDeque<>();
+        StringBuilder openers = new StringBuilder();
+        boolean blockComment = false;
+        boolean blankLine = false;
+
+        for (String rawLine : source.split(LINE_SEPARATOR)) {
+            String line = rawLine.trim();
+            if (line.isEmpty()) {
+                if (blockComment) {
+                    output.append('\n');
+                } else {
+                    blankLine = true;
+                }
+                continue;
+            }
+            if (!blockComment) {
+                line = space(line);
+            }
+            if (blankLine && output.length() > 0 && line.charAt(0) != '}') {
+                output.append('\n');
+            }
+            blankLine = false;
+            if (output.length() > 0) {
+                output.append('\n');
+            }
+            int lineStart = output.length();
+
+            // leading closing brackets are outdented with the block they close
+            int leading = 0;
+            int base = Integer.MAX_VALUE;
+            if (blockComment) {
+                int indent = indents.isEmpty() ? 0 : indents.peek();
+                indent(output, line.charAt(0) == '*' ? indent + 1 : indent);
+            } else {
+                while (leading < line.length() && isLeadingCloser(line.charAt(leading))) {
+                    if (line.charAt(leading) != ' ' && !indents.isEmpty()) {
+                        indents.pop();
+                        base = Math.min(base, bases.pop());
+                    }
+                    leading++;
+                }
+                indent(output, indents.isEmpty() ? 0 : indents.peek());
+            }
+            int lineIndent = output.length() - lineStart;
+            base = Math.min(base, lineIndent);
+
+            openers.setLength(0);
+            char quote = 0;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                char next = i + 1 < line.length() ? line.charAt(i + 1) : 0;
+                if (blockComment) {
+                    output.append(c);
+                    if (c == '*' && next == '/') {
+                        output.append(next);
+                        i++;
+                        blockComment = false;
+                    }
+                    continue;
+                }
+                if (quote != 0) {
+                    output.append(c);
+                    if (c == '\\' && next != 0) {
+                        output.append(next);
+                        i++;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                    continue;
+                }
+                switch (c) {
+                    case '/':
+                        if (next == '/') {
+                            output.append(line, i, line.length());
+                            i = line.length();
+                            continue;
+                        } else if (next == '*') {
+                            output.append(c).append(next);
+                            i++;
+                            blockComment = true;
+                            continue;
+                        }
+                        break;
+                    case '"':
+                    case '\'':
+                        quote = c;
+                        break;
+                    case '{':
+                    case '(':
+                        indents.push(lineIndent);
+                        bases.push(base);
+                        openers.append(c);
+                        break;
+                    case '}':
+                    case ')':
+                        if (i < leading) {
+                            break; // already popped
+                        }
+                        if (openers.length() > 0) {
+                            openers.setLength(openers.length() - 1);
+                            indents.pop();
+                            bases.pop();
+                        } else if (!indents.isEmpty()) {
+                            // closes a continuation, the block opened next
+                            // on this line is nested in its statement
+                            indents.pop();
+                            base = Math.min(base, bases.pop());
+                        }
+                        break;
+                    case ' ':
+                    case '\t':
+                        if (output.length() > lineStart + lineIndent && output.charAt(output.length() - 1) == ' ') {
+                            continue;
+                        }
+                        c = ' ';
+                        break;
+                    default:
+                }
+                output.append(c);
+            }
+
+            // nested lines are indented by the innermost bracket left open, a
+            // block relative to its statement and a continuation to the line
+            if (openers.length() > 0) {
+                int nestedIndent = openers.charAt(openers.length() - 1) == '{'
+                        ? base + INDENT : lineIndent + CONTINUATION_INDENT;
+                for (int i = 0; i < openers.length(); i++) {
+                    indents.pop();
+                }
+                for (int i = 0; i < openers.length(); i++) {
+                    indents.push(nestedIndent);
+                }
+            }
+            int end = output.length();
+            while (end > lineStart && output.charAt(end - 1) == ' ') {
+                end--;
+            }
+            output.setLength(end);
+        }
+        return output.toString();
+    }
+
+    /**
+     * @param line the trimmed line, which does not start in a block comment
+     * @return the line with the spaces between its tokens normalised
+     */
+    private static String space(String line) {
+        List<Token> tokens = tokenize(line);
+        classify(tokens);
+        StringBuilder spaced = new StringBuilder(line.length() + 16);
+        Token previous = null;
+        for (Token token : tokens) {
+            if (needsSpace(previous, token)) {
+                spaced.append(' ');
+            }
+            spaced.append(token.text);
+            previous = token;
+        }
+        return spaced.toString();
+    }
+
+    private static List<Token> tokenize(String line) {
+        List<Token> tokens = new ArrayList<>();
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            char next = i + 1 < length ? line.charAt(i + 1) : 0;
+            int start = i;
+            int kind;
+            if (c == ' ' || c == '\t') {
+                i++;
+                continue;
+            } else if (c == '/' && next == '/') {
+                i = length;
+                kind = COMMENT;
+            } else if (c == '/' && next == '*') {
+                int end = line.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                kind = COMMENT;
+            } else if (c == '"' || c == '\'') {
+                i++;
+                while (i < length && line.charAt(i) != c) {
+                    i += line.charAt(i) == '\\' ? 2 : 1;
+                }
+                i = Math.min(i + 1, length);
+                kind = LITERAL;
+            } else if (Character.isDigit(c) || (c == '.' && Character.isDigit(next))) {
+                i++;
+                while (i < length && (Character.isLetterOrDigit(line.charAt(i)) || line.charAt(i) == '.' || line.charAt(i) == '_'
+                        || ((line.charAt(i) == '+' || line.charAt(i) == '-') && (line.charAt(i - 1) == 'e' || line.charAt(i - 1) == 'E')))) {
+                    i++;
+                }
+                kind = LITERAL;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                i++;
+                while (i < length && Character.isJavaIdentifierPart(line.charAt(i))) {
+                    i++;
+                }
+                kind = WORD;
+            } else {
+                i++;
+                for (String operator : OPERATORS) {
+                    if (line.startsWith(operator, start)) {
+                        i = start + operator.length();
+                        break;
+                    }
+                }
+                kind = OPERATOR;
+            }
+            tokens.add(new Token(line.substring(start, i), kind));
+        }
+        return tokens;
+    }
+
+    private static void classify(List<Token> tokens) {
+        boolean label = tokens.size() >= 2 && tokens.get(0).kind == WORD && tokens.get(1).is(":");
+        boolean caseLabel = !tokens.isEmpty() && (tokens.get(0).is("case") || tokens.get(0).is("default"));
+        Deque<Boolean> initializers = new ArrayDeque<>();
+        Token previous = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.kind == OPERATOR) {
+                String text = token.text;
+                if (text.equals("<") && isTypeArgumentsStart(previous)) {
+                    int end = typeArgumentsEnd(tokens, i);
+                    if (end > 0) {
+                        markTypeArguments(tokens, i, end, previous != null && previous.is("."));
+                        previous = tokens.get(end);
+                        i = end;
+                        continue;
+                    }
+                }
+                switch (text) {
+                    case "+":
+                    case "-":
+                        token.unary = isOperandExpected(previous);
+                        token.binary = !token.unary;
+                        break;
+                    case "!":
+                    case "~":
+                        token.unary = true;
+                        break;
+                    case "++":
+                    case "--":
+                        token.postfix = !isOperandExpected(previous);
+                        token.unary = !token.postfix;
+                        break;
+                    case "*":
+                        token.binary = previous == null || !previous.is(".");
+                        break;
+                    case ":":
+                        token.binary = !label && !caseLabel;
+                        label = caseLabel = false;
+                        break;
+                    case "{":
+                        token.initializer = previous != null && (previous.is("(") || previous.is("]")
+                                || previous.is("=") || previous.is(",") || (previous.is("{") && previous.initializer));
+                        initializers.push(token.initializer);
+                        break;
+                    case "}":
+                        token.initializer = !initializers.isEmpty() && initializers.pop();
+                        break;
+                    default:
+                        token.binary = BINARY_OPERATORS.contains(text);
+                }
+            }
+            previous = token;
+        }
+    }
+
+    private static boolean isTypeArgumentsStart(Token previous) {
+        return previous == null || previous.is(".")
+                || (previous.kind == WORD && !CONTROL_KEYWORDS.contains(previous.text));
+    }
+
+    /**
+     * @return the index of the token closing the type arguments opened at
+     * start, or -1 if they are not type arguments, e.g. a comparison
+     */
+    private static int typeArgumentsEnd(List<Token> tokens, int start) {
+        int depth = 0;
+        for (int i = start; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.kind == WORD) {
+                continue;
+            }
+            switch (token.text) {
+                case "<":
+                    depth++;
+                    break;
+                case ">":
+                case ">>":
+                case ">>>":
+                    depth -= token.text.length();
+                    if (depth == 0) {
+                        return i;
+                    } else if (depth < 0) {
+                        return -1;
+                    }
+                    break;
+                case ",":
+                case ".":
+                case "?":
+                case "&":
+                case "[":
+                case "]":
+                case "@":
+                    break;
+                default:
+                    return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void markTypeArguments(List<Token> tokens, int start, int end, boolean methodTypeArguments) {
+        for (int i = start; i <= end; i++) {
+            Token token = tokens.get(i);
+            if (token.is("<")) {
+                token.kind = TYPE_OPEN;
+            } else if (token.text.startsWith(">")) {
+                token.kind = TYPE_CLOSE;
+                token.methodTypeArguments = methodTypeArguments;
+            } else if (token.is("?")) {
+                token.kind = WORD;
+            } else if (token.is("&")) {
+                token.binary = true;
+            }
+        }
+    }
+
+    /**
+     * @return true if an operand is expected after the token, i.e. a
+     * following +, -, ++ or -- is a prefix operator
+     */
+    private static boolean isOperandExpected(Token previous) {
+        if (previous == null) {
+            return true;
+        } else if (previous.kind == WORD) {
+            return UNARY_KEYWORDS.contains(previous.text);
+        } else if (previous.kind == OPERATOR) {
+            return !previous.is(")") && !previous.is("]") && !previous.postfix;
+        }
+        return false;
+    }
+
+    private static boolean needsSpace(Token previous, Token token) {
+        if (previous == null) {
+            return false;
+        } else if (token.kind == COMMENT || previous.kind == COMMENT) {
+            return true;
+        } else if (token.kind == TYPE_OPEN) {
+            return previous.kind == WORD && MODIFIERS.contains(previous.text);
+        } else if (previous.kind == TYPE_OPEN || token.kind == TYPE_CLOSE) {
+            return false;
+        } else if (previous.kind == TYPE_CLOSE) {
+            return (token.kind == WORD && !previous.methodTypeArguments) || token.binary || token.is("{");
+        } else if (token.binary || previous.binary) {
+            return true;
+        } else if (previous.unary || (previous.is("{") && previous.initializer)) {
+            return false;
+        } else if (token.postfix || token.is(",") || token.is(";") || token.is(")") || token.is("]")
+                || token.is(".") || token.is("...") || token.is("::") || token.is(":") || token.is("[")) {
+            return false;
+        } else if (previous.is("(") || previous.is("[") || previous.is(".") || previous.is("::") || previous.is("@")) {
+            return false;
+        } else if (token.is("(")) {
+            return previous.kind == WORD ? CONTROL_KEYWORDS.contains(previous.text) : !previous.is("]");
+        } else if (token.is("{")) {
+            return !previous.is("]");
+        } else if (token.is("}")) {
+            return !token.initializer && !previous.is("{");
+        }
+        return true;
+    }
+
+    private static final class Token {
+
+        private final String text;
+        private int kind;
+        private boolean binary;
+        private boolean unary;
+        private boolean postfix;
+        private boolean initializer;
+        private boolean methodTypeArguments;
+
+        private Token(String text, int kind) {
+            this.text = text;
+            this.kind = kind;
+        }
+
+        private boolean is(String text) {
+            return (kind == OPERATOR || kind == WORD) && this.text.equals(text);
+        }
+    }
+
+    private static boolean isLeadingCloser(char c) {
+        return c == '}' || c == ')' || c == ' ' || c == '\t';
+    }
+
+    private static void indent(StringBuilder output, int indent) {
+        for (int i = 0; i < indent; i++) {
+            output.append(' ');
+        }
+    }
+
+}
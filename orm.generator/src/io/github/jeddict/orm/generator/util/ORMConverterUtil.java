@@ -15,8 +15,6 @@
  */
 package io.github.jeddict.orm.generator.util;
 
-import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -25,18 +23,15 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.StyledDocument;
-import org.apache.velocity.Template;
-import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
 import org.netbeans.editor.BaseDocument;
 import org.netbeans.modules.editor.indent.api.Reformat;
+import io.github.jeddict.jpa.modeler.source.generator.ui.GeneratorSettings;
 import io.github.jeddict.orm.generator.compiler.InvalidDataException;
 import io.github.jeddict.orm.generator.spec.WritableSnippet;
 import org.openide.cookies.EditorCookie;
@@ -113,26 +108,6 @@ public class ORMConverterUtil {
         return file;
     }
 
-    public static Collection<String> eliminateSamePkgImports(String classPackage, Collection<String> importSnippets) {
-
-        List<String> uniqueImports = new ArrayList<>();
-
-        for (String importSnippet : importSnippets) {
-
-            ClassHelper importSnippetHelper = new ClassHelper(importSnippet);
-
-            if (importSnippetHelper.getPackageName() == null) {
-                continue;
-            }
-
-            if (!importSnippetHelper.getPackageName().equals(classPackage)) {
-                uniqueImports.add(importSnippet);
-            }
-        }
-
-        return uniqueImports;
-    }
-
     public static byte[] getBytes(File file) throws IOException {
 
         if (!file.exists()) {
@@ -199,26 +174,7 @@ public class ORMConverterUtil {
     }
 
     public static String writeToTemplate(String templateName, Map<String, Object> context) throws Exception {
-        Template template = Velocity.getTemplate(templateName);
-        ByteArrayOutputStream generatedClass = new ByteArrayOutputStream();
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(generatedClass, "UTF-8"))) {
-            if (template != null) {
-                template.merge(new VelocityContext(context), writer);
-            }
-            writer.flush();
-        }
-        return generatedClass.toString();
-    }
-
-    public static Collection<String> processedImportStatements(
-            Collection<String> importSnippets) {
-
-        Collection<String> processedStatements = new ArrayList<>();
-        for (String element : importSnippets) {
-            processedStatements.add(IMPORT + element + SEMICOLON);
-        }
-
-        return processedStatements;
+        return TemplateCache.render(templateName, context);
     }
 
     public static void writeContent(String content, File file)
@@ -243,6 +199,12 @@ public class ORMConverterUtil {
         fos.close();
     }
 
+    public static File getSourceFile(WritableSnippet writableSnippet, File destDir) {
+        ClassHelper classHelper = writableSnippet.getClassHelper();
+        File dir = classHelper.getSourcePath() == null ? destDir : new File(destDir, classHelper.getSourcePath());
+        return new File(dir, classHelper.getClassNameWithSourceSuffix());
+    }
+
     public static FileObject writeSnippet(WritableSnippet writableSnippet, File destDir)
             throws InvalidDataException, IOException {
 
@@ -253,8 +215,7 @@ public class ORMConverterUtil {
         final FileObject fo = FileUtil.toFileObject(sourceFile);
        
         try {
-            String content = writableSnippet.getSnippet();
-            ORMConverterUtil.writeContent(getFormattedText(content, "java"), sourceFile);
+            ORMConverterUtil.writeContent(getFormattedSnippet(writableSnippet), sourceFile);
         } catch (InvalidDataException | IOException ex) {
             Exceptions.printStackTrace(ex);
         }
@@ -262,6 +223,35 @@ public class ORMConverterUtil {
         return fo;
     }
 
+    /**
+     * Renders the snippet through its template and formats the result, no
+     * file system access is involved so it may be called from any thread.
+     *
+     * @param writableSnippet the snippet to render
+     * @return the formatted java source
+     * @throws InvalidDataException
+     */
+    public static String getFormattedSnippet(WritableSnippet writableSnippet) throws InvalidDataException {
+        String content = writableSnippet.getSnippet();
+        boolean editorReformat = GeneratorSettings.isEditorReformat();
+        long start = System.nanoTime();
+        try {
+            return editorReformat ? getFormattedText(content, "java") : JavaSourceFormatter.format(content);
+        } finally {
+            GeneratorStatistics.record(editorReformat ? "Format (editor reformat)" : "Format", start);
+        }
+    }
+
+    /**
+     * Formats the text through the NetBeans editor Reformat, for each call a
+     * document is opened on a memory file system, so it is expensive and
+     * mostly serialised on the editor infrastructure.
+     *
+     * @param textToFormat the text to format
+     * @param ext the extension defining the mime type of the text
+     * @return the formatted text
+     * @see JavaSourceFormatter
+     */
     public static String getFormattedText(String textToFormat, String ext) {
         try {
             FileSystem fs = FileUtil.createMemoryFileSystem();
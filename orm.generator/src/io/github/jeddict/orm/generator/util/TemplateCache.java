@@ -0,0 +1,98 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.orm.generator.util;
+
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.Velocity;
+
+/**
+ * Cache of the parsed generator templates, cleared at the start of each
+ * generation session so that a template is resolved and parsed only once per
+ * session instead of once per generated class.
+ *
+ * Templates are rendered into a reusable per-thread buffer, the render time
+ * of each template is recorded in the {@link GeneratorStatistics}.
+ */
+public final class TemplateCache {
+
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<StringBuilderWriter> WRITER = ThreadLocal.withInitial(StringBuilderWriter::new);
+
+    private TemplateCache() {
+    }
+
+    public static Template getTemplate(String templateName) {
+        return TEMPLATES.computeIfAbsent(templateName, Velocity::getTemplate);
+    }
+
+    public static void clear() {
+        TEMPLATES.clear();
+    }
+
+    public static String render(String templateName, Map<String, Object> context) throws Exception {
+        long start = System.nanoTime();
+        StringBuilderWriter writer = WRITER.get();
+        if (writer.inUse) {
+            writer = new StringBuilderWriter(); // nested rendering on the same thread
+        }
+        writer.inUse = true;
+        try {
+            writer.buffer.setLength(0);
+            Template template = getTemplate(templateName);
+            if (template != null) {
+                template.merge(new VelocityContext(context), writer);
+            }
+            return writer.buffer.toString();
+        } finally {
+            writer.inUse = false;
+            GeneratorStatistics.record("Template " + templateName, start);
+        }
+    }
+
+    private static class StringBuilderWriter extends Writer {
+
+        private final StringBuilder buffer = new StringBuilder(16 * 1024);
+        private boolean inUse;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(int c) {
+            buffer.append((char) c);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            buffer.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
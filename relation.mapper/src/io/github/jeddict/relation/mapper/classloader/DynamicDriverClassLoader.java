@@ -15,6 +15,9 @@
  */
 package io.github.jeddict.relation.mapper.classloader;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import org.eclipse.persistence.dynamic.DynamicClassLoader;
 import org.netbeans.api.java.classpath.ClassPath;
 import org.netbeans.modeler.core.ModelerFile;
@@ -89,6 +92,20 @@ public class DynamicDriverClassLoader extends DynamicClassLoader {
         return _class;
     }
 
+    /**
+     * Closes the class loader of the project class path, which is created for
+     * this loader only. The loaded classes remain usable.
+     */
+    public void close() {
+        if (projectClassLoader != null && projectClassLoader.getParent() instanceof Closeable) {
+            try {
+                ((Closeable) projectClassLoader.getParent()).close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
     private static class ChildClassLoader extends ClassLoader {
 
         private final DetectClass realParent;
@@ -59,6 +59,11 @@ public class RealationMapperActionListener extends ModelerFileActionListener imp
     public void init(ModelerFile file, EntityMappings mappings, WorkSpace workSpace) {
         this.mappings = mappings;
         this.workSpace = workSpace;
+        //close diagram and reopen, with the mapping session of the model
+        file.getChildrenFile("DB").ifPresent(dbFile -> {
+            ((RelationMapperScene) dbFile.getModelerScene()).setRetainMappingSession(true);
+            dbFile.close();
+        });
         context = null;
         openModelerFile("DB", null, null, file, null);
     }
@@ -17,6 +17,7 @@ package io.github.jeddict.relation.mapper.initializer;
 
 import java.awt.event.ItemEvent;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JToolBar;
 import org.netbeans.api.db.explorer.DatabaseConnection;
@@ -40,6 +41,8 @@ public class RelationMapperDiagramEngine extends ModelerDiagramEngine {
         buildSearchTool(bar);
         bar.add(new JToolBar.Separator());
         buildDBCon(bar);
+        buildVerifyTool(bar);
+        buildOfflinePlatformTool(bar);
         bar.add(new JToolBar.Separator());
         buildSelectTool(bar);
         bar.add(new JToolBar.Separator());
@@ -75,4 +78,32 @@ public class RelationMapperDiagramEngine extends ModelerDiagramEngine {
         }
     }
 
+    private void buildVerifyTool(JToolBar bar) {
+        JCheckBox verifyCheckBox = new JCheckBox("Verify", RelationMapperSettings.isVerifyWithDatabase());
+        verifyCheckBox.setToolTipText("Derive the tables by logging in to the database (DB specific verification)");
+        verifyCheckBox.setFocusable(false);
+        bar.add(verifyCheckBox);
+        verifyCheckBox.addItemListener(e -> {
+            RelationMapperSettings.setVerifyWithDatabase(e.getStateChange() == ItemEvent.SELECTED);
+            DBUtil.openDBModeler(file.getParentFile());
+        });
+    }
+
+    private void buildOfflinePlatformTool(JToolBar bar) {
+        JComboBox<String> platformComboBox = new JComboBox<>();
+        platformComboBox.addItem("");
+        RelationMapperSettings.getOfflinePlatforms().forEach(platformComboBox::addItem);
+        platformComboBox.setEditable(true);
+        platformComboBox.setSelectedItem(RelationMapperSettings.getOfflinePlatform() == null ? "" : RelationMapperSettings.getOfflinePlatform());
+        platformComboBox.setToolTipText("Database platform (name or class name) of the offline derivation, blank to select it from the JDBC driver");
+        platformComboBox.setEnabled(!RelationMapperSettings.isVerifyWithDatabase());
+        bar.add(platformComboBox);
+        platformComboBox.addItemListener(e -> {
+            if (e.getStateChange() == ItemEvent.SELECTED) {
+                RelationMapperSettings.setOfflinePlatform((String) e.getItem());
+                DBUtil.openDBModeler(file.getParentFile());
+            }
+        });
+    }
+
 }
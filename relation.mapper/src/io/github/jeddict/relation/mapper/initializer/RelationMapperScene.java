@@ -57,6 +57,8 @@ import org.netbeans.modeler.widget.node.vmd.internal.*;
 
 public class RelationMapperScene extends DefaultPModelerScene<DBMapping> {
 
+    private boolean retainMappingSession;
+
     @Override
     public void deleteBaseElement(IBaseElementWidget baseElementWidget) {
         DBMapping entityMappingsSpec = this.getBaseElementSpec();
@@ -197,8 +199,19 @@ public class RelationMapperScene extends DefaultPModelerScene<DBMapping> {
 
 
     
+    /**
+     * @param retainMappingSession true to keep the mapping session of the
+     * model for the DB view reopened in place of this one
+     */
+    void setRetainMappingSession(boolean retainMappingSession) {
+        this.retainMappingSession = retainMappingSession;
+    }
+
     @Override
     public void destroy() {
+        if (!retainMappingSession) {
+            RelationMappingCache.evict(this.getModelerFile().getFileObject());
+        }
         try {
             if (this.getModelerFile().isLoaded() && this.getBaseElementSpec() != null) {
                 this.getBaseElementSpec().getTables().stream().map(t -> t.getEntity()).forEach(e -> {
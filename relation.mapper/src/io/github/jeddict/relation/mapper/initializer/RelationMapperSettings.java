@@ -0,0 +1,123 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.relation.mapper.initializer;
+
+import static io.github.jeddict.jpa.spec.extend.cache.DatabaseConnectionCache.DEFAULT_DRIVER;
+import io.github.jeddict.jpa.spec.extend.cache.DatabaseConnectionCache;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.prefs.Preferences;
+import org.openide.util.NbPreferences;
+
+/**
+ * Options of the relation mapper, persisted in the module preferences.
+ *
+ * By default the tables are derived offline, from the processed descriptors
+ * and a database platform selected by name. The database login is only used
+ * if the DB specific verification is enabled.
+ */
+public final class RelationMapperSettings {
+
+    private static final String VERIFY_WITH_DATABASE = "verifyWithDatabase";
+    private static final String OFFLINE_PLATFORM = "offlinePlatform";
+
+    private static final String PLATFORM_PACKAGE = "org.eclipse.persistence.platform.database.";
+    private static final String DEFAULT_PLATFORM = "DatabasePlatform";
+    private static final String[][] DRIVER_PLATFORMS = {
+        {"derby", "DerbyPlatform"},
+        {"org.h2.", "H2Platform"},
+        {"hsqldb", "HSQLPlatform"},
+        {"mysql", "MySQLPlatform"},
+        {"mariadb", "MySQLPlatform"},
+        {"postgresql", "PostgreSQLPlatform"},
+        {"oracle", "OraclePlatform"},
+        {"sqlserver", "SQLServerPlatform"},
+        {"db2", "DB2Platform"},
+        {"sybase", "SybasePlatform"},
+        {"informix", "InformixPlatform"}
+    };
+
+    private RelationMapperSettings() {
+    }
+
+    private static Preferences getPreferences() {
+        return NbPreferences.forModule(RelationMapperSettings.class);
+    }
+
+    /**
+     * @return true if the tables must be derived by logging in to the
+     * database, instead of offline
+     */
+    public static boolean isVerifyWithDatabase() {
+        return getPreferences().getBoolean(VERIFY_WITH_DATABASE, false);
+    }
+
+    public static void setVerifyWithDatabase(boolean verifyWithDatabase) {
+        getPreferences().putBoolean(VERIFY_WITH_DATABASE, verifyWithDatabase);
+    }
+
+    /**
+     * @return the platform name (e.g MySQLPlatform) or class name used in
+     * offline mode, or null to select it from the JDBC driver
+     */
+    public static String getOfflinePlatform() {
+        return getPreferences().get(OFFLINE_PLATFORM, null);
+    }
+
+    public static void setOfflinePlatform(String offlinePlatform) {
+        if (offlinePlatform == null || offlinePlatform.trim().isEmpty()) {
+            getPreferences().remove(OFFLINE_PLATFORM);
+        } else {
+            getPreferences().put(OFFLINE_PLATFORM, offlinePlatform.trim());
+        }
+    }
+
+    /**
+     * @return the names of the known offline platforms
+     */
+    static Set<String> getOfflinePlatforms() {
+        Set<String> platforms = new TreeSet<>();
+        platforms.add(DEFAULT_PLATFORM);
+        for (String[] driverPlatform : DRIVER_PLATFORMS) {
+            platforms.add(driverPlatform[1]);
+        }
+        return platforms;
+    }
+
+    /**
+     * @return the class name of the database platform used in offline mode,
+     * the configured one or else the one matching the driver of the connection
+     * (or of the embedded database if there is no connection)
+     */
+    static String getOfflinePlatformClassName(DatabaseConnectionCache connection) {
+        String platform = getOfflinePlatform();
+        if (platform != null) {
+            return platform.indexOf('.') == -1 ? PLATFORM_PACKAGE + platform : platform;
+        }
+        String driver = connection == null ? DEFAULT_DRIVER : connection.getDriverClassName();
+        if (driver != null) {
+            driver = driver.toLowerCase(Locale.ENGLISH);
+            for (String[] driverPlatform : DRIVER_PLATFORMS) {
+                if (driver.contains(driverPlatform[0])) {
+                    return PLATFORM_PACKAGE + driverPlatform[1];
+                }
+            }
+        }
+        return PLATFORM_PACKAGE + DEFAULT_PLATFORM;
+    }
+
+}
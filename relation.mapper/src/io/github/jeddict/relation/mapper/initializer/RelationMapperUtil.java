@@ -175,16 +175,28 @@ public class RelationMapperUtil implements IModelerUtil<RelationMapperScene> {
     }
 
     private DBMapping createDBMapping(ModelerFile file, EntityMappings entityMapping, WorkSpace workSpace) throws ClassNotFoundException, DBConnectionNotFound {
-        DBMapping dbMapping = new DBMapping();
         DatabaseConnectionCache connection = entityMapping.getCache().getDatabaseConnectionCache();
+        boolean offline = !RelationMapperSettings.isVerifyWithDatabase();
+        String platform = offline ? RelationMapperSettings.getOfflinePlatformClassName(connection) : null;
+        String fingerprint = offline ? RelationMappingCache.fingerprint(entityMapping, workSpace, connection, platform) : null;
+        DBMapping dbMapping = RelationMappingCache.createDBMapping(file.getFileObject(), entityMapping, fingerprint);
+        if (dbMapping != null) {
+            return dbMapping;
+        }
+        dbMapping = new DBMapping();
         ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
         DatabaseLogin databaseLogin = new DatabaseLogin();
 
-        ClassLoader dynamicClassLoader;
+        DynamicDriverClassLoader dynamicClassLoader = null;
         DatabaseSessionImpl session = null;
+        boolean cached = false;
         try {
 
-            if (connection == null) {
+            if (offline) {
+                // derive the tables from the descriptors, without the driver and login
+                dynamicClassLoader = new DynamicDriverClassLoader(file);
+                databaseLogin.setPlatformClassName(platform);
+            } else if (connection == null) {
                 dynamicClassLoader = new DynamicDriverClassLoader(file);
                 databaseLogin.setDatabaseURL(DEFAULT_URL);
                 databaseLogin.setUserName("");
@@ -225,22 +237,29 @@ public class RelationMapperUtil implements IModelerUtil<RelationMapperScene> {
             processor.addEntityListeners();
             session.getProject().convertClassNamesToClasses(dynamicClassLoader);
             processor.processCustomizers();
-            try {
-                session.loginAndDetectDatasource();
-            } catch (Exception ex) {
-                if (ex instanceof org.eclipse.persistence.exceptions.DatabaseException) {
-                    throw new DBConnectionNotFound(ex);
-                } else {
-                    throw ex;
+            if (offline) {
+                session.initializeDescriptors();
+            } else {
+                try {
+                    session.loginAndDetectDatasource();
+                } catch (Exception ex) {
+                    if (ex instanceof org.eclipse.persistence.exceptions.DatabaseException) {
+                        throw new DBConnectionNotFound(ex);
+                    } else {
+                        throw ex;
+                    }
                 }
             }
             JPAMSchemaManager mgr = new JPAMSchemaManager(dbMapping, session);
             mgr.createDefaultTables(true);
-
+            cached = offline && RelationMappingCache.put(file.getFileObject(), entityMapping, fingerprint, session, dynamicClassLoader);
         } finally {
-            if (session != null) {
+            if (session != null && session.isConnected()) {
                 session.logout();
             }
+            if (dynamicClassLoader != null && !cached) {
+                dynamicClassLoader.close();
+            }
             if (connection != null) {
                 Thread.currentThread().setContextClassLoader(contextClassLoader);
             }
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.relation.mapper.initializer;
+
+import io.github.jeddict.jpa.modeler.initializer.JPAModelSerializer;
+import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.extend.JavaClass;
+import io.github.jeddict.jpa.spec.extend.cache.DatabaseConnectionCache;
+import io.github.jeddict.jpa.spec.workspace.WorkSpace;
+import io.github.jeddict.relation.mapper.classloader.DynamicDriverClassLoader;
+import io.github.jeddict.relation.mapper.spec.DBMapping;
+import java.lang.ref.WeakReference;
+import java.math.BigInteger;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.bind.JAXBException;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.tools.schemaframework.JPAMSchemaManager;
+import org.openide.filesystems.FileObject;
+
+/**
+ * Keeps the offline EclipseLink session (processed project and dynamic
+ * classes) of the open relation mapper by .jpa file, so that the metadata is
+ * not processed again when the DB view is reloaded on an unchanged model.
+ *
+ * The session is reused only for the same model instance, as the processed
+ * descriptors refer to its entities, and only if the fingerprint of the
+ * classes mapped to the database is unchanged, saved or not. A change of the
+ * layout or of the workspace, which keeps the same classes, does not
+ * invalidate it. The entry is evicted and its class loader closed when the DB
+ * view is closed.
+ */
+final class RelationMappingCache {
+
+    private static final Map<FileObject, MappingSession> SESSIONS = new HashMap<>();
+
+    private RelationMappingCache() {
+    }
+
+    /**
+     * @param platform the class name of the offline database platform
+     * @return the fingerprint of the classes mapped by the DB view (the
+     * entities and embeddables of the workspace, the default classes, mapped
+     * superclasses and converters), of the connection and of the platform, or
+     * null if it can not be computed
+     */
+    static String fingerprint(EntityMappings entityMappings, WorkSpace workSpace, DatabaseConnectionCache connection, String platform) {
+        List<Object> elements = new ArrayList<>();
+        entityMappings.getEntity().stream()
+                .filter(entity -> workSpace == null || workSpace.hasItem(entity))
+                .forEach(elements::add);
+        entityMappings.getEmbeddable().stream()
+                .filter(embeddable -> workSpace == null || workSpace.hasItem(embeddable))
+                .forEach(elements::add);
+        elements.addAll(entityMappings.getDefaultClass());
+        elements.addAll(entityMappings.getMappedSuperclass());
+        elements.addAll(entityMappings.getConverter());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1"); // NOI18N
+            for (Object element : elements) {
+                if (element instanceof JavaClass) {
+                    digest.update(String.valueOf(((JavaClass) element).getId()).getBytes(UTF_8));
+                }
+                digest.update(JPAModelSerializer.marshal(element).getBytes(UTF_8));
+            }
+            if (connection != null) {
+                digest.update(String.valueOf(connection.getUrl()).getBytes(UTF_8));
+                digest.update(String.valueOf(connection.getUserName()).getBytes(UTF_8));
+                digest.update(String.valueOf(connection.getDriverClassName()).getBytes(UTF_8));
+            }
+            digest.update(String.valueOf(platform).getBytes(UTF_8));
+            return new BigInteger(1, digest.digest()).toString(16);
+        } catch (JAXBException | NoSuchAlgorithmException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Derives the tables from the cached session.
+     *
+     * @param file the .jpa file
+     * @return the mapping or null if there is no session for the model
+     */
+    static synchronized DBMapping createDBMapping(FileObject file, EntityMappings entityMappings, String fingerprint) {
+        MappingSession mappingSession = SESSIONS.get(file);
+        if (mappingSession == null) {
+            return null;
+        }
+        if (fingerprint == null
+                || mappingSession.entityMappings.get() != entityMappings
+                || !fingerprint.equals(mappingSession.fingerprint)) {
+            evict(file);
+            return null;
+        }
+        DBMapping dbMapping = new DBMapping();
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(mappingSession.classLoader);
+        try {
+            new JPAMSchemaManager(dbMapping, mappingSession.session).createDefaultTables(true);
+        } catch (RuntimeException ex) {
+            evict(file);
+            return null;
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+        return dbMapping;
+    }
+
+    /**
+     * Keeps the offline session of the DB view, which is never logged in.
+     *
+     * @param file the .jpa file
+     * @return true if the session is kept, false if it is to be released by
+     * the caller
+     */
+    static synchronized boolean put(FileObject file, EntityMappings entityMappings, String fingerprint, DatabaseSessionImpl session, DynamicDriverClassLoader classLoader) {
+        evict(file);
+        if (fingerprint == null || session.isConnected()) {
+            return false;
+        }
+        SESSIONS.put(file, new MappingSession(entityMappings, fingerprint, session, classLoader));
+        return true;
+    }
+
+    /**
+     * Releases the session of the model.
+     *
+     * @param file the .jpa file
+     */
+    static synchronized void evict(FileObject file) {
+        MappingSession mappingSession = SESSIONS.remove(file);
+        if (mappingSession != null) {
+            mappingSession.classLoader.close();
+        }
+    }
+
+    private static class MappingSession {
+
+        private final WeakReference<EntityMappings> entityMappings;
+        private final String fingerprint;
+        private final DatabaseSessionImpl session;
+        private final DynamicDriverClassLoader classLoader;
+
+        private MappingSession(EntityMappings entityMappings, String fingerprint, DatabaseSessionImpl session, DynamicDriverClassLoader classLoader) {
+            this.entityMappings = new WeakReference<>(entityMappings);
+            this.fingerprint = fingerprint;
+            this.session = session;
+            this.classLoader = classLoader;
+        }
+    }
+
+}
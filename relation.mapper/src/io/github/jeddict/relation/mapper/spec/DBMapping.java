@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
+import io.github.jeddict.jpa.modeler.rules.entity.NameIndex;
 import io.github.jeddict.jpa.spec.extend.BaseElement;
 import org.netbeans.modeler.core.exception.InvalidElmentException;
 import org.netbeans.modeler.specification.model.document.IDefinitionElement;
@@ -35,6 +36,7 @@ public class DBMapping extends BaseElement implements IDefinitionElement, IRootE
 
     private String name;
     private final Map<String, DBTable> tables = new HashMap<>();
+    private final NameIndex<DBTable> tableNameIndex = new NameIndex<>(DBTable::getName);
     
     private final Map<String, String> queries = new HashMap<>();
     private final Map<String, String> insertQueries = new HashMap<>();
@@ -61,20 +63,27 @@ public class DBMapping extends BaseElement implements IDefinitionElement, IRootE
 
     public void addTable(DBTable table) {
         this.tables.put(table.getName(), table);
+        tableNameIndex.update(table);
     }
 
     public void removeTable(DBTable table) {
         this.tables.remove(table.getName());
+        tableNameIndex.remove(table);
+    }
+
+    /**
+     * Re-indexes the table with the name given from the diagram.
+     *
+     * @param table
+     * @param tableName
+     * @return the previous indexed name of the table
+     */
+    public String updateTableName(DBTable table, String tableName) {
+        return tableNameIndex.update(table, tableName);
     }
 
     public List<DBTable> findAllTable(String tableName) {
-        List<DBTable> tablesResult = new ArrayList<>();
-        for (DBTable table : tables.values()) {
-            if (tableName.equals(table.getName())) {
-                tablesResult.add(table);
-            }
-        }
-        return tablesResult;
+        return new ArrayList<>(tableNameIndex.get(tableName));
     }
 
     @Override
@@ -23,7 +23,6 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import org.apache.commons.lang3.StringUtils;
 import io.github.jeddict.relation.mapper.spec.DBBaseTable;
-import io.github.jeddict.relation.mapper.spec.DBMapping;
 import io.github.jeddict.relation.mapper.initializer.RelationMapperScene;
 import static io.github.jeddict.relation.mapper.initializer.RelationMapperUtil.BASE_TABLE;
 import static io.github.jeddict.relation.mapper.initializer.RelationMapperUtil.BASE_TABLE_ICON_PATH;
@@ -75,12 +74,7 @@ public class BaseTableWidget extends TableWidget<DBBaseTable> {
             this.getSignalManager().clear(ERROR, ClassValidator.CLASS_TABLE_NAME_WITH_RESERVED_SQL_KEYWORD);
         }
 
-        DBMapping mapping = BaseTableWidget.this.getModelerScene().getBaseElementSpec();
-        if (mapping.findAllTable(BaseTableWidget.this.getName()).size() > 1) {
-            getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        } else {
-            getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        }
+        scanDuplicateTable();
 
     }
 
@@ -18,7 +18,6 @@ package io.github.jeddict.relation.mapper.widget.table;
 import java.awt.Image;
 import org.apache.commons.lang3.StringUtils;
 import io.github.jeddict.relation.mapper.spec.DBCollectionTable;
-import io.github.jeddict.relation.mapper.spec.DBMapping;
 import io.github.jeddict.relation.mapper.initializer.RelationMapperScene;
 import static io.github.jeddict.relation.mapper.initializer.RelationMapperUtil.COLLECTION_TABLE;
 import static io.github.jeddict.relation.mapper.initializer.RelationMapperUtil.COLLECTION_TABLE_ICON_PATH;
@@ -67,12 +66,7 @@ public class CollectionTableWidget extends TableWidget<DBCollectionTable> {
             this.getSignalManager().clear(ERROR, ClassValidator.CLASS_TABLE_NAME_WITH_RESERVED_SQL_KEYWORD);
         }
 
-        DBMapping mapping = CollectionTableWidget.this.getModelerScene().getBaseElementSpec();
-        if (mapping.findAllTable(CollectionTableWidget.this.getName()).size() > 1) {
-            getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        } else {
-            getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        }
+        scanDuplicateTable();
 
     }
 
@@ -22,7 +22,6 @@ import java.util.List;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import org.apache.commons.lang3.StringUtils;
-import io.github.jeddict.relation.mapper.spec.DBMapping;
 import io.github.jeddict.relation.mapper.spec.DBRelationTable;
 import io.github.jeddict.relation.mapper.initializer.RelationMapperScene;
 import static io.github.jeddict.relation.mapper.initializer.RelationMapperUtil.RELATION_TABLE;
@@ -79,12 +78,7 @@ public class RelationTableWidget extends TableWidget<DBRelationTable> {
             this.getSignalManager().clear(ERROR, ClassValidator.CLASS_TABLE_NAME_WITH_RESERVED_SQL_KEYWORD);
         }
 
-        DBMapping mapping = RelationTableWidget.this.getModelerScene().getBaseElementSpec();
-        if (mapping.findAllTable(RelationTableWidget.this.getName()).size() > 1) {
-            getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        } else {
-            getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        }
+        scanDuplicateTable();
 
     }
 
@@ -20,7 +20,6 @@ import java.awt.event.ActionEvent;
 import java.util.List;
 import javax.swing.JMenuItem;
 import org.apache.commons.lang3.StringUtils;
-import io.github.jeddict.relation.mapper.spec.DBMapping;
 import io.github.jeddict.relation.mapper.spec.DBSecondaryTable;
 import io.github.jeddict.relation.mapper.initializer.RelationMapperScene;
 import static io.github.jeddict.relation.mapper.initializer.RelationMapperUtil.SECONDARY_TABLE;
@@ -79,12 +78,7 @@ public class SecondaryTableWidget extends TableWidget<DBSecondaryTable> {
             this.getSignalManager().clear(ERROR, ClassValidator.CLASS_TABLE_NAME_WITH_RESERVED_SQL_KEYWORD);
         }
 
-        DBMapping mapping = SecondaryTableWidget.this.getModelerScene().getBaseElementSpec();
-        if (mapping.findAllTable(SecondaryTableWidget.this.getName()).size() > 1) {
-            getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        } else {
-            getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
-        }
+        scanDuplicateTable();
 
     }
 
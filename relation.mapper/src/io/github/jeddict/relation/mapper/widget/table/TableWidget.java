@@ -54,6 +54,7 @@ import io.github.jeddict.relation.mapper.widget.column.parent.ParentAttributeCol
 import io.github.jeddict.relation.mapper.widget.column.parent.ParentAttributePrimaryKeyWidget;
 import io.github.jeddict.relation.mapper.properties.PropertiesHandler;
 import io.github.jeddict.relation.mapper.spec.DBColumn;
+import io.github.jeddict.relation.mapper.spec.DBMapping;
 import io.github.jeddict.relation.mapper.spec.DBMapKeyColumn;
 import io.github.jeddict.relation.mapper.spec.DBMapKeyEmbeddedColumn;
 import io.github.jeddict.relation.mapper.spec.DBMapKeyJoinColumn;
@@ -61,6 +62,7 @@ import io.github.jeddict.relation.mapper.spec.DBTable;
 import io.github.jeddict.relation.mapper.initializer.RelationMapperScene;
 import io.github.jeddict.relation.mapper.initializer.SQLEditorUtil;
 import io.github.jeddict.jpa.spec.Entity;
+import io.github.jeddict.jpa.modeler.rules.entity.ClassValidator;
 import io.github.jeddict.jpa.modeler.initializer.JPAFileActionListener;
 import org.netbeans.modeler.anchors.CustomRectangularAnchor;
 import org.netbeans.modeler.config.palette.SubCategoryNodeConfig;
@@ -71,6 +73,7 @@ import org.netbeans.modeler.specification.model.document.property.ElementPropert
 import org.netbeans.modeler.widget.context.ContextPaletteModel;
 import org.netbeans.modeler.widget.node.INodeWidget;
 import org.netbeans.modeler.widget.node.info.NodeWidgetInfo;
+import static org.netbeans.modeler.widget.node.IWidgetStateHandler.StateType.ERROR;
 
 public abstract class TableWidget<E extends DBTable> extends FlowNodeWidget<E, RelationMapperScene> {
 
@@ -87,6 +90,34 @@ public abstract class TableWidget<E extends DBTable> extends FlowNodeWidget<E, R
 
     }
     
+    /**
+     * Updates the duplicate table name signal of this table and of the tables
+     * sharing its previous or new name.
+     */
+    protected void scanDuplicateTable() {
+        DBMapping mapping = this.getModelerScene().getBaseElementSpec();
+        DBTable table = (DBTable) this.getNodeWidgetInfo().getBaseElementSpec();
+        String previousName = mapping.updateTableName(table, this.getName());
+        if (previousName != null && !previousName.equals(this.getName())) {
+            scanDuplicateTable(mapping, table, previousName);
+        }
+        scanDuplicateTable(mapping, table, this.getName());
+    }
+
+    private void scanDuplicateTable(DBMapping mapping, DBTable currentTable, String name) {
+        List<DBTable> tables = mapping.findAllTable(name);
+        for (DBTable table : tables) {
+            Object widget = table == currentTable ? this : this.getModelerScene().getBaseElement(table.getId());
+            if (widget instanceof TableWidget) {
+                if (tables.size() > 1) {
+                    ((TableWidget) widget).getSignalManager().fire(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
+                } else {
+                    ((TableWidget) widget).getSignalManager().clear(ERROR, ClassValidator.NON_UNIQUE_TABLE_NAME);
+                }
+            }
+        }
+    }
+
     @Override
     public void createPropertySet(ElementPropertySet set) {
            set.put("BASIC_PROP", PropertiesHandler.getIndexProperties(this));
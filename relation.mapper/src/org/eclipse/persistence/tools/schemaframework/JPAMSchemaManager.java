@@ -88,6 +88,10 @@ public class JPAMSchemaManager {
     public JPAMSchemaManager(DBMapping dbMapping, DatabaseSessionImpl session) {
         this.dbMapping = dbMapping;
         this.session = session;
+        if (!session.isConnected()) {
+            // offline derivation, the constraints are only written out
+            outputDDLToWriter(new StringWriter());
+        }
     }
 
     public JPAMSchemaManager(org.eclipse.persistence.sessions.DatabaseSession session) {
@@ -423,7 +427,7 @@ public class JPAMSchemaManager {
                     // Check if it exists on the database. NOTE: when writing to scripts only with
                     // no connection, this of course will always return false hence the need for
                     // the createdSequenceTableNames collection above.
-                    boolean exists = checkTableExists(tableDefinition);
+                    boolean exists = shouldWriteToDatabase() && checkTableExists(tableDefinition);
 
                     if (createTables) {
                         // Don't create it if it already exists on the database.
@@ -506,7 +510,9 @@ public class JPAMSchemaManager {
         Sequencing sequencing = getSession().getSequencing();
 
         // Not required on Sybase native etc.
-        if (sequencing != null && sequencing.whenShouldAcquireValueForAll() != Sequencing.AFTER_INSERT) {
+        // Sequencing is only initialized on login, without it the identity
+        // sequences are filtered out by buildSequenceDefinition.
+        if (sequencing == null || sequencing.whenShouldAcquireValueForAll() != Sequencing.AFTER_INSERT) {
             // Build the sequence definitions.
             HashSet<SequenceDefinition> sequenceDefinitions = buildSequenceDefinitions();
 
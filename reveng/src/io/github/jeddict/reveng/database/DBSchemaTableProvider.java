@@ -29,12 +29,12 @@ import org.netbeans.api.project.ProjectUtils;
 import org.netbeans.api.project.SourceGroup;
 import org.netbeans.api.project.Sources;
 import io.github.jeddict.reveng.database.generator.IPersistenceModelGenerator;
+import io.github.jeddict.reveng.database.generator.SchemaIndex;
 import org.netbeans.modules.dbschema.ColumnElement;
 import org.netbeans.modules.dbschema.ForeignKeyElement;
 import org.netbeans.modules.dbschema.SchemaElement;
 import org.netbeans.modules.dbschema.TableElement;
 import org.netbeans.modules.dbschema.UniqueKeyElement;
-import org.netbeans.modules.j2ee.persistence.entitygenerator.DbSchemaEjbGenerator;
 import org.netbeans.modules.j2ee.persistence.wizard.fromdb.Table;
 import org.netbeans.modules.j2ee.persistence.wizard.fromdb.Table.DisabledReason;
 import org.netbeans.modules.j2ee.persistence.wizard.fromdb.Table.NoPrimaryKeyDisabledReason;
@@ -50,7 +50,8 @@ public class DBSchemaTableProvider implements TableProvider {
     private final SchemaElement schemaElement;
     private final IPersistenceModelGenerator persistenceGen;
     private final Set<Table> tables;
-    private Set<String> tablesReferecedByOtherTables;
+    private final SchemaIndex schemaIndex;
+    private final Map<String, DBSchemaTable> name2Table = new HashMap<>();
     private Project project;
 
     public DBSchemaTableProvider(SchemaElement schemaElement, IPersistenceModelGenerator persistenceGen) {
@@ -63,7 +64,7 @@ public class DBSchemaTableProvider implements TableProvider {
         this.project = project;
         this.persistenceGen = persistenceGen;
 
-        tablesReferecedByOtherTables = DbSchemaEjbGenerator.getTablesReferecedByOtherTables(schemaElement);
+        schemaIndex = new SchemaIndex(schemaElement);
         tables = buildTables();
 
     }
@@ -73,12 +74,12 @@ public class DBSchemaTableProvider implements TableProvider {
         return tables;
     }
 
+    /**
+     * Creates the tables with the metadata needed to list them (name, join
+     * table, disabled reason), the references between tables and the unique
+     * constraints are resolved from the schema index when first requested.
+     */
     private Set<Table> buildTables() {
-        Map<String, DBSchemaTable> name2Table = new HashMap<>();
-        Map<String, Set<Table>> name2Referenced = new HashMap<>();
-        Map<String, Set<Table>> name2ReferencedBy = new HashMap<>();
-        Map<String, Set<Table>> name2Join = new HashMap<>();
-
         // need to create all the tables first
         TableElement[] tableElements = schemaElement.getTables();
         //classpath is used for verification
@@ -91,7 +92,7 @@ public class DBSchemaTableProvider implements TableProvider {
             source = ClassPath.getClassPath(fo, ClassPath.SOURCE);
         }
         for (TableElement tableElement : tableElements) {
-            boolean join = DbSchemaEjbGenerator.isJoinTable(tableElement, tablesReferecedByOtherTables);
+            boolean join = schemaIndex.isJoinTable(tableElement);
 
             List<DisabledReason> disabledReasons = getDisabledReasons(tableElement, persistenceGen, source);
             DisabledReason disabledReason = null;
@@ -108,54 +109,24 @@ public class DBSchemaTableProvider implements TableProvider {
             String catalogName = tableElement.getDeclaringSchema().getCatalog().getName();
             String schemaName = tableElement.getDeclaringSchema().getSchema().getName();
             String tableName = tableElement.getName().getName();
-            DBSchemaTable table = new DBSchemaTable(catalogName, schemaName, tableName, join, disabledReason, persistenceGen, tableElement.isTable());
-
-            // Set the unique constraints columns
-            table.setUniqueConstraints(getUniqueConstraints(tableElement));
-
-            name2Table.put(tableName, table);
-            name2Referenced.put(tableName, new HashSet<>());
-            name2ReferencedBy.put(tableName, new HashSet<>());
-            name2Join.put(tableName, new HashSet<>());
+            name2Table.put(tableName, new DBSchemaTable(catalogName, schemaName, tableName, join, disabledReason, persistenceGen, tableElement.isTable()));
         }
+        return Collections.unmodifiableSet(new HashSet<>(name2Table.values()));
+    }
 
-        // referenced, referenced by and join tables
-        for (TableElement tableElement : tableElements) {
-            if (!tableElement.isTable()) {
-                continue;
-            }
-
-            String tableName = tableElement.getName().getName();
+    /**
+     * @param tableNames the names of the tables
+     * @param joinOnly include only the join tables
+     * @return the tables (views excluded)
+     */
+    private Set<Table> getTables(Set<String> tableNames, boolean joinOnly) {
+        Set<Table> result = new HashSet<>();
+        for (String tableName : tableNames) {
             Table table = name2Table.get(tableName);
-
-            ForeignKeyElement[] foreignKeyElements = tableElement.getForeignKeys();
-            if (foreignKeyElements != null) {
-                for (ForeignKeyElement foreignKeyElement : foreignKeyElements) {
-                    TableElement referencedTableElement = foreignKeyElement.getReferencedTable();
-                    String referencedTableName = referencedTableElement.getName().getName();
-                    Table referencedTable = name2Table.get(referencedTableName);
-
-                    name2Referenced.get(tableName).add(referencedTable);
-                    name2ReferencedBy.get(referencedTableName).add(table);
-
-                    if (table.isJoin()) {
-                        name2Join.get(referencedTableName).add(table);
-                    }
-                }
+            if (table != null && table.isTable() && (!joinOnly || table.isJoin())) {
+                result.add(table);
             }
         }
-
-        Set<Table> result = new HashSet<>();
-        for (DBSchemaTable table : name2Table.values()) {
-            String tableName = table.getName();
-
-            table.setReferencedTables(Collections.unmodifiableSet(name2Referenced.get(tableName)));
-            table.setReferencedByTables(Collections.unmodifiableSet(name2ReferencedBy.get(tableName)));
-            table.setJoinTables(Collections.unmodifiableSet(name2Join.get(tableName)));
-
-            result.add(table);
-        }
-
         return Collections.unmodifiableSet(result);
     }
 
@@ -201,7 +172,7 @@ public class DBSchemaTableProvider implements TableProvider {
         return tableElement.getPrimaryKey() == null;
     }
 
-    private static final class DBSchemaTable extends Table {
+    private final class DBSchemaTable extends Table {
 
         private Set<Table> referencedTables;
         private Set<Table> referencedByTables;
@@ -219,39 +190,35 @@ public class DBSchemaTableProvider implements TableProvider {
         }
 
         @Override
-        public Set<Table> getReferencedTables() {
+        public synchronized Set<Table> getReferencedTables() {
+            if (referencedTables == null) {
+                referencedTables = isTable() ? getTables(schemaIndex.getReferencedTableNames(getName()), false) : Collections.emptySet();
+            }
             return referencedTables;
         }
 
-        private void setReferencedTables(Set<Table> referencedTables) {
-            this.referencedTables = referencedTables;
-        }
-
         @Override
-        public Set<Table> getReferencedByTables() {
+        public synchronized Set<Table> getReferencedByTables() {
+            if (referencedByTables == null) {
+                referencedByTables = getTables(schemaIndex.getReferrerTableNames(getName()), false);
+            }
             return referencedByTables;
         }
 
-        private void setReferencedByTables(Set<Table> referencedByTables) {
-            this.referencedByTables = referencedByTables;
-        }
-
         @Override
-        public Set<Table> getJoinTables() {
+        public synchronized Set<Table> getJoinTables() {
+            if (joinTables == null) {
+                joinTables = getTables(schemaIndex.getReferrerTableNames(getName()), true);
+            }
             return joinTables;
         }
 
-        private void setJoinTables(Set<Table> joinTables) {
-            this.joinTables = joinTables;
-        }
-
         @Override
-        public Set<List<String>> getUniqueConstraints() {
-            return this.uniqueConstraints;
-        }
-
-        public void setUniqueConstraints(Set<List<String>> constraints) {
-            this.uniqueConstraints = constraints;
+        public synchronized Set<List<String>> getUniqueConstraints() {
+            if (uniqueConstraints == null) {
+                uniqueConstraints = DBSchemaTableProvider.this.getUniqueConstraints(schemaIndex.getTable(getName()));
+            }
+            return uniqueConstraints;
         }
     }
 }
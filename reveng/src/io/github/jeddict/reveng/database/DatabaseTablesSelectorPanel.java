@@ -28,14 +28,18 @@ import java.util.List;
 import java.util.Set;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 import javax.swing.event.AncestorEvent;
 import javax.swing.event.AncestorListener;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import org.netbeans.api.db.explorer.ConnectionManager;
@@ -104,6 +108,9 @@ public class DatabaseTablesSelectorPanel extends javax.swing.JPanel implements A
 
     private Project project;
 
+    private JButton refreshButton;
+    private boolean refreshSchema;
+
     public DatabaseTablesSelectorPanel() {
         initComponents();
         initInitial();
@@ -112,6 +119,68 @@ public class DatabaseTablesSelectorPanel extends javax.swing.JPanel implements A
         };
         availableTablesList.getSelectionModel().addListSelectionListener(selectionListener);
         selectedTablesList.getSelectionModel().addListSelectionListener(selectionListener);
+        initTableFilter();
+        initRefreshButton();
+    }
+
+    /**
+     * Adds a button next to the data sources capturing the schema again,
+     * instead of reusing its snapshot.
+     */
+    private void initRefreshButton() {
+        refreshButton = new JButton();
+        org.openide.awt.Mnemonics.setLocalizedText(refreshButton, NbBundle.getMessage(DatabaseTablesSelectorPanel.class, "LBL_RefreshSchema"));
+        refreshButton.setToolTipText(NbBundle.getMessage(DatabaseTablesSelectorPanel.class, "TXT_RefreshSchema"));
+        refreshButton.setEnabled(false);
+        refreshButton.addActionListener(e -> {
+            refreshSchema = true;
+            try {
+                updateSourceSchema();
+            } finally {
+                refreshSchema = false;
+            }
+        });
+        java.awt.GridBagConstraints gridBagConstraints = new java.awt.GridBagConstraints();
+        gridBagConstraints.gridx = 3;
+        gridBagConstraints.gridy = 0;
+        gridBagConstraints.anchor = java.awt.GridBagConstraints.NORTHWEST;
+        gridBagConstraints.insets = new java.awt.Insets(1, 2, 0, 0);
+        comboPanel.add(refreshButton, gridBagConstraints);
+    }
+
+    /**
+     * Adds a filter field on top of the available tables, for schemas with
+     * thousands of tables.
+     */
+    private void initTableFilter() {
+        JTextField filterField = new JTextField();
+        filterField.setToolTipText(NbBundle.getMessage(DatabaseTablesSelectorPanel.class, "TXT_FilterTables"));
+        filterField.getAccessibleContext().setAccessibleName(NbBundle.getMessage(DatabaseTablesSelectorPanel.class, "ACSN_FilterTables"));
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterChanged();
+            }
+
+            private void filterChanged() {
+                availableTablesList.clearSelection();
+                TableUISupport.filterAvailable(availableTablesList, filterField.getText().trim());
+                if (tableClosure != null) {
+                    updateButtons();
+                }
+            }
+        });
+        availableTablesScrollPane.setColumnHeaderView(filterField);
     }
 
     public void addChangeListener(ChangeListener listener) {
@@ -504,7 +573,7 @@ public class DatabaseTablesSelectorPanel extends javax.swing.JPanel implements A
                 }
                 if (dbconn != null) {
                     try {
-                        sourceSchemaElement = dbschemaManager.getSchemaElement(dbconn);
+                        sourceSchemaElement = SchemaSnapshotCache.getSchemaElement(project, dbconn, dbschemaManager, refreshSchema);
                         datasourceName = jpaDS.getJndiName();
                     } catch (SQLException e) {
                         notify(NbBundle.getMessage(DatabaseTablesSelectorPanel.class, "ERR_DatabaseError"));
@@ -513,7 +582,7 @@ public class DatabaseTablesSelectorPanel extends javax.swing.JPanel implements A
             } else if (item instanceof DatabaseConnection) {
                 dbconn = (DatabaseConnection) item;
                 try {
-                    sourceSchemaElement = dbschemaManager.getSchemaElement(dbconn);
+                    sourceSchemaElement = SchemaSnapshotCache.getSchemaElement(project, dbconn, dbschemaManager, refreshSchema);
                 } catch (SQLException e) {
                     notify(NbBundle.getMessage(DatabaseTablesSelectorPanel.class, "ERR_DatabaseError"));
                 } finally {
@@ -557,6 +626,7 @@ public class DatabaseTablesSelectorPanel extends javax.swing.JPanel implements A
     private void updateSourceSchemaComboBoxes() {
         datasourceComboBox.setEnabled(datasourceRadioButton.isSelected());
         dbschemaComboBox.setEnabled(dbschemaRadioButton.isSelected());
+        refreshButton.setEnabled(datasourceRadioButton.isSelected());
     }
 
     private void updateButtons() {
@@ -0,0 +1,252 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.reveng.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.api.db.explorer.DatabaseConnection;
+import org.netbeans.api.project.Project;
+import org.netbeans.api.project.ProjectUtils;
+import org.netbeans.modules.dbschema.SchemaElement;
+import org.netbeans.modules.dbschema.SchemaElementUtil;
+import org.netbeans.modules.j2ee.persistence.wizard.fromdb.DBSchemaManager;
+import org.openide.filesystems.FileObject;
+
+/**
+ * Snapshots of the database schemas captured for the DB import, stored in
+ * the cache directory of the project and keyed by connection URL, user and
+ * schema.
+ *
+ * A snapshot is reused as long as the fingerprint of the tables, columns and
+ * key constraints of the live schema is unchanged, otherwise the schema is
+ * captured again. The fingerprint is read with a few schema wide queries
+ * instead of the per table queries of the full capture.
+ */
+public final class SchemaSnapshotCache {
+
+    private static final Logger LOG = Logger.getLogger(SchemaSnapshotCache.class.getName());
+    private static final String VERSION = "3"; // NOI18N
+    private static final String VERSION_KEY = "version"; // NOI18N
+    private static final String FINGERPRINT_KEY = "fingerprint"; // NOI18N
+    private static final String URL_KEY = "url"; // NOI18N
+    private static final String SCHEMA_KEY = "schema"; // NOI18N
+    private static final String SNAPSHOT_EXT = "dbschema"; // NOI18N
+    private static final String DESCRIPTOR_EXT = "properties"; // NOI18N
+
+    private static final String KEY_CONSTRAINTS_QUERY
+            = "SELECT tc.TABLE_NAME, tc.CONSTRAINT_NAME, tc.CONSTRAINT_TYPE, kcu.COLUMN_NAME, kcu.ORDINAL_POSITION, " // NOI18N
+            + "rc.UNIQUE_CONSTRAINT_SCHEMA, rc.UNIQUE_CONSTRAINT_NAME " // NOI18N
+            + "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " // NOI18N
+            + "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " // NOI18N
+            + "AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME AND kcu.TABLE_NAME = tc.TABLE_NAME " // NOI18N
+            + "LEFT JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc ON rc.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " // NOI18N
+            + "AND rc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " // NOI18N
+            + "WHERE tc.TABLE_SCHEMA = ? AND tc.CONSTRAINT_TYPE IN ('PRIMARY KEY', 'FOREIGN KEY', 'UNIQUE') " // NOI18N
+            + "ORDER BY tc.TABLE_NAME, tc.CONSTRAINT_NAME, kcu.ORDINAL_POSITION"; // NOI18N
+
+    private static final String ORACLE_KEY_CONSTRAINTS_QUERY
+            = "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME, c.CONSTRAINT_TYPE, cc.COLUMN_NAME, cc.POSITION, " // NOI18N
+            + "c.R_OWNER, c.R_CONSTRAINT_NAME " // NOI18N
+            + "FROM ALL_CONSTRAINTS c JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME " // NOI18N
+            + "WHERE c.OWNER = ? AND c.CONSTRAINT_TYPE IN ('P', 'R', 'U') " // NOI18N
+            + "ORDER BY c.TABLE_NAME, c.CONSTRAINT_NAME, cc.POSITION"; // NOI18N
+
+    private SchemaSnapshotCache() {
+    }
+
+    /**
+     * @param project the project storing the snapshot, if null the schema is
+     * always captured
+     * @param dbconn the connection to the database
+     * @param dbschemaManager the manager capturing the schema
+     * @return the snapshot if up to date, otherwise the captured schema
+     * @throws SQLException
+     */
+    public static SchemaElement getSchemaElement(Project project, DatabaseConnection dbconn, DBSchemaManager dbschemaManager) throws SQLException {
+        return getSchemaElement(project, dbconn, dbschemaManager, false);
+    }
+
+    /**
+     * @param project the project storing the snapshot, if null the schema is
+     * always captured
+     * @param dbconn the connection to the database
+     * @param dbschemaManager the manager capturing the schema
+     * @param refresh true to capture the schema and replace the snapshot even
+     * if it is up to date
+     * @return the snapshot if up to date, otherwise the captured schema
+     * @throws SQLException
+     */
+    public static SchemaElement getSchemaElement(Project project, DatabaseConnection dbconn, DBSchemaManager dbschemaManager, boolean refresh) throws SQLException {
+        if (project == null || dbconn.getJDBCConnection() == null) {
+            return dbschemaManager.getSchemaElement(dbconn);
+        }
+        String key = digest(dbconn.getDatabaseURL() + '\n' + dbconn.getUser() + '\n' + dbconn.getSchema());
+        String fingerprint = null;
+        FileObject cacheDir = null;
+        try {
+            fingerprint = fingerprint(dbconn);
+            cacheDir = ProjectUtils.getCacheDirectory(project, SchemaSnapshotCache.class);
+            SchemaElement snapshot = refresh ? null : loadSnapshot(cacheDir, key, fingerprint);
+            if (snapshot != null) {
+                LOG.log(Level.FINE, "Schema snapshot of {0} is up to date", dbconn.getDatabaseURL()); // NOI18N
+                return snapshot;
+            }
+        } catch (IOException | SQLException ex) {
+            LOG.log(Level.INFO, "Unable to use the schema snapshot of " + dbconn.getDatabaseURL(), ex);
+        }
+
+        SchemaElement schemaElement = dbschemaManager.getSchemaElement(dbconn);
+        if (schemaElement != null && cacheDir != null && fingerprint != null) {
+            try {
+                saveSnapshot(cacheDir, key, fingerprint, dbconn, schemaElement);
+            } catch (IOException ex) {
+                LOG.log(Level.INFO, "Unable to store the schema snapshot of " + dbconn.getDatabaseURL(), ex);
+            }
+        }
+        return schemaElement;
+    }
+
+    private static SchemaElement loadSnapshot(FileObject cacheDir, String key, String fingerprint) throws IOException {
+        FileObject descriptorFile = cacheDir.getFileObject(key, DESCRIPTOR_EXT);
+        FileObject snapshotFile = cacheDir.getFileObject(key, SNAPSHOT_EXT);
+        if (descriptorFile == null || snapshotFile == null) {
+            return null;
+        }
+        Properties descriptor = new Properties();
+        try (InputStream stream = descriptorFile.getInputStream()) {
+            descriptor.load(stream);
+        }
+        if (!VERSION.equals(descriptor.getProperty(VERSION_KEY))
+                || !fingerprint.equals(descriptor.getProperty(FINGERPRINT_KEY))) {
+            return null;
+        }
+        return SchemaElementUtil.forName(snapshotFile);
+    }
+
+    private static void saveSnapshot(FileObject cacheDir, String key, String fingerprint,
+            DatabaseConnection dbconn, SchemaElement schemaElement) throws IOException {
+        FileObject snapshotFile = cacheDir.getFileObject(key, SNAPSHOT_EXT);
+        if (snapshotFile == null) {
+            snapshotFile = cacheDir.createData(key, SNAPSHOT_EXT);
+        }
+        try (OutputStream stream = snapshotFile.getOutputStream()) {
+            schemaElement.save(stream);
+        }
+
+        Properties descriptor = new Properties();
+        descriptor.setProperty(VERSION_KEY, VERSION);
+        descriptor.setProperty(FINGERPRINT_KEY, fingerprint);
+        descriptor.setProperty(URL_KEY, dbconn.getDatabaseURL());
+        if (dbconn.getSchema() != null) {
+            descriptor.setProperty(SCHEMA_KEY, dbconn.getSchema());
+        }
+        FileObject descriptorFile = cacheDir.getFileObject(key, DESCRIPTOR_EXT);
+        if (descriptorFile == null) {
+            descriptorFile = cacheDir.createData(key, DESCRIPTOR_EXT);
+        }
+        try (OutputStream stream = descriptorFile.getOutputStream()) {
+            descriptor.store(stream, "Jeddict schema snapshot"); // NOI18N
+        }
+    }
+
+    /**
+     * @return the digest of the tables, views, columns and key constraints of
+     * the schema, read with schema wide queries only
+     */
+    private static String fingerprint(DatabaseConnection dbconn) throws SQLException {
+        Connection connection = dbconn.getJDBCConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        String schema = dbconn.getSchema();
+        StringBuilder builder = new StringBuilder();
+        try (ResultSet tables = metaData.getTables(catalog, schema, "%", new String[]{"TABLE", "VIEW"})) { // NOI18N
+            while (tables.next()) {
+                builder.append(tables.getString("TABLE_NAME")).append(':') // NOI18N
+                        .append(tables.getString("TABLE_TYPE")).append('\n'); // NOI18N
+            }
+        }
+        try (ResultSet columns = metaData.getColumns(catalog, schema, "%", "%")) { // NOI18N
+            while (columns.next()) {
+                builder.append(columns.getString("TABLE_NAME")).append('.') // NOI18N
+                        .append(columns.getString("COLUMN_NAME")).append(':') // NOI18N
+                        .append(columns.getInt("DATA_TYPE")).append(':') // NOI18N
+                        .append(columns.getString("TYPE_NAME")).append(':') // NOI18N
+                        .append(columns.getInt("COLUMN_SIZE")).append(':') // NOI18N
+                        .append(columns.getInt("DECIMAL_DIGITS")).append(':') // NOI18N
+                        .append(columns.getInt("NULLABLE")).append('\n'); // NOI18N
+            }
+        }
+        appendKeyConstraints(connection, metaData, schema != null ? schema : catalog, builder);
+        return digest(builder.toString());
+    }
+
+    /**
+     * Appends the primary key, foreign key and unique constraints of the
+     * schema, read from the catalog views of the database in a single query.
+     * If the database has no such view, only the tables and columns are
+     * fingerprinted and a change of the keys requires a refresh.
+     */
+    private static void appendKeyConstraints(Connection connection, DatabaseMetaData metaData, String schema, StringBuilder builder) {
+        if (schema == null) {
+            return;
+        }
+        String productName = null;
+        try {
+            productName = metaData.getDatabaseProductName();
+            String query = productName != null && productName.toLowerCase().contains("oracle") // NOI18N
+                    ? ORACLE_KEY_CONSTRAINTS_QUERY : KEY_CONSTRAINTS_QUERY;
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, schema);
+                try (ResultSet constraints = statement.executeQuery()) {
+                    while (constraints.next()) {
+                        builder.append(constraints.getString(1)).append(' ') // table
+                                .append(constraints.getString(3)).append(' ') // type
+                                .append(constraints.getString(2)).append(':') // name
+                                .append(constraints.getString(4)).append(':') // column
+                                .append(constraints.getInt(5)).append(':') // position
+                                .append(constraints.getString(6)).append('.') // referenced constraint
+                                .append(constraints.getString(7)).append('\n');
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            LOG.log(Level.FINE, "Key constraints of the schema snapshot not available for " + productName, ex);
+        }
+    }
+
+    private static String digest(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1"); // NOI18N
+            return String.format("%040x", new BigInteger(1, digest.digest(text.getBytes(StandardCharsets.UTF_8))));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
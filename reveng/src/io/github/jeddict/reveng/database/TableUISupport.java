@@ -17,11 +17,13 @@ package io.github.jeddict.reveng.database;
 
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.FontMetrics;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import javax.swing.AbstractListModel;
 import javax.swing.DefaultListCellRenderer;
@@ -33,6 +35,8 @@ import javax.swing.ListModel;
 import javax.swing.UIManager;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.TableCellEditor;
@@ -53,7 +57,11 @@ public class TableUISupport {
     }
 
     public static void connectAvailable(JList availableTablesList, TableClosure tableClosure) {
-        availableTablesList.setModel(new AvailableTablesModel(tableClosure));
+        String filter = null;
+        if (availableTablesList.getModel() instanceof AvailableTablesModel) {
+            filter = ((AvailableTablesModel) availableTablesList.getModel()).filter;
+        }
+        availableTablesList.setModel(new AvailableTablesModel(tableClosure, filter));
         if (!(availableTablesList.getCellRenderer() instanceof AvailableTableRenderer)) {
             availableTablesList.setCellRenderer(new AvailableTableRenderer());
         }
@@ -63,6 +71,18 @@ public class TableUISupport {
 //        }
     }
 
+    /**
+     * Shows only the available tables whose name contains the filter.
+     *
+     * @param availableTablesList the list connected to the available tables
+     * @param filter the filter, ignoring case, null or empty for all tables
+     */
+    public static void filterAvailable(JList availableTablesList, String filter) {
+        if (availableTablesList.getModel() instanceof AvailableTablesModel) {
+            ((AvailableTablesModel) availableTablesList.getModel()).setFilter(filter);
+        }
+    }
+
     public static void connectSelected(JList selectedTablesList, TableClosure tableClosure) {
         selectedTablesList.setModel(new SelectedTablesModel(tableClosure));
 
@@ -81,10 +101,8 @@ public class TableUISupport {
         int[] selected = list.getSelectedIndices();
         for (int i = 0; i < selected.length; i++) {
             Table table = (Table) list.getModel().getElementAt(selected[i]);
-            if (enabledOnly) {
-                if (!list.getCellRenderer().getListCellRendererComponent(list, table, selected[i], false, false).isEnabled()) {
-                    continue;
-                }
+            if (enabledOnly && !isEnabled(list, table, selected[i])) {
+                continue;
             }
             result.add(table);
         }
@@ -97,7 +115,7 @@ public class TableUISupport {
 
         for (int i = 0; i < list.getModel().getSize(); i++) {
             Table table = (Table) list.getModel().getElementAt(i);
-            if (!list.getCellRenderer().getListCellRendererComponent(list, table, i, false, false).isEnabled()) {
+            if (!isEnabled(list, table, i)) {
                 continue;
             }
             result.add(table);
@@ -106,6 +124,25 @@ public class TableUISupport {
         return result;
     }
 
+    private static boolean isEnabled(JList list, Table table, int index) {
+        if (list.getCellRenderer() instanceof AvailableTableRenderer) {
+            // avoids rendering every row of large lists
+            return AvailableTableRenderer.isEnabled(table);
+        }
+        return list.getCellRenderer().getListCellRendererComponent(list, table, index, false, false).isEnabled();
+    }
+
+    private static String getDisplayName(Table table) {
+        DisabledReason disabledReason = table.getDisabledReason();
+        if (disabledReason != null) {
+            return NbBundle.getMessage(TableUISupport.class, "LBL_TableNameWithDisabledReason", table.getName(), disabledReason.getDisplayName());
+        } else if (table.isTable()) {
+            return table.getName();
+        } else {
+            return table.getName() + NbBundle.getMessage(TableUISupport.class, "LBL_DB_VIEW");
+        }
+    }
+
     public static void connectClassNames(JTable table, SelectedTables selectedTables) {
         table.setModel(new TableClassNamesModel(selectedTables));
         setRenderer(table.getColumnModel().getColumn(0));
@@ -130,12 +167,20 @@ public class TableUISupport {
 
         private List<Table> displayTables;
 
-        public AvailableTablesModel(TableClosure tableClosure) {
+        private String filter;
+
+        public AvailableTablesModel(TableClosure tableClosure, String filter) {
             this.tableClosure = tableClosure;
+            this.filter = filter;
             tableClosure.addChangeListener(this);
             refresh();
         }
 
+        private void setFilter(String filter) {
+            this.filter = filter;
+            refresh();
+        }
+
         @Override
         public Table getElementAt(int index) {
             return displayTables.get(index);
@@ -153,7 +198,17 @@ public class TableUISupport {
 
         private void refresh() {
             int oldSize = getSize();
-            displayTables = new ArrayList<>(tableClosure.getAvailableTables());
+            if (filter == null || filter.isEmpty()) {
+                displayTables = new ArrayList<>(tableClosure.getAvailableTables());
+            } else {
+                String upperFilter = filter.toUpperCase(Locale.ENGLISH);
+                displayTables = new ArrayList<>();
+                for (Table table : tableClosure.getAvailableTables()) {
+                    if (table.getName().toUpperCase(Locale.ENGLISH).contains(upperFilter)) {
+                        displayTables.add(table);
+                    }
+                }
+            }
             Collections.sort(displayTables);
             fireIntervalRemoved(this, 0, oldSize);
             fireIntervalAdded(this, 0, getSize());
@@ -211,28 +266,30 @@ public class TableUISupport {
             DisabledReason disabledReason = null;
             Object displayName = null;
 
+            boolean enabled = true;
+
             if (value instanceof Table) {
                 Table tableItem = (Table) value;
                 disabledReason = tableItem.getDisabledReason();
-                if (disabledReason != null) {
-                    displayName = NbBundle.getMessage(TableUISupport.class, "LBL_TableNameWithDisabledReason", tableItem.getName(), disabledReason.getDisplayName());
-                } else if (tableItem.isTable()) {
-                    displayName = tableItem.getName();
-                } else {
-                    displayName = tableItem.getName() + NbBundle.getMessage(TableUISupport.class, "LBL_DB_VIEW");
-                }
+                displayName = getDisplayName(tableItem);
+                enabled = isEnabled(tableItem);
             }
 
             JLabel component = (JLabel) super.getListCellRendererComponent(list, displayName, index, isSelected, cellHasFocus);
-            boolean needDisable = (disabledReason instanceof Table.NoPrimaryKeyDisabledReason)
-                    || (disabledReason instanceof Table.ExistingNotInSourceDisabledReason)
-                    || (disabledReason instanceof Table.ExistingDisabledReason);
-            component.setEnabled(!needDisable);
+            component.setEnabled(enabled);
             component.setToolTipText(disabledReason != null ? disabledReason.getDescription() : null);
 
             return component;
         }
 
+        private static boolean isEnabled(Table table) {
+            DisabledReason disabledReason = table.getDisabledReason();
+            boolean needDisable = (disabledReason instanceof Table.NoPrimaryKeyDisabledReason)
+                    || (disabledReason instanceof Table.ExistingNotInSourceDisabledReason)
+                    || (disabledReason instanceof Table.ExistingDisabledReason);
+            return !needDisable;
+        }
+
 //        void updateFilter(FilterAvailable filter) {
 //            this.filter = filter;
 //        }
@@ -251,13 +308,7 @@ public class TableUISupport {
                 table = (Table) value;
 
                 disabledReason = table.getDisabledReason();
-                if (disabledReason != null) {
-                    displayName = NbBundle.getMessage(TableUISupport.class, "LBL_TableNameWithDisabledReason", table.getName(), disabledReason.getDisplayName());
-                } else if (((Table) value).isTable()) {
-                    displayName = table.getName();
-                } else {
-                    displayName = table.getName() + NbBundle.getMessage(TableUISupport.class, "LBL_DB_VIEW");
-                }
+                displayName = getDisplayName(table);
 
                 if (list.getModel() instanceof SelectedTablesModel) {
                     SelectedTablesModel model = (SelectedTablesModel) list.getModel();
@@ -492,8 +543,59 @@ public class TableUISupport {
         }
     }
 
+    /**
+     * List of tables with a fixed cell size, computed from the table names
+     * instead of rendering every row, so that the layout of a list of
+     * thousands of tables renders only the visible rows.
+     */
     private static final class TableJList extends JList {
 
+        private final ListDataListener cellSizeUpdater = new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                updateFixedCellSize();
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                updateFixedCellSize();
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                updateFixedCellSize();
+            }
+        };
+
+        @Override
+        public void setModel(ListModel model) {
+            ListModel oldModel = getModel();
+            if (oldModel != null) {
+                oldModel.removeListDataListener(cellSizeUpdater);
+            }
+            super.setModel(model);
+            model.addListDataListener(cellSizeUpdater);
+            updateFixedCellSize();
+        }
+
+        private void updateFixedCellSize() {
+            ListModel model = getModel();
+            if (!(model instanceof TableModel) || getFont() == null) {
+                setFixedCellHeight(-1);
+                setFixedCellWidth(-1);
+                return;
+            }
+            TableModel tablesModel = (TableModel) model;
+            Component prototype = new DefaultListCellRenderer().getListCellRendererComponent(this, " ", 0, false, false);
+            FontMetrics metrics = getFontMetrics(getFont());
+            int textWidth = 0;
+            for (int i = 0; i < tablesModel.getSize(); i++) {
+                textWidth = Math.max(textWidth, metrics.stringWidth(getDisplayName(tablesModel.getElementAt(i))));
+            }
+            setFixedCellHeight(prototype.getPreferredSize().height);
+            setFixedCellWidth(prototype.getPreferredSize().width + textWidth);
+        }
+
         @Override
         public int getNextMatch(String prefix, int startIndex, Bias bias) {
             ListModel model = getModel();
@@ -52,11 +52,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.netbeans.modules.dbschema.ColumnElement;
 import org.netbeans.modules.dbschema.ColumnPairElement;
-import org.netbeans.modules.dbschema.DBIdentifier;
 import org.netbeans.modules.dbschema.ForeignKeyElement;
 import org.netbeans.modules.dbschema.SchemaElement;
 import org.netbeans.modules.dbschema.TableElement;
@@ -82,6 +83,8 @@ public class DbSchemaEjbGenerator {
     private Map beans = new HashMap();
     private List relations = new ArrayList();
     private SchemaElement schemaElement;
+    private final SchemaIndex schemaIndex;
+    private final Map<EntityClass, Set<String>> fieldNames = new HashMap<>();
     private Set<String> tablesReferecedByOtherTables;
     private Set<String> primaryKeyIsForeignKeyTables;
     private final CollectionType colectionType;
@@ -121,9 +124,13 @@ public class DbSchemaEjbGenerator {
         this.useDefaults = useDefaults;
         //warningMessages = new ArrayList<String>();
 
-        tablesReferecedByOtherTables = getTablesReferecedByOtherTables(schemaElement);
-        primaryKeyIsForeignKeyTables = getTablesReferencesOtherTablesWithPrimaryKeyMatch(schemaElement);
+        long start = System.nanoTime();
+        schemaIndex = new SchemaIndex(schemaElement);
+        tablesReferecedByOtherTables = schemaIndex.getTablesReferecedByOtherTables();
+        primaryKeyIsForeignKeyTables = schemaIndex.getTablesReferencesOtherTablesWithPrimaryKeyMatch();
         buildCMPSet();
+        LOGGER.log(Level.FINE, "Schema analysis of {0} tables in {1} ms", //NOI18N
+                new Object[]{genTables.getTableNames().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
     }
 
     /**
@@ -181,6 +188,10 @@ public class DbSchemaEjbGenerator {
      * tables to generate.
      */
     public static boolean isJoinTable(TableElement e, Set<String> tablesReferecedByOtherTables) {
+        return isJoinTable(e, tablesReferecedByOtherTables, DbSchemaEjbGenerator::isFkUnique);
+    }
+
+    static boolean isJoinTable(TableElement e, Set<String> tablesReferecedByOtherTables, Predicate<ForeignKeyElement> fkUnique) {
         ForeignKeyElement[] foreignKeys = e.getForeignKeys();
 //        foreignKeys[0].getKeyName()
         if (foreignKeys == null
@@ -204,7 +215,7 @@ public class DbSchemaEjbGenerator {
         }
 
         // issue 90962: a table whose foreign keys are unique is not a join table
-        if (isFkUnique(foreignKeys[0]) || isFkUnique(foreignKeys[1])) {
+        if (fkUnique.test(foreignKeys[0]) || fkUnique.test(foreignKeys[1])) {
             return false;
         }
 
@@ -216,19 +227,16 @@ public class DbSchemaEjbGenerator {
         return true;
     }
 
-    private boolean isForeignKey(ForeignKeyElement[] fks,
-            ColumnElement col) {
-        if (fks == null) {
-            return false;
-        }
-
-        for (ForeignKeyElement fk : fks) {
-            if (fk.getColumn(col.getName()) != null) {
-                return true;
+    private Set<String> getForeignKeyColumnNames(ForeignKeyElement[] fks) {
+        Set<String> columnNames = new HashSet<>();
+        if (fks != null) {
+            for (ForeignKeyElement fk : fks) {
+                for (ColumnElement column : fk.getLocalColumns()) {
+                    columnNames.add(column.getName().getName());
+                }
             }
         }
-
-        return false;
+        return columnNames;
     }
 
     public EntityClass[] getBeans() {
@@ -267,9 +275,8 @@ public class DbSchemaEjbGenerator {
     private void addAllTables() {
         List<TableElement> joinTables = new LinkedList<>();
         for (String tableName : genTables.getTableNames()) {
-            TableElement tableElement
-                    = schemaElement.getTable(DBIdentifier.create(tableName));
-            if (isJoinTable(tableElement, tablesReferecedByOtherTables)) {
+            TableElement tableElement = schemaIndex.getTable(tableName);
+            if (schemaIndex.isJoinTable(tableElement)) {
                 joinTables.add(tableElement);
             } else {
                 addBean(tableName);
@@ -345,15 +352,10 @@ public class DbSchemaEjbGenerator {
         String roleBCmr = EntityMember.makeRelationshipFieldName(roleAClassName, colectionType, true);
 
         roleACmr = uniqueAlgorithm(getFieldNames(roleAHelper), roleACmr, null);
-        List roleBFieldNames = getFieldNames(roleBHelper);
-        if (tableAName.equals(tableBName)) {
-            // Handle the special case when both parts of the join table reference
-            // the same table -- in that case both roleACmr and roleBCmr
-            // will be added to the same class, but they have the same name.
-            // So pretend roleACmr was already added when computing an unique
-            // name for roleBCmr
-            roleBFieldNames.add(roleACmr);
-        }
+        Set<String> roleBFieldNames = getFieldNames(roleBHelper);
+        // When both parts of the join table reference the same table, both
+        // roleACmr and roleBCmr are added to the same class: roleACmr is
+        // already in its field names when computing an unique name for roleBCmr
         roleBCmr = uniqueAlgorithm(roleBFieldNames, roleBCmr, null);
 
         RelationshipRole roleA = new RelationshipRole(
@@ -434,7 +436,7 @@ public class DbSchemaEjbGenerator {
         return false;
     }
 
-    private static boolean isFkUnique(ForeignKeyElement key) {
+    static boolean isFkUnique(ForeignKeyElement key) {
         UniqueKeyElement[] uk = key.getDeclaringTable().getUniqueKeys();
         if (uk == null) {
             return false;
@@ -500,7 +502,7 @@ public class DbSchemaEjbGenerator {
     private void generateRelationship(ForeignKeyElement key) {
         String keyTableName = key.getDeclaringTable().getName().getName();
         String keyRefName = key.getReferencedTable().getName().getName();
-        boolean oneToOne = isFkUnique(key);
+        boolean oneToOne = schemaIndex.isFkUnique(key);
         EntityClass roleAHelper = getBean(keyTableName);
         if (roleAHelper == null) {
             return;
@@ -575,6 +577,7 @@ public class DbSchemaEjbGenerator {
     private void reset() {
         beans.clear();
         relations.clear();
+        fieldNames.clear();
     }
 
     private void buildCMPSet() {
@@ -582,19 +585,20 @@ public class DbSchemaEjbGenerator {
         addAllTables();
         for (Iterator it = beans.keySet().iterator(); it.hasNext();) {
             String tableName = it.next().toString();
-            TableElement table = schemaElement.getTable(DBIdentifier.create(tableName));
+            TableElement table = schemaIndex.getTable(tableName);
             ColumnElement[] cols = table.getColumns();
             UniqueKeyElement pk = getPrimaryOrCandidateKey(table);
             ForeignKeyElement[] fkeys = table.getForeignKeys();
             //sometimes database may contain duplicating foreign keys (or it may be an issue in db schema generation)
             fkeys = removeDuplicateFK(fkeys);
+            Set<String> fkColumnNames = getForeignKeyColumnNames(fkeys);
 
             for (ColumnElement col : cols) {
                 if (pk != null && pk.getColumn(col.getName()) != null) {
                     generatePkField(col, true, pk.getColumns().length == 1);
                 } else // TODO add check to see if table is included
                 {
-                    if (!isForeignKey(fkeys, col)) {
+                    if (!fkColumnNames.contains(col.getName().getName())) {
                         generatePkField(col, false, false);
                     }
                 }
@@ -610,15 +614,22 @@ public class DbSchemaEjbGenerator {
         makeRelationsUnique();
     }
 
-    private List getFieldNames(EntityClass bean) {
-        List result = new ArrayList();
-        for (EntityMember member : bean.getFields()) {
-            result.add(member.getMemberName());
-        }
-        for (RelationshipRole role : bean.getRoles()) {
-            result.add(role.getFieldName());
-        }
-        return result;
+    /**
+     * @return the names of the fields and relationship fields of the bean,
+     * the names computed by {@link #uniqueAlgorithm} on this set must be added
+     * to the bean
+     */
+    private Set<String> getFieldNames(EntityClass bean) {
+        return fieldNames.computeIfAbsent(bean, key -> {
+            Set<String> result = new HashSet<>();
+            for (EntityMember member : bean.getFields()) {
+                result.add(member.getMemberName());
+            }
+            for (RelationshipRole role : bean.getRoles()) {
+                result.add(role.getFieldName());
+            }
+            return result;
+        });
     }
 
     /**
@@ -626,7 +637,7 @@ public class DbSchemaEjbGenerator {
      */
     private EntityRelation[] makeRelationsUnique() {
         EntityRelation[] r = getRelations();
-        List relationNames = new ArrayList(r.length);
+        Set<String> relationNames = new HashSet<>(r.length * 2);
         for (EntityRelation r1 : r) {
             r1.makeRoleNamesUnique();
             String baseName = r1.getRelationName();
@@ -638,7 +649,7 @@ public class DbSchemaEjbGenerator {
     /**
      * return name generated or base name if this was ok
      */
-    private static String uniqueAlgorithm(List names, String baseName, String sep) {
+    private static String uniqueAlgorithm(Set<String> names, String baseName, String sep) {
         String newName = baseName;
         int unique = 0;
         while (names.contains(newName)) {
@@ -699,7 +710,7 @@ public class DbSchemaEjbGenerator {
 
         @Override
         public int hashCode() {
-            return tableName.hashCode();
+            return 31 * tableName.hashCode() + (refName == null ? 0 : refName.hashCode());
         }
 
         @Override
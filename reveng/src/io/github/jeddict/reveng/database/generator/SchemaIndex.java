@@ -0,0 +1,139 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.reveng.database.generator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.netbeans.modules.dbschema.ColumnElement;
+import org.netbeans.modules.dbschema.ForeignKeyElement;
+import org.netbeans.modules.dbschema.SchemaElement;
+import org.netbeans.modules.dbschema.TableElement;
+import org.netbeans.modules.dbschema.UniqueKeyElement;
+
+/**
+ * Indexes of a db schema computed in a single pass over its tables and
+ * foreign keys, so that the schema analysis done on import (join tables,
+ * derived ids, one-to-one relations) does not rescan the schema for each
+ * table.
+ */
+public class SchemaIndex {
+
+    private final Map<String, TableElement> tables = new HashMap<>();
+    private final Map<String, Set<String>> referencedTableNames = new HashMap<>();
+    private final Map<String, Set<String>> referrerTableNames = new HashMap<>();
+    private final Map<String, Set<Set<String>>> uniqueColumnSets = new HashMap<>();
+    private final Set<String> primaryKeyIsForeignKeyTables = new HashSet<>();
+
+    public SchemaIndex(SchemaElement schemaElement) {
+        for (TableElement table : schemaElement.getTables()) {
+            String tableName = table.getName().getName();
+            tables.put(tableName, table);
+
+            UniqueKeyElement[] uniqueKeys = table.getUniqueKeys();
+            if (uniqueKeys != null && uniqueKeys.length > 0) {
+                Set<Set<String>> columnSets = new HashSet<>();
+                for (UniqueKeyElement uniqueKey : uniqueKeys) {
+                    columnSets.add(getColumnNames(uniqueKey.getColumns()));
+                }
+                uniqueColumnSets.put(tableName, columnSets);
+            }
+
+            UniqueKeyElement pk = table.getPrimaryKey();
+            for (ForeignKeyElement fk : table.getForeignKeys()) {
+                TableElement referencedTable = fk.getReferencedTable();
+                String referencedTableName = referencedTable.getName().getName();
+                referencedTableNames.computeIfAbsent(tableName, name -> new HashSet<>()).add(referencedTableName);
+                referrerTableNames.computeIfAbsent(referencedTableName, name -> new HashSet<>()).add(tableName);
+                //at first step support 1-1 keys (no composite yet).
+                UniqueKeyElement referencedPk = referencedTable.getPrimaryKey();
+                if (pk != null && referencedPk != null
+                        && pk.getColumns().length == 1 && fk.getLocalColumns().length == 1 && referencedPk.getColumns().length == 1
+                        && fk.getLocalColumns()[0].equals(pk.getColumns()[0])) {
+                    primaryKeyIsForeignKeyTables.add(tableName);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param tableName the name of the table
+     * @return the table, null if not in the schema
+     */
+    public TableElement getTable(String tableName) {
+        return tables.get(tableName);
+    }
+
+    /**
+     * @return the names of the tables referenced by at least one foreign key
+     */
+    public Set<String> getTablesReferecedByOtherTables() {
+        return Collections.unmodifiableSet(referrerTableNames.keySet());
+    }
+
+    /**
+     * @param tableName the name of the table
+     * @return the names of the tables referenced by the foreign keys of the
+     * table
+     */
+    public Set<String> getReferencedTableNames(String tableName) {
+        return Collections.unmodifiableSet(referencedTableNames.getOrDefault(tableName, Collections.emptySet()));
+    }
+
+    /**
+     * @param tableName the name of the table
+     * @return the names of the tables having a foreign key to the table
+     */
+    public Set<String> getReferrerTableNames(String tableName) {
+        return Collections.unmodifiableSet(referrerTableNames.getOrDefault(tableName, Collections.emptySet()));
+    }
+
+    /**
+     * @return the names of the tables whose single column primary key is a
+     * foreign key to the single column primary key of another table
+     */
+    public Set<String> getTablesReferencesOtherTablesWithPrimaryKeyMatch() {
+        return Collections.unmodifiableSet(primaryKeyIsForeignKeyTables);
+    }
+
+    /**
+     * @param key the foreign key
+     * @return true if the columns of the foreign key are exactly the columns
+     * of a unique key of its table
+     */
+    public boolean isFkUnique(ForeignKeyElement key) {
+        Set<Set<String>> columnSets = uniqueColumnSets.get(key.getDeclaringTable().getName().getName());
+        return columnSets != null && columnSets.contains(getColumnNames(key.getColumns()));
+    }
+
+    /**
+     * @see DbSchemaEjbGenerator#isJoinTable(TableElement, Set)
+     */
+    public boolean isJoinTable(TableElement table) {
+        return DbSchemaEjbGenerator.isJoinTable(table, referrerTableNames.keySet(), this::isFkUnique);
+    }
+
+    private static Set<String> getColumnNames(ColumnElement[] columns) {
+        Set<String> names = new HashSet<>();
+        for (ColumnElement column : columns) {
+            names.add(column.getName().getName());
+        }
+        return names;
+    }
+
+}
@@ -17,44 +17,117 @@ package io.github.jeddict.reveng.klass.wizard;
 
 import io.github.jeddict.collaborate.issues.ExceptionUtils;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import javax.lang.model.element.TypeElement;
+import org.apache.commons.lang3.StringUtils;
 import org.netbeans.api.java.source.ClasspathInfo;
 import org.netbeans.api.java.source.CompilationController;
 import org.netbeans.api.java.source.JavaSource;
 import org.netbeans.api.project.Project;
 import io.github.jeddict.jpa.spec.EntityMappings;
+import io.github.jeddict.jpa.spec.ManagedClass;
+import io.github.jeddict.jpa.spec.extend.IPersistenceAttributes;
+import io.github.jeddict.jpa.spec.extend.RelationAttribute;
 import io.github.jeddict.source.JavaSourceParserUtil;
+import org.netbeans.modules.j2ee.persistence.wizard.jpacontroller.ProgressReporter;
 import org.openide.filesystems.FileObject;
+import org.openide.util.NbBundle;
 
 public class JPAModelGenerator {
 
     public static void generateJPAModel(final EntityMappings entityMappings, Project project, final String entityClass, FileObject pkg, final List<String> missingEntities) throws IOException {
-//        final boolean isInjection = Util.isContainerManaged(project);
-//        final String simpleEntityName = JavaSourceParserUtil.simpleClassName(entityClass);
+        generateJPAModel(entityMappings, pkg, new HashSet<>(Collections.singleton(entityClass)), false, missingEntities, null, 0);
+    }
 
-        final boolean[] fieldAccess = new boolean[]{false};
-        //detect access type
+    /**
+     * Loads the entity classes in a single compilation: one {@link JavaSource}
+     * over a shared {@link ClasspathInfo} resolves all the requested classes
+     * and, if required, the entities referenced by their relations
+     * (transitively).
+     *
+     * @param entityMappings the model to populate
+     * @param pkg the package used to compute the classpath
+     * @param entityClasses the fully qualified names of the requested
+     * classes, the referenced classes are added to it
+     * @param includeReference load the entities referenced by the relations
+     * @param missingEntities populated with the classes not found on the
+     * classpath
+     * @param reporter notified before each class is parsed, may be null
+     * @param progressIndex the progress step of the first parsed class
+     * @return the progress step following the last parsed class
+     * @throws IOException
+     */
+    public static int generateJPAModel(final EntityMappings entityMappings, FileObject pkg, final Set<String> entityClasses,
+            final boolean includeReference, final List<String> missingEntities, final ProgressReporter reporter, int progressIndex) throws IOException {
+        final int[] progress = new int[]{progressIndex};
         final ClasspathInfo classpathInfo = ClasspathInfo.create(pkg);
         JavaSource javaSource = JavaSource.create(classpathInfo);
         javaSource.runUserActionTask((CompilationController controller) -> {
-            try {
-                controller.toPhase(JavaSource.Phase.ELEMENTS_RESOLVED);
-                TypeElement jc = controller.getElements().getTypeElement(entityClass);
-                if (jc != null) {
-                    fieldAccess[0] = JavaSourceParserUtil.isFieldAccess(jc);
-                    if (!entityMappings.findEntity(jc.getSimpleName().toString()).isPresent()) {
-                        io.github.jeddict.jpa.spec.Entity entitySpec = new io.github.jeddict.jpa.spec.Entity();
-                        entitySpec.load(entityMappings, jc, fieldAccess[0]);
-                        entityMappings.addEntity(entitySpec);
+            controller.toPhase(JavaSource.Phase.ELEMENTS_RESOLVED);
+            Deque<String> pendingClasses = new ArrayDeque<>(entityClasses);
+            Set<String> resolvedClasses = new HashSet<>();
+            while (!pendingClasses.isEmpty()) {
+                while (!pendingClasses.isEmpty()) {
+                    String entityClass = pendingClasses.poll();
+                    if (!resolvedClasses.add(entityClass)) {
+                        continue;
+                    }
+                    if (reporter != null) {
+                        reporter.progress(NbBundle.getMessage(JPAModelGenerator.class, "MSG_Progress_JPA_Class_Parsing", entityClass + ".java"), progress[0]++);//NOI18N
+                    }
+                    loadEntity(controller, entityMappings, entityClass, missingEntities);
+                }
+                if (includeReference) {
+                    for (String entityClass : getReferencedClasses(entityMappings)) {
+                        if (!resolvedClasses.contains(entityClass)) {
+                            pendingClasses.add(entityClass);
+                            entityClasses.add(entityClass);
+                        }
                     }
-                } else {
-                    missingEntities.add(entityClass);
                 }
-            } catch(Throwable t){
-                ExceptionUtils.printStackTrace(t);
             }
         }, true);
+        return progress[0];
+    }
+
+    private static void loadEntity(CompilationController controller, EntityMappings entityMappings, String entityClass, List<String> missingEntities) {
+        try {
+            TypeElement jc = controller.getElements().getTypeElement(entityClass);
+            if (jc != null) {
+                boolean fieldAccess = JavaSourceParserUtil.isFieldAccess(jc);
+                if (!entityMappings.findEntity(jc.getSimpleName().toString()).isPresent()) {
+                    io.github.jeddict.jpa.spec.Entity entitySpec = new io.github.jeddict.jpa.spec.Entity();
+                    entitySpec.load(entityMappings, jc, fieldAccess);
+                    entityMappings.addEntity(entitySpec);
+                }
+            } else {
+                missingEntities.add(entityClass);
+            }
+        } catch (Throwable t) {
+            ExceptionUtils.printStackTrace(t);
+        }
+    }
+
+    private static List<String> getReferencedClasses(EntityMappings entityMappings) {
+        List<ManagedClass> classes = new ArrayList<>(entityMappings.getEntity());
+        // manageSiblingAttribute for MappedSuperClass and Embeddable is not required for (DBRE) DB REV ENG CASE
+        classes.addAll(entityMappings.getMappedSuperclass());
+        classes.addAll(entityMappings.getEmbeddable());
+
+        List<String> referencedClasses = new ArrayList<>();
+        for (ManagedClass<IPersistenceAttributes> managedClass : classes) {
+            for (RelationAttribute attribute : managedClass.getAttributes().getRelationAttributes()) {
+                referencedClasses.add(StringUtils.isBlank(entityMappings.getPackage())
+                        ? attribute.getTargetEntity() : entityMappings.getPackage() + '.' + attribute.getTargetEntity());
+            }
+        }
+        return referencedClasses;
     }
 
 }
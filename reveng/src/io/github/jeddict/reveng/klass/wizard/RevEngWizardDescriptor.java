@@ -46,9 +46,6 @@ import org.netbeans.api.templates.TemplateRegistration;
 import io.github.jeddict.jpa.modeler.initializer.JPAModelerUtil;
 import static io.github.jeddict.jpa.modeler.initializer.JPAModelerUtil.getModelerFileVersion;
 import io.github.jeddict.jpa.spec.EntityMappings;
-import io.github.jeddict.jpa.spec.ManagedClass;
-import io.github.jeddict.jpa.spec.extend.IPersistenceAttributes;
-import io.github.jeddict.jpa.spec.extend.RelationAttribute;
 import io.github.jeddict.reveng.JCREProcessor;
 import io.github.jeddict.source.JavaSourceParserUtil;
 import org.netbeans.modeler.core.ModelerFile;
@@ -184,30 +181,7 @@ public final class RevEngWizardDescriptor implements WizardDescriptor.Instantiat
         }
 
         List<String> missingEntities = new ArrayList<>();
-        for (String entityClass : entities) {
-            progressMsg = NbBundle.getMessage(RevEngWizardDescriptor.class, "MSG_Progress_JPA_Class_Parsing", entityClass + ".java");//NOI18N
-            reporter.progress(progressMsg, progressIndex++);
-            JPAModelGenerator.generateJPAModel(entityMappingsSpec, project, entityClass, packageFileObject, missingEntities);
-        }
-
-        if (includeReference) {
-            List<ManagedClass> classes = new ArrayList<>(entityMappingsSpec.getEntity());
-            // manageSiblingAttribute for MappedSuperClass and Embeddable is not required for (DBRE) DB REV ENG CASE
-            classes.addAll(entityMappingsSpec.getMappedSuperclass());
-            classes.addAll(entityMappingsSpec.getEmbeddable());
-
-            for (ManagedClass<IPersistenceAttributes> managedClass : classes) {
-                for (RelationAttribute attribute : new ArrayList<>(managedClass.getAttributes().getRelationAttributes())) {
-                    String entityClass = StringUtils.isBlank(entityMappingsSpec.getPackage()) ? attribute.getTargetEntity() : entityMappingsSpec.getPackage() + '.' + attribute.getTargetEntity();
-                    if (!entities.contains(entityClass)) {
-                        progressMsg = NbBundle.getMessage(RevEngWizardDescriptor.class, "MSG_Progress_JPA_Class_Parsing", entityClass + ".java");//NOI18N
-                        reporter.progress(progressMsg, progressIndex++);
-                        JPAModelGenerator.generateJPAModel(entityMappingsSpec, project, entityClass, packageFileObject,missingEntities);
-                        entities.add(entityClass);
-                    }
-                }
-            }
-        }
+        JPAModelGenerator.generateJPAModel(entityMappingsSpec, packageFileObject, entities, includeReference, missingEntities, reporter, progressIndex);
 
         if (!missingEntities.isEmpty()) {
            final String title,_package;
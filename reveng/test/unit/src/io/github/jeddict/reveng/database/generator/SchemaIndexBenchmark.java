@@ -0,0 +1,209 @@
+/**
+ * Copyright 2013-2018 the original author or authors from the Jeddict project (https://jeddict.github.io/).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.github.jeddict.reveng.database.generator;
+
+import java.sql.Types;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.modules.dbschema.ColumnElement;
+import org.netbeans.modules.dbschema.ColumnPairElement;
+import org.netbeans.modules.dbschema.DBException;
+import org.netbeans.modules.dbschema.DBIdentifier;
+import org.netbeans.modules.dbschema.ForeignKeyElement;
+import org.netbeans.modules.dbschema.SchemaElement;
+import org.netbeans.modules.dbschema.TableElement;
+import org.netbeans.modules.dbschema.UniqueKeyElement;
+
+/**
+ * Times the schema analysis done on import (referenced tables, derived ids,
+ * join tables and one-to-one foreign keys) on a synthetic schema built in
+ * memory, with the per table scans of {@link DbSchemaEjbGenerator} and with
+ * {@link SchemaIndex}, and checks that both give the same result.
+ *
+ * The schema has, for each group of three tables, an entity table with a
+ * foreign key to the previous entity and a unique key, a detail table whose
+ * primary key is a foreign key to the entity and a join table between the
+ * entity and the previous one.
+ *
+ * Usage: SchemaIndexBenchmark [tables] [iterations]
+ */
+public class SchemaIndexBenchmark {
+
+    public static void main(String[] args) throws DBException {
+        int tableCount = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        SchemaElement schema = createSchema(tableCount / 3);
+        System.out.println("Tables : " + schema.getTables().length);
+
+        Result scan = null, index = null;
+        long scanTime = Long.MAX_VALUE, indexTime = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            scan = analyzeWithScan(schema);
+            scanTime = Math.min(scanTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            index = analyzeWithIndex(schema);
+            indexTime = Math.min(indexTime, System.nanoTime() - start);
+        }
+        if (!scan.equals(index)) {
+            throw new IllegalStateException("Analysis mismatch, scan : " + scan + ", index : " + index);
+        }
+        System.out.println("Result : " + index);
+        System.out.printf("Schema scan  : %d ms%n", TimeUnit.NANOSECONDS.toMillis(scanTime));
+        System.out.printf("Schema index : %d ms%n", TimeUnit.NANOSECONDS.toMillis(indexTime));
+    }
+
+    private static Result analyzeWithScan(SchemaElement schema) {
+        Result result = new Result();
+        Set<String> tablesReferecedByOtherTables = DbSchemaEjbGenerator.getTablesReferecedByOtherTables(schema);
+        result.referencedTables = tablesReferecedByOtherTables.size();
+        result.derivedIdTables = DbSchemaEjbGenerator.getTablesReferencesOtherTablesWithPrimaryKeyMatch(schema).size();
+        for (TableElement schemaTable : schema.getTables()) {
+            TableElement table = schema.getTable(DBIdentifier.create(schemaTable.getName().getName()));
+            if (DbSchemaEjbGenerator.isJoinTable(table, tablesReferecedByOtherTables)) {
+                result.joinTables++;
+            }
+            for (ForeignKeyElement key : table.getForeignKeys()) {
+                if (DbSchemaEjbGenerator.isFkUnique(key)) {
+                    result.uniqueForeignKeys++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Result analyzeWithIndex(SchemaElement schema) {
+        Result result = new Result();
+        SchemaIndex schemaIndex = new SchemaIndex(schema);
+        result.referencedTables = schemaIndex.getTablesReferecedByOtherTables().size();
+        result.derivedIdTables = schemaIndex.getTablesReferencesOtherTablesWithPrimaryKeyMatch().size();
+        for (TableElement schemaTable : schema.getTables()) {
+            TableElement table = schemaIndex.getTable(schemaTable.getName().getName());
+            if (schemaIndex.isJoinTable(table)) {
+                result.joinTables++;
+            }
+            for (ForeignKeyElement key : table.getForeignKeys()) {
+                if (schemaIndex.isFkUnique(key)) {
+                    result.uniqueForeignKeys++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static SchemaElement createSchema(int groups) throws DBException {
+        SchemaElement schema = new SchemaElement();
+        schema.setName(DBIdentifier.create("BENCHMARK")); // NOI18N
+        TableElement previous = null;
+        for (int i = 0; i < groups; i++) {
+            TableElement entity = createTable(schema, "ENTITY_" + i); // NOI18N
+            ColumnElement id = createColumn(entity, "ID"); // NOI18N
+            ColumnElement code = createColumn(entity, "CODE"); // NOI18N
+            createUniqueKey(entity, "PK_ENTITY_" + i, true, id); // NOI18N
+            createUniqueKey(entity, "UK_ENTITY_" + i, false, code); // NOI18N
+
+            TableElement detail = createTable(schema, "DETAIL_" + i); // NOI18N
+            ColumnElement detailId = createColumn(detail, "ENTITY_ID"); // NOI18N
+            createColumn(detail, "DESCRIPTION"); // NOI18N
+            createUniqueKey(detail, "PK_DETAIL_" + i, true, detailId); // NOI18N
+            createForeignKey(detail, "FK_DETAIL_" + i, detailId, id); // NOI18N
+
+            if (previous != null) {
+                ColumnElement parentId = createColumn(entity, "PARENT_ID"); // NOI18N
+                ColumnElement previousId = previous.getColumn(DBIdentifier.create("ID")); // NOI18N
+                createForeignKey(entity, "FK_ENTITY_" + i, parentId, previousId); // NOI18N
+
+                TableElement join = createTable(schema, "JOIN_" + i); // NOI18N
+                ColumnElement left = createColumn(join, "LEFT_ID"); // NOI18N
+                ColumnElement right = createColumn(join, "RIGHT_ID"); // NOI18N
+                createUniqueKey(join, "PK_JOIN_" + i, true, left, right); // NOI18N
+                createForeignKey(join, "FK_JOIN_LEFT_" + i, left, id); // NOI18N
+                createForeignKey(join, "FK_JOIN_RIGHT_" + i, right, previousId); // NOI18N
+            }
+            previous = entity;
+        }
+        return schema;
+    }
+
+    private static TableElement createTable(SchemaElement schema, String name) throws DBException {
+        TableElement table = new TableElement();
+        table.setName(DBIdentifier.create(name));
+        table.setTableOrView(true);
+        schema.addTable(table);
+        return schema.getTable(DBIdentifier.create(name));
+    }
+
+    private static ColumnElement createColumn(TableElement table, String name) throws DBException {
+        ColumnElement column = new ColumnElement();
+        column.setName(DBIdentifier.create(name));
+        column.setType(Types.INTEGER);
+        column.setNullable(false);
+        table.addColumn(column);
+        return table.getColumn(DBIdentifier.create(name));
+    }
+
+    private static void createUniqueKey(TableElement table, String name, boolean primaryKey, ColumnElement... columns) throws DBException {
+        UniqueKeyElement key = new UniqueKeyElement();
+        key.setName(DBIdentifier.create(name));
+        key.setPrimaryKey(primaryKey);
+        key.addColumns(columns);
+        table.addKey(key);
+    }
+
+    private static void createForeignKey(TableElement table, String name, ColumnElement local, ColumnElement referenced) throws DBException {
+        ColumnPairElement pair = new ColumnPairElement();
+        pair.setName(DBIdentifier.create(local.getName().getName() + ';' + referenced.getName().getName()));
+        pair.setLocalColumn(local);
+        pair.setReferencedColumn(referenced);
+        ForeignKeyElement key = new ForeignKeyElement();
+        key.setName(DBIdentifier.create(name));
+        key.addColumnPair(pair);
+        table.addKey(key);
+    }
+
+    private static class Result {
+
+        private int referencedTables;
+        private int derivedIdTables;
+        private int joinTables;
+        private int uniqueForeignKeys;
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Result)) {
+                return false;
+            }
+            Result other = (Result) obj;
+            return referencedTables == other.referencedTables
+                    && derivedIdTables == other.derivedIdTables
+                    && joinTables == other.joinTables
+                    && uniqueForeignKeys == other.uniqueForeignKeys;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((referencedTables * 31 + derivedIdTables) * 31 + joinTables) * 31 + uniqueForeignKeys;
+        }
+
+        @Override
+        public String toString() {
+            return "referenced tables " + referencedTables + ", derived id tables " + derivedIdTables
+                    + ", join tables " + joinTables + ", unique foreign keys " + uniqueForeignKeys;
+        }
+    }
+
+}